@@ -1,8 +1,12 @@
 package com.instafit.core.controller;
 
+import com.instafit.core.dto.BookingFilter;
+import com.instafit.core.dto.BookingListPage;
 import com.instafit.core.entity.Booking;
 import com.instafit.core.entity.BookingLog;
+import com.instafit.core.service.BookingSearchService;
 import com.instafit.core.service.BookingService;
+import com.instafit.core.service.BookingSyncJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +29,12 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingSyncJobService bookingSyncJobService;
+
+    @Autowired
+    private BookingSearchService bookingSearchService;
+
     /**
      * Bookings management page
      */
@@ -48,19 +58,31 @@ public class BookingController {
 
     /**
      * API: Fetch bookings from Supabase
+     * Starts a background sync (or joins the running one) and returns its job id;
+     * full=true rewinds the sync cursor first, and is refused (409) while an incremental sync runs
      */
     @GetMapping("/api/bookings/fetch")
     @ResponseBody
     @PreAuthorize("hasRole('OPERATION')")
-    public ResponseEntity<Map<String, Object>> fetchBookings() {
+    public ResponseEntity<Map<String, Object>> fetchBookings(
+            @RequestParam(value = "full", defaultValue = "false") boolean full,
+            Authentication authentication) {
         try {
-            List<Booking> bookings = bookingService.fetchAndSaveBookings();
+            BookingSyncJobService.SyncJob job = bookingSyncJobService.trigger(authentication.getName(), full);
             Map<String, Object> response = new HashMap<>();
+            if (full && !job.isFullResync()) {
+                response.put("success", false);
+                response.put("message", "A booking sync is already running; the full resync was not started. " +
+                        "Try again when it finishes");
+                response.put("jobId", job.getJobId());
+                response.put("status", job.getStatus());
+                return ResponseEntity.status(409).body(response);
+            }
             response.put("success", true);
-            response.put("message", "Bookings fetched successfully");
-            response.put("count", bookings.size());
-            response.put("data", bookings);
-            return ResponseEntity.ok(response);
+            response.put("message", "Booking sync started");
+            response.put("jobId", job.getJobId());
+            response.put("status", job.getStatus());
+            return ResponseEntity.accepted().body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -70,13 +92,112 @@ public class BookingController {
     }
 
     /**
-     * API: Get all bookings
+     * API: Poll a booking sync job
      */
-    @GetMapping("/api/bookings")
+    @GetMapping("/api/bookings/fetch/jobs/{jobId}")
     @ResponseBody
     @PreAuthorize("hasRole('OPERATION')")
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+    public ResponseEntity<Map<String, Object>> getFetchJob(@PathVariable String jobId) {
+        Map<String, Object> response = new HashMap<>();
+        return bookingSyncJobService.getJob(jobId)
+                .map(job -> {
+                    response.put("success", true);
+                    response.put("data", job);
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> {
+                    response.put("success", false);
+                    response.put("message", "Sync job not found: " + jobId);
+                    return ResponseEntity.status(404).body(response);
+                });
+    }
+
+    /**
+     * API: Booking sync health - last run latency, row counts and lag
+     */
+    @GetMapping("/api/bookings/fetch/status")
+    @ResponseBody
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> getFetchStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", bookingSyncJobService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * API: Booking counts for the home page (listings page through /api/bookings/list)
+     */
+    @GetMapping("/api/bookings/counts")
+    @ResponseBody
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> getBookingCounts() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", bookingService.getBookingCounts());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * API: Ranked search by customer name, mobile, order number, service or address
+     */
+    @GetMapping("/api/bookings/search")
+    @ResponseBody
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> searchBookings(
+            @RequestParam("q") String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Map<String, Object> result = bookingSearchService.search(query, cursor, size);
+            response.put("success", true);
+            response.put("data", result.get("items"));
+            response.put("size", result.get("size"));
+            response.put("nextCursor", result.get("nextCursor"));
+            response.put("hasMore", result.get("hasMore"));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error searching bookings: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * API: Keyset-paginated booking list with slim rows (address included; no notes/service types).
+     * Covers the status and submitted listings: status=, assignmentStatus=SUBMITTED, submitted=true
+     */
+    @GetMapping("/api/bookings/list")
+    @ResponseBody
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> listBookings(
+            BookingFilter filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        try {
+            BookingListPage result = bookingService.listBookings(filter, cursor, size);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", result.getItems());
+            response.put("nextCursor", result.getNextCursor());
+            response.put("hasMore", result.isHasMore());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error loading bookings: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
     }
 
     /**
@@ -172,14 +293,4 @@ public class BookingController {
             return ResponseEntity.status(500).body(response);
         }
     }
-
-    /**
-     * API: Get bookings by status
-     */
-    @GetMapping("/api/bookings/status/{status}")
-    @ResponseBody
-    @PreAuthorize("hasRole('OPERATION')")
-    public ResponseEntity<List<Booking>> getBookingsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(bookingService.getBookingsByStatus(status));
-    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.instafit.core.controller;
 
+import com.instafit.core.dto.ImportReport;
 import com.instafit.core.entity.Branch;
 import com.instafit.core.service.BranchService;
+import com.instafit.core.service.MasterDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
 import java.util.HashMap;
@@ -24,11 +28,14 @@ public class BranchApiController {
     @Autowired
     private BranchService branchService;
 
+    @Autowired
+    private MasterDataCache masterDataCache;
+
     // PUBLIC ENDPOINT - No authentication required
     @GetMapping("/active")
-    public ResponseEntity<List<Branch>> getActiveBranches() {
+    public ResponseEntity<byte[]> getActiveBranches(WebRequest request) {
         logger.info("Fetching active branches (public endpoint)");
-        return ResponseEntity.ok(branchService.getActiveBranches());
+        return masterDataCache.activeJsonResponse(MasterDataCache.Table.BRANCHES, request);
     }
 
     // PROTECTED ENDPOINTS - Require OPERATION role
@@ -38,6 +45,12 @@ public class BranchApiController {
         return ResponseEntity.ok(branchService.getAllBranches());
     }
 
+    @GetMapping("/city/{cityCode}")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<List<Branch>> getBranchesByCity(@PathVariable String cityCode) {
+        return ResponseEntity.ok(branchService.getBranchesByCity(cityCode));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('OPERATION')")
     public ResponseEntity<Map<String, Object>> createBranch(
@@ -118,4 +131,25 @@ public class BranchApiController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/upload")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> uploadExcel(
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ImportReport report = branchService.uploadFromExcel(file, authentication.getName());
+            response.put("success", true);
+            response.put("message", report.getSummary());
+            response.put("data", report);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error uploading Excel", e);
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.instafit.core.controller;
 
+import com.instafit.core.service.AutoAssignmentService;
 import com.instafit.core.service.CarpenterAssignmentService;
+import com.instafit.core.service.GeocodeCacheService;
+import com.instafit.core.service.GeocodingPipelineService;
+import com.instafit.core.service.MapsHttpClient;
+import com.instafit.core.service.RoadDistanceCache;
+import com.instafit.core.service.RouteLegService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +17,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +30,24 @@ public class CarpenterAssignmentApiController {
     @Autowired
     private CarpenterAssignmentService carpenterAssignmentService;
 
+    @Autowired
+    private AutoAssignmentService autoAssignmentService;
+
+    @Autowired
+    private GeocodeCacheService geocodeCacheService;
+
+    @Autowired
+    private GeocodingPipelineService geocodingPipelineService;
+
+    @Autowired
+    private MapsHttpClient mapsHttpClient;
+
+    @Autowired
+    private RoadDistanceCache roadDistanceCache;
+
+    @Autowired
+    private RouteLegService routeLegService;
+
     @PostMapping("/assign")
     @PreAuthorize("hasRole('OPERATION')")
     public ResponseEntity<Map<String, Object>> assignOrders(
@@ -44,6 +69,41 @@ public class CarpenterAssignmentApiController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Plan (dryRun=true, the default) or apply a whole day's assignment across carpenters
+     */
+    @PostMapping("/auto-assign")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> autoAssign(
+            @RequestBody AutoAssignRequest request,
+            Authentication authentication) {
+
+        if (request.getDate() == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "date is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        logger.info("Auto-assigning {} for city {} branch {} (dryRun={})",
+                request.getDate(), request.getCityCode(), request.getBranchCode(), request.isDryRun());
+
+        try {
+            Map<String, Object> result = request.isDryRun()
+                    ? autoAssignmentService.preview(request.getDate(), request.getCityCode(),
+                            request.getBranchCode(), request.getMaxJobsPerCarpenter())
+                    : autoAssignmentService.commit(request.getDate(), request.getCityCode(),
+                            request.getBranchCode(), request.getMaxJobsPerCarpenter(), authentication.getName());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            logger.error("Auto-assignment failed for {}", request.getDate(), e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error auto-assigning orders: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     @PostMapping("/update-geocode/{bookingId}")
     @PreAuthorize("hasRole('OPERATION')")
     public ResponseEntity<Map<String, Object>> updateGeocode(
@@ -129,6 +189,79 @@ public class CarpenterAssignmentApiController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Stored route with per-leg distance, duration and polyline; served from the database only
+     */
+    @GetMapping("/route/{carpenterId}/stored")
+    @PreAuthorize("hasAnyRole('OPERATION', 'CARPENTER')")
+    public ResponseEntity<Map<String, Object>> getStoredRoute(
+            @PathVariable String carpenterId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        Map<String, Object> route = routeLegService.getStoredRoute(carpenterId, date);
+        Map<String, Object> response = new HashMap<>();
+        if (route == null) {
+            response.put("success", false);
+            response.put("message", "No route stored for " + carpenterId + " on " + date);
+            return ResponseEntity.status(404).body(response);
+        }
+        response.put("success", true);
+        response.put("data", route);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/geocode-cache/stats")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> getGeocodeCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", geocodeCacheService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/geocode-progress")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> getGeocodeProgress(@RequestParam List<Long> bookingIds) {
+        List<Map<String, Object>> progress = geocodingPipelineService.getProgress(bookingIds);
+        long pending = progress.stream()
+                .filter(p -> GeocodingPipelineService.STATUS_QUEUED.equals(p.get("geocodeStatus")))
+                .count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", progress);
+        response.put("pending", pending);
+        response.put("completed", pending == 0);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/geocode-pipeline/stats")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> getGeocodePipelineStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", geocodingPipelineService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/maps-client/stats")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> getMapsClientStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", mapsHttpClient.getPoolStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/distance-cache/stats")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> getDistanceCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", roadDistanceCache.getStats());
+        return ResponseEntity.ok(response);
+    }
+
     public static class AssignmentRequest {
         private List<Long> bookingIds;
         private String carpenterId;
@@ -159,6 +292,54 @@ public class CarpenterAssignmentApiController {
         }
     }
 
+    public static class AutoAssignRequest {
+        private LocalDate date;
+        private String cityCode;
+        private String branchCode;
+        private Integer maxJobsPerCarpenter;
+        private boolean dryRun = true;
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public String getCityCode() {
+            return cityCode;
+        }
+
+        public void setCityCode(String cityCode) {
+            this.cityCode = cityCode;
+        }
+
+        public String getBranchCode() {
+            return branchCode;
+        }
+
+        public void setBranchCode(String branchCode) {
+            this.branchCode = branchCode;
+        }
+
+        public Integer getMaxJobsPerCarpenter() {
+            return maxJobsPerCarpenter;
+        }
+
+        public void setMaxJobsPerCarpenter(Integer maxJobsPerCarpenter) {
+            this.maxJobsPerCarpenter = maxJobsPerCarpenter;
+        }
+
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        public void setDryRun(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+    }
+
     public static class RouteRequest {
         private String carpenterId;
         private LocalDate routeDate;
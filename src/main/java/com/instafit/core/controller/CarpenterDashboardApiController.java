@@ -1,10 +1,10 @@
 package com.instafit.core.controller;
 
-import com.instafit.core.entity.Booking;
+import com.instafit.core.dto.CarpenterJobStats;
 import com.instafit.core.entity.Carpenter;
 import com.instafit.core.entity.User;
-import com.instafit.core.repository.BookingRepository;
 import com.instafit.core.service.CarpenterService;
+import com.instafit.core.service.CarpenterStatsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +13,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/carpenters/dashboard")
@@ -29,7 +26,7 @@ public class CarpenterDashboardApiController {
     private CarpenterService carpenterService;
 
     @Autowired
-    private BookingRepository bookingRepository;
+    private CarpenterStatsService carpenterStatsService;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats(Authentication authentication) {
@@ -46,43 +43,18 @@ public class CarpenterDashboardApiController {
 
             String carpenterId = carpenter.getCarpenterId();
 
-            // Get all jobs for this carpenter
-            List<Booking> allJobs = bookingRepository.findByCarpenterId(carpenterId);
-
-            // Calculate counts
-            long pendingCount = allJobs.stream()
-                    .filter(b -> "ASSIGNED".equals(b.getAssignmentStatus()))
-                    .count();
-
-            long completedTodayCount = allJobs.stream()
-                    .filter(b -> "COMPLETED".equals(b.getAssignmentStatus()) &&
-                            isToday(b.getAssignedDate()))
-                    .count();
-
-            long monthlyCount = allJobs.stream()
-                    .filter(b -> isCurrentMonth(b.getAssignedDate()))
-                    .count();
-
-            // Get recent jobs (last 5)
-            List<Map<String, Object>> recentJobs = allJobs.stream()
-                    .sorted((a, b) -> {
-                        LocalDate dateA = a.getAssignedDate() != null ? a.getAssignedDate() : LocalDate.MIN;
-                        LocalDate dateB = b.getAssignedDate() != null ? b.getAssignedDate() : LocalDate.MIN;
-                        return dateB.compareTo(dateA);
-                    })
-                    .limit(5)
-                    .map(this::mapBookingToJob)
-                    .collect(Collectors.toList());
+            CarpenterJobStats stats = carpenterStatsService.getStats(carpenterId);
+            List<Map<String, Object>> recentJobs = carpenterStatsService.getRecentJobs(carpenterId, 5);
 
             response.put("success", true);
             response.put("carpenterId", carpenterId);
             response.put("carpenterName", carpenter.getCarpenterName());
-            response.put("pendingJobs", pendingCount);
-            response.put("completedToday", completedTodayCount);
-            response.put("totalThisMonth", monthlyCount);
-            response.put("totalJobs", allJobs.size());
-            response.put("completedTotal", allJobs.stream().filter(b -> "COMPLETED".equals(b.getAssignmentStatus())).count());
-            response.put("inProgress", allJobs.stream().filter(b -> "IN_PROGRESS".equals(b.getAssignmentStatus())).count());
+            response.put("pendingJobs", stats.getPendingJobs());
+            response.put("completedToday", stats.getCompletedToday());
+            response.put("totalThisMonth", stats.getTotalThisMonth());
+            response.put("totalJobs", stats.getTotalJobs());
+            response.put("completedTotal", stats.getCompletedJobs());
+            response.put("inProgress", stats.getInProgressJobs());
             response.put("recentJobs", recentJobs);
 
             return ResponseEntity.ok(response);
@@ -119,16 +91,13 @@ public class CarpenterDashboardApiController {
             response.put("createdAt", carpenter.getCreatedAt());
 
             // Get job statistics
-            List<Booking> allJobs = bookingRepository.findByCarpenterId(carpenter.getCarpenterId());
-            long completed = allJobs.stream().filter(b -> "COMPLETED".equals(b.getAssignmentStatus())).count();
-            long total = allJobs.size();
-            int successRate = total > 0 ? (int)((completed * 100.0) / total) : 0;
+            CarpenterJobStats stats = carpenterStatsService.getStats(carpenter.getCarpenterId());
 
-            response.put("totalJobs", total);
-            response.put("completedJobs", completed);
-            response.put("inProgressJobs", allJobs.stream().filter(b -> "IN_PROGRESS".equals(b.getAssignmentStatus())).count());
-            response.put("pendingJobs", allJobs.stream().filter(b -> "ASSIGNED".equals(b.getAssignmentStatus())).count());
-            response.put("successRate", successRate);
+            response.put("totalJobs", stats.getTotalJobs());
+            response.put("completedJobs", stats.getCompletedJobs());
+            response.put("inProgressJobs", stats.getInProgressJobs());
+            response.put("pendingJobs", stats.getPendingJobs());
+            response.put("successRate", stats.getSuccessRate());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -138,28 +107,4 @@ public class CarpenterDashboardApiController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-
-    private boolean isToday(LocalDate date) {
-        if (date == null) return false;
-        return date.equals(LocalDate.now());
-    }
-
-    private boolean isCurrentMonth(LocalDate date) {
-        if (date == null) return false;
-        LocalDate now = LocalDate.now();
-        return date.getYear() == now.getYear() &&
-                date.getMonth() == now.getMonth();
-    }
-
-    private Map<String, Object> mapBookingToJob(Booking booking) {
-        Map<String, Object> job = new HashMap<>();
-        job.put("id", booking.getId());
-        job.put("orderNo", booking.getOrderNo());
-        job.put("serviceName", booking.getServiceName());
-        job.put("customerName", booking.getCustomerName());
-        job.put("scheduledDate", booking.getAssignedDate());
-        job.put("status", booking.getAssignmentStatus());
-        job.put("address", booking.getAddress());
-        return job;
-    }
-}
\ No newline at end of file
+}
@@ -2,9 +2,12 @@ package com.instafit.core.controller;
 
 import com.instafit.core.entity.Booking;
 import com.instafit.core.repository.BookingRepository;
+import com.instafit.core.service.JobEventService;
+import com.instafit.core.service.JobTransitionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -30,6 +33,12 @@ public class CarpenterJobsApiController {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private JobEventService jobEventService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping("/{carpenterId}")
     public ResponseEntity<List<Booking>> getCarpenterJobs(@PathVariable String carpenterId) {
         try {
@@ -55,6 +64,7 @@ public class CarpenterJobsApiController {
                     .orElseThrow(() -> new RuntimeException("Job not found"));
 
             // Update status
+            String previousStatus = job.getAssignmentStatus();
             job.setAssignmentStatus(status);
 
             // Update notes if provided
@@ -74,6 +84,9 @@ public class CarpenterJobsApiController {
             }
 
             bookingRepository.save(job);
+            jobEventService.publishAfterCommit(JobEventService.STATUS_CHANGED, job,
+                    Objects.equals(previousStatus, status) ? null : previousStatus);
+            eventPublisher.publishEvent(JobTransitionEvent.of(job.getCarpenterId(), job.getAssignedDate(), previousStatus, job));
 
             response.put("success", true);
             response.put("message", "Job status updated successfully");
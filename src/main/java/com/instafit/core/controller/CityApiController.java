@@ -1,7 +1,9 @@
 package com.instafit.core.controller;
 
+import com.instafit.core.dto.ImportReport;
 import com.instafit.core.entity.City;
 import com.instafit.core.service.CityService;
+import com.instafit.core.service.MasterDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
 import java.util.HashMap;
@@ -24,11 +28,14 @@ public class CityApiController {
     @Autowired
     private CityService cityService;
 
+    @Autowired
+    private MasterDataCache masterDataCache;
+
     // PUBLIC ENDPOINT - No authentication required
     @GetMapping("/active")
-    public ResponseEntity<List<City>> getActiveCities() {
+    public ResponseEntity<byte[]> getActiveCities(WebRequest request) {
         logger.info("Fetching active cities (public endpoint)");
-        return ResponseEntity.ok(cityService.getActiveCities());
+        return masterDataCache.activeJsonResponse(MasterDataCache.Table.CITIES, request);
     }
 
     // PROTECTED ENDPOINTS - Require OPERATION role
@@ -118,4 +125,25 @@ public class CityApiController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/upload")
+    @PreAuthorize("hasRole('OPERATION')")
+    public ResponseEntity<Map<String, Object>> uploadExcel(
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ImportReport report = cityService.uploadFromExcel(file, authentication.getName());
+            response.put("success", true);
+            response.put("message", report.getSummary());
+            response.put("data", report);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error uploading Excel", e);
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
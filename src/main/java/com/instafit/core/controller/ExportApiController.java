@@ -0,0 +1,69 @@
+package com.instafit.core.controller;
+
+import com.instafit.core.dto.BookingFilter;
+import com.instafit.core.service.ExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Export API Controller
+ * Streamed CSV/XLSX downloads of bookings, booking logs, routes and master data
+ */
+@RestController
+@RequestMapping("/api/export")
+@PreAuthorize("hasRole('OPERATION')")
+public class ExportApiController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportApiController.class);
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDatasets() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", exportService.getDatasets());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Download a dataset; bookings accept the same filters as the bookings page
+     */
+    @GetMapping("/{dataset}")
+    public void export(@PathVariable String dataset,
+                       @RequestParam(value = "format", defaultValue = ExportService.FORMAT_CSV) String format,
+                       BookingFilter filter,
+                       HttpServletResponse response) throws Exception {
+        try {
+            exportService.validate(dataset, format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        String filename = dataset + "-" + LocalDate.now() + "." + format;
+        response.setContentType(ExportService.FORMAT_XLSX.equals(format)
+                ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
+                : "text/csv; charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        try {
+            exportService.export(dataset, filter, format, response.getOutputStream());
+        } catch (Exception e) {
+            // Headers are usually committed by now, so the client sees a truncated file
+            logger.error("Error exporting {} as {}", dataset, format, e);
+            throw e;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.instafit.core.controller;
 
+import com.instafit.core.dto.ImportReport;
 import com.instafit.core.entity.FitType;
 import com.instafit.core.service.FitTypeService;
+import com.instafit.core.service.MasterDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
@@ -26,14 +29,17 @@ public class FitTypeApiController {
     @Autowired
     private FitTypeService fitTypeService;
 
+    @Autowired
+    private MasterDataCache masterDataCache;
+
     @GetMapping
     public ResponseEntity<List<FitType>> getAllFitTypes() {
         return ResponseEntity.ok(fitTypeService.getAllFitTypes());
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<FitType>> getActiveFitTypes() {
-        return ResponseEntity.ok(fitTypeService.getActiveFitTypes());
+    public ResponseEntity<byte[]> getActiveFitTypes(WebRequest request) {
+        return masterDataCache.activeJsonResponse(MasterDataCache.Table.FIT_TYPES, request);
     }
 
     @PostMapping
@@ -125,10 +131,10 @@ public class FitTypeApiController {
 
         Map<String, Object> response = new HashMap<>();
         try {
-            List<FitType> fitTypes = fitTypeService.uploadFromExcel(file, authentication.getName());
+            ImportReport report = fitTypeService.uploadFromExcel(file, authentication.getName());
             response.put("success", true);
-            response.put("message", "Successfully uploaded " + fitTypes.size() + " fit types");
-            response.put("data", fitTypes);
+            response.put("message", report.getSummary());
+            response.put("data", report);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error uploading Excel", e);
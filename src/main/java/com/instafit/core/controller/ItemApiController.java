@@ -1,7 +1,9 @@
 package com.instafit.core.controller;
 
+import com.instafit.core.dto.ImportReport;
 import com.instafit.core.entity.Item;
 import com.instafit.core.service.ItemService;
+import com.instafit.core.service.MasterDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
@@ -29,14 +32,17 @@ public class ItemApiController {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private MasterDataCache masterDataCache;
+
     @GetMapping
     public ResponseEntity<List<Item>> getAllItems() {
         return ResponseEntity.ok(itemService.getAllItems());
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Item>> getActiveItems() {
-        return ResponseEntity.ok(itemService.getActiveItems());
+    public ResponseEntity<byte[]> getActiveItems(WebRequest request) {
+        return masterDataCache.activeJsonResponse(MasterDataCache.Table.ITEMS, request);
     }
 
     @PostMapping
@@ -123,10 +129,10 @@ public class ItemApiController {
 
         Map<String, Object> response = new HashMap<>();
         try {
-            List<Item> items = itemService.uploadFromExcel(file, authentication.getName());
+            ImportReport report = itemService.uploadFromExcel(file, authentication.getName());
             response.put("success", true);
-            response.put("message", "Successfully uploaded " + items.size() + " items");
-            response.put("data", items);
+            response.put("message", report.getSummary());
+            response.put("data", report);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error uploading Excel", e);
@@ -5,13 +5,21 @@ import com.instafit.core.entity.Carpenter;
 import com.instafit.core.repository.BookingRepository;
 import com.instafit.core.repository.CarpenterRepository;
 import com.instafit.core.service.CarpenterAssignmentService;
+import com.instafit.core.service.CarpenterDailyStatsService;
+import com.instafit.core.service.CarpenterStatsService;
+import com.instafit.core.service.JobEventService;
+import com.instafit.core.service.JobTransitionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,6 +41,20 @@ public class JobMonitoringApiController {
     @Autowired
     private CarpenterAssignmentService carpenterAssignmentService;
 
+    @Autowired
+    private JobEventService jobEventService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CarpenterDailyStatsService carpenterDailyStatsService;
+
+    @Autowired
+    private CarpenterStatsService carpenterStatsService;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
     @GetMapping("/all")
     public ResponseEntity<List<Booking>> getAllAssignedJobs() {
         try {
@@ -53,6 +75,88 @@ public class JobMonitoringApiController {
         }
     }
 
+    /**
+     * Snapshot page of assigned jobs, newest assignment first. lastEventId marks where
+     * the change feed should resume from; page 0 also carries the per-status counts.
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> getJobsSnapshot(
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            // Taken before the query: events after it may repeat rows of the snapshot, never miss one
+            long lastEventId = jobEventService.currentEventId();
+
+            // Order comes from the repository query
+            PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+            Slice<Booking> jobs = status == null || status.isEmpty() || "ALL".equals(status)
+                    ? bookingRepository.findAssignedJobs(pageRequest)
+                    : bookingRepository.findAssignedJobsByStatus(status, pageRequest);
+
+            response.put("success", true);
+            response.put("data", jobs.getContent());
+            response.put("page", jobs.getNumber());
+            response.put("size", jobs.getSize());
+            response.put("hasMore", jobs.hasNext());
+            response.put("lastEventId", lastEventId);
+            if (jobs.getNumber() == 0) {
+                // From the daily stats rollup; counting bookings would scan most of the table
+                response.put("counts", carpenterStatsService.getStatusCounts());
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error fetching job snapshot", e);
+            response.put("success", false);
+            response.put("message", "Error fetching jobs: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Server-sent change feed; resumes after Last-Event-ID (sent by EventSource on reconnect)
+     * or the lastEventId of the snapshot
+     */
+    @GetMapping(value = "/stream", produces = "text/event-stream")
+    public SseEmitter streamJobEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventId) {
+        return jobEventService.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @GetMapping("/stream/stats")
+    public ResponseEntity<Map<String, Object>> getStreamStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", jobEventService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/daily-stats/status")
+    public ResponseEntity<Map<String, Object>> getDailyStatsStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", carpenterDailyStatsService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/daily-stats/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileDailyStats() {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", carpenterDailyStatsService.reconcile());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error reconciling carpenter daily stats", e);
+            response.put("success", false);
+            response.put("message", "Failed to reconcile daily stats: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     @PostMapping("/reassign")
     public ResponseEntity<Map<String, Object>> reassignJob(
             @RequestBody ReassignRequest request,
@@ -71,6 +175,8 @@ public class JobMonitoringApiController {
 
             String oldCarpenter = job.getCarpenterName();
             String oldStatus = job.getAssignmentStatus();
+            String oldCarpenterId = job.getCarpenterId();
+            LocalDate oldDate = job.getAssignedDate();
 
             // Update job assignment
             job.setCarpenterId(carpenter.getCarpenterId());
@@ -94,6 +200,8 @@ public class JobMonitoringApiController {
             job.setNotes(existingNotes + reassignNote);
 
             bookingRepository.save(job);
+            jobEventService.publishAfterCommit(JobEventService.REASSIGNED, job, oldStatus);
+            eventPublisher.publishEvent(JobTransitionEvent.of(oldCarpenterId, oldDate, oldStatus, job));
 
             logger.info("Job {} reassigned from {} to {}",
                     job.getOrderNo(), oldCarpenter, carpenter.getCarpenterName());
@@ -1,6 +1,8 @@
 package com.instafit.core.controller;
 
+import com.instafit.core.dto.ImportReport;
 import com.instafit.core.entity.Pincode;
+import com.instafit.core.service.MasterDataCache;
 import com.instafit.core.service.PincodeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
@@ -29,14 +32,17 @@ public class PincodeApiController {
     @Autowired
     private PincodeService pincodeService;
 
+    @Autowired
+    private MasterDataCache masterDataCache;
+
     @GetMapping
     public ResponseEntity<List<Pincode>> getAllPincodes() {
         return ResponseEntity.ok(pincodeService.getAllPincodes());
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Pincode>> getActivePincodes() {
-        return ResponseEntity.ok(pincodeService.getActivePincodes());
+    public ResponseEntity<byte[]> getActivePincodes(WebRequest request) {
+        return masterDataCache.activeJsonResponse(MasterDataCache.Table.PINCODES, request);
     }
 
     @GetMapping("/city/{cityCode}")
@@ -128,10 +134,10 @@ public class PincodeApiController {
 
         Map<String, Object> response = new HashMap<>();
         try {
-            List<Pincode> pincodes = pincodeService.uploadFromExcel(file, authentication.getName());
+            ImportReport report = pincodeService.uploadFromExcel(file, authentication.getName());
             response.put("success", true);
-            response.put("message", "Successfully uploaded " + pincodes.size() + " pincodes");
-            response.put("data", pincodes);
+            response.put("message", report.getSummary());
+            response.put("data", report);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error uploading Excel", e);
@@ -0,0 +1,146 @@
+package com.instafit.core.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Booking List Item DTO
+ * Slim read-only row for booking lists; leaves out the TEXT columns notes and
+ * service_types - load the full booking by id for those. The address is kept:
+ * the assignment screen shows its pincode and city in the list
+ */
+public class BookingListItem {
+
+    private final Long id;
+    private final String orderNo;
+    private final String customerName;
+    private final String customerMobile;
+    private final LocalDate date;
+    private final LocalTime bookingTime;
+    private final String serviceName;
+    private final BigDecimal totalPrice;
+    private final String status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime submittedAt;
+    private final String carpenterId;
+    private final String carpenterName;
+    private final LocalDate assignedDate;
+    private final String assignmentStatus;
+    private final String geocodeStatus;
+    private final Integer routeOrder;
+    private final String address;
+
+    // Constructor expression target - argument order must match BookingRepositoryCustomImpl
+    public BookingListItem(Long id,
+                           String orderNo,
+                           String customerName,
+                           String customerMobile,
+                           LocalDate date,
+                           LocalTime bookingTime,
+                           String serviceName,
+                           BigDecimal totalPrice,
+                           String status,
+                           LocalDateTime createdAt,
+                           LocalDateTime submittedAt,
+                           String carpenterId,
+                           String carpenterName,
+                           LocalDate assignedDate,
+                           String assignmentStatus,
+                           String geocodeStatus,
+                           Integer routeOrder,
+                           String address) {
+        this.id = id;
+        this.orderNo = orderNo;
+        this.customerName = customerName;
+        this.customerMobile = customerMobile;
+        this.date = date;
+        this.bookingTime = bookingTime;
+        this.serviceName = serviceName;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.submittedAt = submittedAt;
+        this.carpenterId = carpenterId;
+        this.carpenterName = carpenterName;
+        this.assignedDate = assignedDate;
+        this.assignmentStatus = assignmentStatus;
+        this.geocodeStatus = geocodeStatus;
+        this.routeOrder = routeOrder;
+        this.address = address;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getOrderNo() {
+        return orderNo;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerMobile() {
+        return customerMobile;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getBookingTime() {
+        return bookingTime;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public String getCarpenterId() {
+        return carpenterId;
+    }
+
+    public String getCarpenterName() {
+        return carpenterName;
+    }
+
+    public LocalDate getAssignedDate() {
+        return assignedDate;
+    }
+
+    public String getAssignmentStatus() {
+        return assignmentStatus;
+    }
+
+    public String getGeocodeStatus() {
+        return geocodeStatus;
+    }
+
+    public Integer getRouteOrder() {
+        return routeOrder;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+}
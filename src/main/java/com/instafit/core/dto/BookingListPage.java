@@ -0,0 +1,48 @@
+package com.instafit.core.dto;
+
+import java.util.List;
+
+/**
+ * Booking List Page DTO
+ * One keyset slice of the booking list plus the token for the next slice
+ */
+public class BookingListPage {
+
+    private List<BookingListItem> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructors
+    public BookingListPage() {}
+
+    public BookingListPage(List<BookingListItem> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<BookingListItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BookingListItem> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
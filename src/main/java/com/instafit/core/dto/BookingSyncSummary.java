@@ -0,0 +1,121 @@
+package com.instafit.core.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Booking Sync Summary DTO
+ * Compact result of one Supabase sync run
+ */
+public class BookingSyncSummary {
+
+    // Upper bound on ids echoed back, so a first full sync stays a small response
+    public static final int MAX_REPORTED_IDS = 1000;
+
+    private int newCount;
+    private int skippedCount;
+    private int failedCount;
+    // Dead-lettered rows fetched again this run, and how many of them went through
+    private int retriedCount;
+    private int recoveredCount;
+    private int rows;
+    private int pages;
+    private long durationMillis;
+    private List<Long> newIds = new ArrayList<>();
+    private boolean newIdsTruncated;
+
+    // Constructors
+    public BookingSyncSummary() {}
+
+    public void addNewIds(List<Long> ids) {
+        newCount += ids.size();
+        for (Long id : ids) {
+            if (newIds.size() >= MAX_REPORTED_IDS) {
+                newIdsTruncated = true;
+                return;
+            }
+            newIds.add(id);
+        }
+    }
+
+    // Getters and Setters
+    public int getNewCount() {
+        return newCount;
+    }
+
+    public void setNewCount(int newCount) {
+        this.newCount = newCount;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public void setSkippedCount(int skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public int getRetriedCount() {
+        return retriedCount;
+    }
+
+    public void setRetriedCount(int retriedCount) {
+        this.retriedCount = retriedCount;
+    }
+
+    public int getRecoveredCount() {
+        return recoveredCount;
+    }
+
+    public void setRecoveredCount(int recoveredCount) {
+        this.recoveredCount = recoveredCount;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public void setPages(int pages) {
+        this.pages = pages;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public List<Long> getNewIds() {
+        return newIds;
+    }
+
+    public void setNewIds(List<Long> newIds) {
+        this.newIds = newIds;
+    }
+
+    public boolean isNewIdsTruncated() {
+        return newIdsTruncated;
+    }
+
+    public void setNewIdsTruncated(boolean newIdsTruncated) {
+        this.newIdsTruncated = newIdsTruncated;
+    }
+}
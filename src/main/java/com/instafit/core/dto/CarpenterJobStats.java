@@ -0,0 +1,84 @@
+package com.instafit.core.dto;
+
+/**
+ * Carpenter Job Stats DTO
+ * Job counters for one carpenter's dashboard and profile
+ */
+public class CarpenterJobStats {
+
+    private long totalJobs;
+    private long pendingJobs;
+    private long inProgressJobs;
+    private long completedJobs;
+    private long completedToday;
+    private long totalThisMonth;
+
+    // Constructors
+    public CarpenterJobStats() {}
+
+    public CarpenterJobStats(long totalJobs, long pendingJobs, long inProgressJobs,
+                             long completedJobs, long completedToday, long totalThisMonth) {
+        this.totalJobs = totalJobs;
+        this.pendingJobs = pendingJobs;
+        this.inProgressJobs = inProgressJobs;
+        this.completedJobs = completedJobs;
+        this.completedToday = completedToday;
+        this.totalThisMonth = totalThisMonth;
+    }
+
+    /**
+     * Completed share of all jobs, in whole percent
+     */
+    public int getSuccessRate() {
+        return totalJobs > 0 ? (int) ((completedJobs * 100.0) / totalJobs) : 0;
+    }
+
+    // Getters and Setters
+    public long getTotalJobs() {
+        return totalJobs;
+    }
+
+    public void setTotalJobs(long totalJobs) {
+        this.totalJobs = totalJobs;
+    }
+
+    public long getPendingJobs() {
+        return pendingJobs;
+    }
+
+    public void setPendingJobs(long pendingJobs) {
+        this.pendingJobs = pendingJobs;
+    }
+
+    public long getInProgressJobs() {
+        return inProgressJobs;
+    }
+
+    public void setInProgressJobs(long inProgressJobs) {
+        this.inProgressJobs = inProgressJobs;
+    }
+
+    public long getCompletedJobs() {
+        return completedJobs;
+    }
+
+    public void setCompletedJobs(long completedJobs) {
+        this.completedJobs = completedJobs;
+    }
+
+    public long getCompletedToday() {
+        return completedToday;
+    }
+
+    public void setCompletedToday(long completedToday) {
+        this.completedToday = completedToday;
+    }
+
+    public long getTotalThisMonth() {
+        return totalThisMonth;
+    }
+
+    public void setTotalThisMonth(long totalThisMonth) {
+        this.totalThisMonth = totalThisMonth;
+    }
+}
@@ -0,0 +1,156 @@
+package com.instafit.core.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Import Report DTO
+ * Outcome of a master-data file import, with the reason for every row that was not imported
+ */
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private String entity;
+    private int totalRows;
+    private int imported;
+    private int skipped;
+    private int failed;
+    private boolean errorsTruncated;
+    private long durationMillis;
+    private List<RowError> errors = new ArrayList<>();
+
+    // Constructors
+    public ImportReport() {}
+
+    public ImportReport(String entity) {
+        this.entity = entity;
+    }
+
+    /**
+     * Row rejected by validation or by the database
+     */
+    public void fail(int row, String message) {
+        failed++;
+        addError(row, message);
+    }
+
+    /**
+     * Row that already exists (in the table or earlier in the file)
+     */
+    public void skip(int row, String message) {
+        skipped++;
+        addError(row, message);
+    }
+
+    private void addError(int row, String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public String getSummary() {
+        return "Imported " + imported + " of " + totalRows + " " + entity
+                + (skipped > 0 ? ", " + skipped + " already existed" : "")
+                + (failed > 0 ? ", " + failed + " failed" : "");
+    }
+
+    // Getters and Setters
+    public String getEntity() {
+        return entity;
+    }
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * One rejected row: its row number in the file (header is row 1) and why
+     */
+    public static class RowError {
+
+        private int row;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
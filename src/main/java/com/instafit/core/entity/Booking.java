@@ -12,15 +12,19 @@ import java.util.Objects;
  * Booking Entity
  */
 @Entity
+// No idx_order_no / idx_created_at here: booking_logs owns those names, so they were never created
+// on bookings, and the order_no unique key and idx_created_at_id already serve those lookups
 @Table(name = "bookings",
         indexes = {
-                @Index(name = "idx_order_no", columnList = "order_no"),
                 @Index(name = "idx_status", columnList = "status"),
                 @Index(name = "idx_date", columnList = "date"),
                 @Index(name = "idx_customer_mobile", columnList = "customer_mobile"),
                 @Index(name = "idx_user_id", columnList = "user_id"),
-                @Index(name = "idx_created_at", columnList = "created_at"),
-                @Index(name = "idx_submitted_at", columnList = "submitted_at")
+                @Index(name = "idx_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_submitted_at", columnList = "submitted_at"),
+                @Index(name = "idx_carpenter_assigned_date", columnList = "carpenter_id, assigned_date"),
+                @Index(name = "idx_assignment_status_date", columnList = "assignment_status, date"),
+                @Index(name = "idx_assigned_date", columnList = "assigned_date")
         }
 )
 public class Booking implements Serializable {
@@ -28,7 +32,8 @@ public class Booking implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_no", unique = true, length = 50)
@@ -23,7 +23,8 @@ public class BookingLog implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_logs_seq")
+    @SequenceGenerator(name = "booking_logs_seq", sequenceName = "booking_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "booking_id", nullable = false)
@@ -0,0 +1,147 @@
+package com.instafit.core.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * BookingSyncFailure Entity - Dead letter of the Supabase sync
+ * One row per source row that failed to parse or ingest, with the raw JSON and the last error
+ */
+@Entity
+@Table(name = "booking_sync_failures",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_sync_failures_key", columnNames = "row_key")
+)
+public class BookingSyncFailure implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // order_no, or a hash of the raw row when it has none
+    @Column(name = "row_key", nullable = false, length = 64)
+    private String rowKey;
+
+    @Column(name = "order_no", length = 50)
+    private String orderNo;
+
+    // created_at exactly as Supabase returned it
+    @Column(name = "source_created_at", length = 40)
+    private String sourceCreatedAt;
+
+    @Column(name = "raw_row", nullable = false, columnDefinition = "TEXT")
+    private String rawRow;
+
+    @Column(name = "error", nullable = false, length = 1000)
+    private String error;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "first_failed_at", nullable = false)
+    private LocalDateTime firstFailedAt;
+
+    @Column(name = "last_failed_at", nullable = false)
+    private LocalDateTime lastFailedAt;
+
+    // Constructors
+    public BookingSyncFailure() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRowKey() {
+        return rowKey;
+    }
+
+    public void setRowKey(String rowKey) {
+        this.rowKey = rowKey;
+    }
+
+    public String getOrderNo() {
+        return orderNo;
+    }
+
+    public void setOrderNo(String orderNo) {
+        this.orderNo = orderNo;
+    }
+
+    public String getSourceCreatedAt() {
+        return sourceCreatedAt;
+    }
+
+    public void setSourceCreatedAt(String sourceCreatedAt) {
+        this.sourceCreatedAt = sourceCreatedAt;
+    }
+
+    public String getRawRow() {
+        return rawRow;
+    }
+
+    public void setRawRow(String rawRow) {
+        this.rawRow = rawRow;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getFirstFailedAt() {
+        return firstFailedAt;
+    }
+
+    public void setFirstFailedAt(LocalDateTime firstFailedAt) {
+        this.firstFailedAt = firstFailedAt;
+    }
+
+    public LocalDateTime getLastFailedAt() {
+        return lastFailedAt;
+    }
+
+    public void setLastFailedAt(LocalDateTime lastFailedAt) {
+        this.lastFailedAt = lastFailedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookingSyncFailure that = (BookingSyncFailure) o;
+        return Objects.equals(rowKey, that.rowKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowKey);
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSyncFailure{" +
+                "rowKey='" + rowKey + '\'' +
+                ", error='" + error + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+package com.instafit.core.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * BookingSyncState Entity - High-water mark for incremental Supabase sync
+ * One row per sync source; the cursor points at the last (created_at, order_no) pair ingested
+ */
+@Entity
+@Table(name = "booking_sync_state",
+        uniqueConstraints = @UniqueConstraint(columnNames = "sync_key")
+)
+public class BookingSyncState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sync_key", nullable = false, unique = true, length = 50)
+    private String syncKey;
+
+    // Kept exactly as Supabase returns it so the keyset filter compares at full precision
+    @Column(name = "last_created_at", length = 40)
+    private String lastCreatedAt;
+
+    @Column(name = "last_order_no", length = 50)
+    private String lastOrderNo;
+
+    @Column(name = "last_run_started_at")
+    private LocalDateTime lastRunStartedAt;
+
+    @Column(name = "last_run_finished_at")
+    private LocalDateTime lastRunFinishedAt;
+
+    @Column(name = "last_run_rows")
+    private Integer lastRunRows;
+
+    @Column(name = "last_run_pages")
+    private Integer lastRunPages;
+
+    @Column(name = "last_run_millis")
+    private Long lastRunMillis;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public BookingSyncState() {}
+
+    public BookingSyncState(String syncKey) {
+        this.syncKey = syncKey;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSyncKey() { return syncKey; }
+    public void setSyncKey(String syncKey) { this.syncKey = syncKey; }
+
+    public String getLastCreatedAt() { return lastCreatedAt; }
+    public void setLastCreatedAt(String lastCreatedAt) { this.lastCreatedAt = lastCreatedAt; }
+
+    public String getLastOrderNo() { return lastOrderNo; }
+    public void setLastOrderNo(String lastOrderNo) { this.lastOrderNo = lastOrderNo; }
+
+    public LocalDateTime getLastRunStartedAt() { return lastRunStartedAt; }
+    public void setLastRunStartedAt(LocalDateTime lastRunStartedAt) { this.lastRunStartedAt = lastRunStartedAt; }
+
+    public LocalDateTime getLastRunFinishedAt() { return lastRunFinishedAt; }
+    public void setLastRunFinishedAt(LocalDateTime lastRunFinishedAt) { this.lastRunFinishedAt = lastRunFinishedAt; }
+
+    public Integer getLastRunRows() { return lastRunRows; }
+    public void setLastRunRows(Integer lastRunRows) { this.lastRunRows = lastRunRows; }
+
+    public Integer getLastRunPages() { return lastRunPages; }
+    public void setLastRunPages(Integer lastRunPages) { this.lastRunPages = lastRunPages; }
+
+    public Long getLastRunMillis() { return lastRunMillis; }
+    public void setLastRunMillis(Long lastRunMillis) { this.lastRunMillis = lastRunMillis; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookingSyncState that = (BookingSyncState) o;
+        return Objects.equals(id, that.id) && Objects.equals(syncKey, that.syncKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, syncKey);
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSyncState{" +
+                "syncKey='" + syncKey + '\'' +
+                ", lastCreatedAt='" + lastCreatedAt + '\'' +
+                ", lastOrderNo='" + lastOrderNo + '\'' +
+                ", lastRunRows=" + lastRunRows +
+                '}';
+    }
+}
@@ -1,8 +1,14 @@
 package com.instafit.core.entity;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Entity
 @Table(name = "branches")
@@ -20,9 +26,15 @@ public class Branch {
     @Column(name = "branch_desc", nullable = false, length = 200)
     private String branchDesc;
 
-    @Size(max = 500, message = "City codes must not exceed 500 characters")
-    @Column(name = "city_codes", length = 500)
-    private String cityCodes;
+    // Cities this branch serves; exposed to the API as the comma separated cityCodes
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "branch_cities",
+            joinColumns = @JoinColumn(name = "branch_id", nullable = false),
+            uniqueConstraints = @UniqueConstraint(name = "uk_branch_cities", columnNames = {"branch_id", "city_code"}),
+            indexes = @Index(name = "idx_branch_cities_city", columnList = "city_code, branch_id"))
+    @Column(name = "city_code", nullable = false, length = 20)
+    private Set<String> cities = new HashSet<>();
 
     @Column(name = "active", nullable = false)
     private Boolean active = true;
@@ -45,7 +57,7 @@ public class Branch {
     public Branch(String branchCode, String branchDesc, String cityCodes) {
         this.branchCode = branchCode != null ? branchCode.trim() : null;
         this.branchDesc = branchDesc != null ? branchDesc.trim() : null;
-        this.cityCodes = cityCodes != null ? cityCodes.trim() : null;
+        setCityCodes(cityCodes);
         this.active = true;
     }
 
@@ -86,11 +98,22 @@ public class Branch {
     }
 
     public String getCityCodes() {
-        return cityCodes;
+        return cities.isEmpty() ? null : String.join(",", new TreeSet<>(cities));
     }
 
     public void setCityCodes(String cityCodes) {
-        this.cityCodes = cityCodes != null ? cityCodes.trim() : null;
+        // Modify the set in place so Hibernate only writes the rows that changed
+        Set<String> codes = new HashSet<>();
+        if (cityCodes != null) {
+            for (String code : cityCodes.split(",")) {
+                String trimmedCode = code.trim().toUpperCase();
+                if (!trimmedCode.isEmpty()) {
+                    codes.add(trimmedCode);
+                }
+            }
+        }
+        cities.retainAll(codes);
+        cities.addAll(codes);
     }
 
     public Boolean getActive() {
@@ -0,0 +1,89 @@
+package com.instafit.core.entity;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CarpenterDailyStats Entity - Rollup of assigned jobs
+ * Number of a carpenter's jobs assigned for a day that are currently in a given status
+ */
+@Entity
+@Table(name = "carpenter_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_carpenter_daily_stats",
+                columnNames = {"carpenter_id", "stat_date", "assignment_status"})
+)
+public class CarpenterDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "carpenter_id", nullable = false, length = 20)
+    private String carpenterId;
+
+    // The jobs' assigned date
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "assignment_status", nullable = false, length = 20)
+    private String assignmentStatus;
+
+    @Column(name = "job_count", nullable = false)
+    private Integer jobCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CarpenterDailyStats() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCarpenterId() {
+        return carpenterId;
+    }
+
+    public void setCarpenterId(String carpenterId) {
+        this.carpenterId = carpenterId;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public String getAssignmentStatus() {
+        return assignmentStatus;
+    }
+
+    public void setAssignmentStatus(String assignmentStatus) {
+        this.assignmentStatus = assignmentStatus;
+    }
+
+    public Integer getJobCount() {
+        return jobCount;
+    }
+
+    public void setJobCount(Integer jobCount) {
+        this.jobCount = jobCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -22,7 +22,8 @@ public class FetchedBooking implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fetched_bookings_seq")
+    @SequenceGenerator(name = "fetched_bookings_seq", sequenceName = "fetched_bookings_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_no", nullable = false, unique = true, length = 50)
@@ -5,7 +5,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_routes")
+@Table(name = "order_routes",
+        indexes = {
+                @Index(name = "idx_order_routes_carpenter_date", columnList = "carpenter_id, route_date")
+        }
+)
 public class OrderRoute {
 
     @Id
@@ -39,6 +43,10 @@ public class OrderRoute {
     @Column(name = "map_url", columnDefinition = "TEXT")
     private String mapUrl;
 
+    // Encoded polyline of the whole tour
+    @Column(name = "overview_polyline", columnDefinition = "TEXT")
+    private String overviewPolyline;
+
     @Column(name = "active", nullable = false)
     private Boolean active = true;
 
@@ -146,6 +154,14 @@ public class OrderRoute {
         this.mapUrl = mapUrl;
     }
 
+    public String getOverviewPolyline() {
+        return overviewPolyline;
+    }
+
+    public void setOverviewPolyline(String overviewPolyline) {
+        this.overviewPolyline = overviewPolyline;
+    }
+
     public Boolean getActive() {
         return active;
     }
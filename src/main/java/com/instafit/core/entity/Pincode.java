@@ -28,6 +28,13 @@ public class Pincode {
     @Column(name = "area", length = 200)
     private String area;
 
+    // Centroid used to geocode the pincode without calling Google
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @Column(name = "active", nullable = false)
     private Boolean active = true;
 
@@ -104,6 +111,22 @@ public class Pincode {
         this.area = area != null ? area.trim() : null;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public Boolean getActive() {
         return active;
     }
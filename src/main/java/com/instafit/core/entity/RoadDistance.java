@@ -0,0 +1,133 @@
+package com.instafit.core.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * RoadDistance Entity - Persistent tier of the road distance matrix cache
+ * One row per directed pair of geohash cells, holding the road distance and
+ * driving time last reported for a leg between them
+ */
+@Entity
+@Table(name = "road_distance_cache",
+        uniqueConstraints = @UniqueConstraint(name = "uk_road_distance_cells", columnNames = {"origin_cell", "dest_cell"})
+)
+public class RoadDistance implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Geohash cell as its interleaved bits
+    @Column(name = "origin_cell", nullable = false)
+    private Long originCell;
+
+    @Column(name = "dest_cell", nullable = false)
+    private Long destCell;
+
+    @Column(name = "distance_meters", nullable = false)
+    private Integer distanceMeters;
+
+    @Column(name = "duration_seconds", nullable = false)
+    private Integer durationSeconds;
+
+    // DIRECTIONS, DISTANCE_MATRIX or ESTIMATE
+    @Column(name = "source", nullable = false, length = 20)
+    private String source;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public RoadDistance() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOriginCell() {
+        return originCell;
+    }
+
+    public void setOriginCell(Long originCell) {
+        this.originCell = originCell;
+    }
+
+    public Long getDestCell() {
+        return destCell;
+    }
+
+    public void setDestCell(Long destCell) {
+        this.destCell = destCell;
+    }
+
+    public Integer getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(Integer distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Integer durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RoadDistance that = (RoadDistance) o;
+        return Objects.equals(originCell, that.originCell) && Objects.equals(destCell, that.destCell);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(originCell, destCell);
+    }
+
+    @Override
+    public String toString() {
+        return "RoadDistance{" +
+                "originCell=" + originCell +
+                ", destCell=" + destCell +
+                ", distanceMeters=" + distanceMeters +
+                ", durationSeconds=" + durationSeconds +
+                '}';
+    }
+}
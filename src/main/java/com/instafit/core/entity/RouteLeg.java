@@ -0,0 +1,154 @@
+package com.instafit.core.entity;
+
+import javax.persistence.*;
+
+/**
+ * RouteLeg Entity - One leg of a stored carpenter route
+ * Leg 0 leaves the start point; the last leg returns to it (booking_id is null)
+ */
+@Entity
+@Table(name = "route_legs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_route_legs_route_index", columnNames = {"route_id", "leg_index"})
+)
+public class RouteLeg {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "route_id", nullable = false)
+    private Long routeId;
+
+    @Column(name = "leg_index", nullable = false)
+    private Integer legIndex;
+
+    // Booking reached at the end of this leg
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "from_latitude", nullable = false)
+    private Double fromLatitude;
+
+    @Column(name = "from_longitude", nullable = false)
+    private Double fromLongitude;
+
+    @Column(name = "to_latitude", nullable = false)
+    private Double toLatitude;
+
+    @Column(name = "to_longitude", nullable = false)
+    private Double toLongitude;
+
+    @Column(name = "distance_meters", nullable = false)
+    private Integer distanceMeters;
+
+    @Column(name = "duration_seconds", nullable = false)
+    private Integer durationSeconds;
+
+    // Google encoded polyline
+    @Column(name = "polyline", columnDefinition = "TEXT")
+    private String polyline;
+
+    // DIRECTIONS, CACHED or ESTIMATE
+    @Column(name = "source", nullable = false, length = 20)
+    private String source;
+
+    public RouteLeg() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRouteId() {
+        return routeId;
+    }
+
+    public void setRouteId(Long routeId) {
+        this.routeId = routeId;
+    }
+
+    public Integer getLegIndex() {
+        return legIndex;
+    }
+
+    public void setLegIndex(Integer legIndex) {
+        this.legIndex = legIndex;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Double getFromLatitude() {
+        return fromLatitude;
+    }
+
+    public void setFromLatitude(Double fromLatitude) {
+        this.fromLatitude = fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return fromLongitude;
+    }
+
+    public void setFromLongitude(Double fromLongitude) {
+        this.fromLongitude = fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return toLatitude;
+    }
+
+    public void setToLatitude(Double toLatitude) {
+        this.toLatitude = toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return toLongitude;
+    }
+
+    public void setToLongitude(Double toLongitude) {
+        this.toLongitude = toLongitude;
+    }
+
+    public Integer getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(Integer distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Integer durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public String getPolyline() {
+        return polyline;
+    }
+
+    public void setPolyline(String polyline) {
+        this.polyline = polyline;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
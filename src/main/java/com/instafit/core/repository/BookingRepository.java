@@ -1,7 +1,10 @@
 package com.instafit.core.repository;
 
 import com.instafit.core.entity.Booking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,7 +18,8 @@ import java.util.Optional;
  * Database operations for Booking entity
  */
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingRepositoryCustom {
 
     // Find by status
     List<Booking> findByStatus(String status);
@@ -29,13 +33,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     // Find by date range
     List<Booking> findByDateBetween(LocalDate startDate, LocalDate endDate);
 
-    // Find by customer name (case insensitive)
-    @Query("SELECT b FROM Booking b WHERE LOWER(b.customerName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Booking> findByCustomerNameContainingIgnoreCase(@Param("name") String name);
-
-    // Find by service name
-    @Query("SELECT b FROM Booking b WHERE LOWER(b.serviceName) LIKE LOWER(CONCAT('%', :serviceName, '%'))")
-    List<Booking> findByServiceNameContainingIgnoreCase(@Param("serviceName") String serviceName);
+    // Free-text search by name, service etc. lives in BookingSearchService (trigram indexed)
 
     // Count by status
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status")
@@ -48,8 +46,20 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByAssignmentStatus(String status);
     List<Booking> findByCarpenterIdAndAssignedDate(String carpenterId, LocalDate assignedDate);
     List<Booking> findByCarpenterId(String carpenterId);
+    List<Booking> findByAssignmentStatusAndDate(String assignmentStatus, LocalDate date);
+    List<Booking> findByAssignedDate(LocalDate assignedDate);
+    List<Booking> findByAssignmentStatusAndAssignedDate(String assignmentStatus, LocalDate assignedDate);
 
-    @Query("SELECT b FROM Booking b WHERE b.assignmentStatus = 'SUBMITTED' ORDER BY b.createdAt DESC")
-    List<Booking> findSubmittedOrders();
     List<Booking> findByCarpenterIdIsNotNull();
+
+    // Job board snapshot, newest assignment first. Derived queries drop Sort's nullsLast(), so the
+    // order is spelled out to match idx_bookings_assigned_recent / idx_bookings_assigned_status_recent.
+    // Slices, not pages: counting every assigned job would scan most of bookings on each request
+    @Query("SELECT b FROM Booking b WHERE b.carpenterId IS NOT NULL " +
+            "ORDER BY b.assignedDate DESC NULLS LAST, b.id DESC")
+    Slice<Booking> findAssignedJobs(Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.carpenterId IS NOT NULL AND b.assignmentStatus = :status " +
+            "ORDER BY b.assignedDate DESC NULLS LAST, b.id DESC")
+    Slice<Booking> findAssignedJobsByStatus(@Param("status") String assignmentStatus, Pageable pageable);
 }
\ No newline at end of file
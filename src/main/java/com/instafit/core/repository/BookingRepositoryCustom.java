@@ -0,0 +1,24 @@
+package com.instafit.core.repository;
+
+import com.instafit.core.dto.BookingListItem;
+import com.instafit.core.entity.Booking;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking Repository Custom
+ * Keyset (seek) reads that return slim projections instead of full entities
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Next slice of bookings ordered by (created_at DESC, id DESC), strictly after
+     * the given position; afterId == null starts from the newest booking
+     */
+    List<BookingListItem> findListItemsAfter(Specification<Booking> spec,
+                                             LocalDateTime afterCreatedAt,
+                                             Long afterId,
+                                             int limit);
+}
@@ -0,0 +1,86 @@
+package com.instafit.core.repository;
+
+import com.instafit.core.dto.BookingListItem;
+import com.instafit.core.entity.Booking;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Booking Repository Custom Implementation
+ * Seek pagination on (created_at, id); PostgreSQL sorts NULL created_at first
+ * under DESC, so the null block is walked before the dated rows
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingListItem> findListItemsAfter(Specification<Booking> spec,
+                                                    LocalDateTime afterCreatedAt,
+                                                    Long afterId,
+                                                    int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingListItem> query = cb.createQuery(BookingListItem.class);
+        Root<Booking> root = query.from(Booking.class);
+
+        query.select(cb.construct(BookingListItem.class,
+                root.get("id"),
+                root.get("orderNo"),
+                root.get("customerName"),
+                root.get("customerMobile"),
+                root.get("date"),
+                root.get("bookingTime"),
+                root.get("serviceName"),
+                root.get("totalPrice"),
+                root.get("status"),
+                root.get("createdAt"),
+                root.get("submittedAt"),
+                root.get("carpenterId"),
+                root.get("carpenterName"),
+                root.get("assignedDate"),
+                root.get("assignmentStatus"),
+                root.get("geocodeStatus"),
+                root.get("routeOrder"),
+                root.get("address")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate filter = spec.toPredicate(root, query, cb);
+            if (filter != null) {
+                predicates.add(filter);
+            }
+        }
+
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Path<Long> id = root.get("id");
+        if (afterId != null) {
+            if (afterCreatedAt == null) {
+                predicates.add(cb.or(
+                        cb.and(cb.isNull(createdAt), cb.lessThan(id, afterId)),
+                        cb.isNotNull(createdAt)));
+            } else {
+                predicates.add(cb.or(
+                        cb.lessThan(createdAt, afterCreatedAt),
+                        cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(id, afterId))));
+            }
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.instafit.core.repository;
+
+import com.instafit.core.dto.BookingFilter;
+import com.instafit.core.entity.Booking;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Booking Specifications
+ * Translates a BookingFilter into JPA criteria predicates
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {}
+
+    public static Specification<Booking> matching(BookingFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter == null) {
+                return cb.and();
+            }
+
+            if (hasText(filter.getStatus())) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (hasText(filter.getExcludeStatus())) {
+                predicates.add(cb.or(
+                        cb.isNull(root.get("status")),
+                        cb.notEqual(root.get("status"), filter.getExcludeStatus())));
+            }
+            if (hasText(filter.getAssignmentStatus())) {
+                predicates.add(cb.equal(root.get("assignmentStatus"), filter.getAssignmentStatus()));
+            }
+            if (hasText(filter.getCarpenterId())) {
+                predicates.add(cb.equal(root.get("carpenterId"), filter.getCarpenterId()));
+            }
+            if (Boolean.TRUE.equals(filter.getSubmitted())) {
+                predicates.add(cb.isNotNull(root.get("submittedBy")));
+            }
+            if (hasText(filter.getCustomerName())) {
+                predicates.add(cb.like(cb.lower(root.get("customerName")), containsPattern(filter.getCustomerName())));
+            }
+            if (hasText(filter.getOrderNo())) {
+                predicates.add(cb.like(cb.lower(root.get("orderNo")), containsPattern(filter.getOrderNo())));
+            }
+            if (hasText(filter.getServiceName())) {
+                predicates.add(cb.like(cb.lower(root.get("serviceName")), containsPattern(filter.getServiceName())));
+            }
+            if (filter.getDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.getDateFrom()));
+            }
+            if (filter.getDateTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.getDateTo()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static String containsPattern(String value) {
+        return "%" + value.trim().toLowerCase() + "%";
+    }
+}
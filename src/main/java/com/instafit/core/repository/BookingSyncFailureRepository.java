@@ -0,0 +1,19 @@
+package com.instafit.core.repository;
+
+import com.instafit.core.entity.BookingSyncFailure;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * BookingSyncFailure Repository
+ * Dead-lettered Supabase rows
+ */
+@Repository
+public interface BookingSyncFailureRepository extends JpaRepository<BookingSyncFailure, Long> {
+
+    // Failures that can be fetched again by order number, least recently tried first
+    List<BookingSyncFailure> findByOrderNoIsNotNullOrderByLastFailedAtAscIdAsc(Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.instafit.core.repository;
+
+import com.instafit.core.entity.BookingSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * BookingSyncState Repository
+ * Persists the Supabase sync cursor
+ */
+@Repository
+public interface BookingSyncStateRepository extends JpaRepository<BookingSyncState, Long> {
+
+    // Find cursor for a sync source
+    Optional<BookingSyncState> findBySyncKey(String syncKey);
+}
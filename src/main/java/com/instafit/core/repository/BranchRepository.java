@@ -20,7 +20,7 @@ public interface BranchRepository extends JpaRepository<Branch, Long> {
 
     List<Branch> findAllByOrderByBranchCodeAsc();
 
-    // Find branches serving a specific city
-    @Query("SELECT b FROM Branch b WHERE b.cityCodes LIKE %:cityCode%")
+    // Find branches serving a specific city (index lookup on branch_cities)
+    @Query("SELECT b FROM Branch b JOIN b.cities c WHERE c = :cityCode ORDER BY b.branchCode")
     List<Branch> findByCityCode(@Param("cityCode") String cityCode);
 }
\ No newline at end of file
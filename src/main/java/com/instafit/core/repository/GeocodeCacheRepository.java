@@ -0,0 +1,18 @@
+package com.instafit.core.repository;
+
+import com.instafit.core.entity.GeocodeCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * GeocodeCache Repository
+ * Persistent tier of the geocode cache
+ */
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCache, Long> {
+
+    // Find cached coordinates by normalized key
+    Optional<GeocodeCache> findByCacheKey(String cacheKey);
+}
@@ -0,0 +1,657 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.Booking;
+import com.instafit.core.entity.Carpenter;
+import com.instafit.core.entity.OrderRoute;
+import com.instafit.core.entity.Pincode;
+import com.instafit.core.repository.BookingRepository;
+import com.instafit.core.repository.CarpenterRepository;
+import com.instafit.core.repository.OrderRouteRepository;
+import com.instafit.core.repository.PincodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Auto Assignment Service
+ * Plans a whole day in one pass: every SUBMITTED booking for the date is matched
+ * to an active carpenter of the same city (optionally one branch), within each
+ * carpenter's remaining capacity, then each carpenter's stops are routed.
+ *
+ * Matching is a capacitated regret insertion: the booking whose best and second-best
+ * carpenters differ most is placed first. The cost of a carpenter grows with distance
+ * from both their home and their current cluster, and with how full they already are,
+ * which keeps clusters compact while spreading the load.
+ */
+@Service
+public class AutoAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutoAssignmentService.class);
+
+    private static final String ASSIGN_SQL =
+            "UPDATE bookings SET carpenter_id = ?, carpenter_name = ?, assigned_date = ?, " +
+            "assignment_status = 'ASSIGNED', route_order = ?, " +
+            "geocode_status = CASE WHEN latitude IS NULL OR longitude IS NULL THEN 'QUEUED' ELSE geocode_status END " +
+            "WHERE id = ? AND assignment_status = 'SUBMITTED'";
+
+    private static final String REORDER_SQL =
+            "UPDATE bookings SET route_order = ? WHERE id = ? AND carpenter_id = ? AND assigned_date = ? " +
+            "AND assignment_status = 'ASSIGNED'";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CarpenterRepository carpenterRepository;
+
+    @Autowired
+    private PincodeRepository pincodeRepository;
+
+    @Autowired
+    private OrderRouteRepository orderRouteRepository;
+
+    @Autowired
+    private GoogleMapsService googleMapsService;
+
+    @Autowired
+    private PincodeCentroidIndex pincodeCentroidIndex;
+
+    @Autowired
+    private RouteOptimizer routeOptimizer;
+
+    @Autowired
+    private RoadDistanceCache roadDistanceCache;
+
+    @Autowired
+    private RouteLegService routeLegService;
+
+    @Autowired
+    private JobEventService jobEventService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private GeocodingPipelineService geocodingPipelineService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.auto-assign.max-jobs-per-carpenter:8}")
+    private int defaultMaxJobs;
+
+    @Value("${app.auto-assign.max-distance-km:40}")
+    private double maxDistanceKm;
+
+    // How strongly a fuller carpenter is penalised (0 = pure nearest)
+    @Value("${app.auto-assign.balance-weight:1.0}")
+    private double balanceWeight;
+
+    @Value("${app.routing.time-budget-ms:200}")
+    private long routingTimeBudgetMs;
+
+    /**
+     * Build the day plan without assigning anything
+     * Not one read-only transaction: resolving homes and road distances may fill the geocode
+     * and distance caches, and each repository read runs in its own short transaction.
+     */
+    public Map<String, Object> preview(LocalDate date, String cityCode, String branchCode, Integer maxJobs) {
+        Plan plan = buildPlan(date, cityCode, branchCode, maxJobs);
+        Map<String, Object> result = plan.toResult();
+        result.put("success", true);
+        result.put("dryRun", true);
+        return result;
+    }
+
+    /**
+     * Build the day plan and apply it: bookings are assigned in JDBC batches, routes
+     * are upserted, and bookings planned from a pincode centroid are queued for geocoding.
+     * The plan (location lookups, road matrices) is built before the transaction, which only
+     * holds the writes. A booking assigned by someone else in the meantime is left alone and
+     * reported, and its carpenter's route is re-optimised without it before the route is saved.
+     */
+    public Map<String, Object> commit(LocalDate date, String cityCode, String branchCode, Integer maxJobs, String username) {
+        long start = System.currentTimeMillis();
+        Plan plan = buildPlan(date, cityCode, branchCode, maxJobs);
+        return transactionTemplate.execute(status -> apply(plan, date, username, start));
+    }
+
+    private Map<String, Object> apply(Plan plan, LocalDate date, String username, long start) {
+        List<Object[]> assignments = new ArrayList<>();
+        List<Long> needsGeocode = new ArrayList<>();
+
+        for (CarpenterPlan cp : plan.carpenters) {
+            for (int position = 0; position < cp.routeOrder.size(); position++) {
+                Stop stop = cp.stops.get(cp.routeOrder.get(position));
+                if (!stop.existing) {
+                    assignments.add(new Object[]{cp, stop, position + 1});
+                    if (stop.approximate) {
+                        needsGeocode.add(stop.booking.getId());
+                    }
+                }
+            }
+        }
+
+        int[] assigned = jdbcTemplate.batchUpdate(ASSIGN_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] a = assignments.get(i);
+                Carpenter carpenter = ((CarpenterPlan) a[0]).carpenter;
+                ps.setString(1, carpenter.getCarpenterId());
+                ps.setString(2, carpenter.getCarpenterName());
+                ps.setDate(3, Date.valueOf(date));
+                ps.setInt(4, (Integer) a[2]);
+                ps.setLong(5, ((Stop) a[1]).booking.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return assignments.size();
+            }
+        });
+
+        // Bookings someone else assigned meanwhile leave the plan; their carpenters are re-routed
+        List<Long> conflicts = new ArrayList<>();
+        Set<CarpenterPlan> rerouted = new LinkedHashSet<>();
+        for (int i = 0; i < assigned.length; i++) {
+            if (assigned[i] == 0) {
+                CarpenterPlan cp = (CarpenterPlan) assignments.get(i)[0];
+                Stop stop = (Stop) assignments.get(i)[1];
+                conflicts.add(stop.booking.getId());
+                cp.remove(stop);
+                rerouted.add(cp);
+            }
+        }
+        for (CarpenterPlan cp : rerouted) {
+            route(cp);
+        }
+
+        // Only carpenters who received new jobs get a new route, so only their jobs are renumbered
+        List<CarpenterPlan> routed = plan.carpenters.stream()
+                .filter(cp -> cp.newStops() > 0)
+                .collect(Collectors.toList());
+
+        List<Object[]> reorders = new ArrayList<>();
+        for (CarpenterPlan cp : routed) {
+            int position = 0;
+            for (int index : cp.routeOrder) {
+                reorders.add(new Object[]{++position, cp.stops.get(index).booking.getId(), cp.carpenter.getCarpenterId()});
+            }
+            // Jobs without coordinates are not on the route; they follow it in their old order
+            for (Booking booking : cp.unrouted) {
+                reorders.add(new Object[]{++position, booking.getId(), cp.carpenter.getCarpenterId()});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(REORDER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] r = reorders.get(i);
+                ps.setInt(1, (Integer) r[0]);
+                ps.setLong(2, (Long) r[1]);
+                ps.setString(3, (String) r[2]);
+                ps.setDate(4, Date.valueOf(date));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return reorders.size();
+            }
+        });
+
+        // One route row per carpenter and day
+        Map<String, OrderRoute> existingRoutes = orderRouteRepository.findByRouteDate(date).stream()
+                .collect(Collectors.toMap(OrderRoute::getCarpenterId, r -> r, (a, b) -> a));
+        for (CarpenterPlan cp : routed) {
+            OrderRoute route = existingRoutes.getOrDefault(cp.carpenter.getCarpenterId(), new OrderRoute());
+            route.setCarpenterId(cp.carpenter.getCarpenterId());
+            route.setRouteDate(date);
+            route.setStartLocation(cp.carpenter.getPincode());
+            route.setStartLatitude(cp.homeLat);
+            route.setStartLongitude(cp.homeLng);
+            route.setTotalDistance(cp.totalDistanceKm);
+            route.setTotalDuration(cp.totalDurationMinutes);
+            route.setOrderSequence(cp.routeOrder.toString());
+            route.setCreatedBy(username);
+            route.setActive(true);
+            routeLegService.store(route, cp.legs, null);
+        }
+        int routes = routed.size();
+
+        needsGeocode.removeAll(conflicts);
+        geocodingPipelineService.submitAfterCommit(needsGeocode);
+        publishChanges(routed, date);
+
+        logger.info("Auto-assigned {} bookings for {} ({} conflicts, {} routes) in {} ms",
+                assignments.size() - conflicts.size(), date, conflicts.size(), routes,
+                System.currentTimeMillis() - start);
+
+        Map<String, Object> result = plan.toResult();
+        result.put("success", true);
+        result.put("dryRun", false);
+        result.put("assignedCount", assignments.size() - conflicts.size());
+        result.put("conflicts", conflicts);
+        result.put("geocodeQueued", needsGeocode);
+        result.put("message", "Assigned " + (assignments.size() - conflicts.size()) + " orders to "
+                + routes + " carpenters");
+        return result;
+    }
+
+    /**
+     * Feed the job board; the rows were written through JDBC, so the events carry detached copies
+     */
+    private void publishChanges(List<CarpenterPlan> routed, LocalDate date) {
+        List<Booking> assigned = new ArrayList<>();
+        List<Booking> reordered = new ArrayList<>();
+        for (CarpenterPlan cp : routed) {
+            int position = 0;
+            for (int index : cp.routeOrder) {
+                Stop stop = cp.stops.get(index);
+                Booking copy = copyOf(stop.booking, cp.carpenter, date, ++position);
+                copy.setAssignmentStatus(stop.existing ? stop.booking.getAssignmentStatus() : "ASSIGNED");
+                (stop.existing ? reordered : assigned).add(copy);
+                if (!stop.existing) {
+                    eventPublisher.publishEvent(JobTransitionEvent.of(null, null, null, copy));
+                }
+            }
+            for (Booking booking : cp.unrouted) {
+                Booking copy = copyOf(booking, cp.carpenter, date, ++position);
+                copy.setAssignmentStatus(booking.getAssignmentStatus());
+                reordered.add(copy);
+            }
+        }
+        jobEventService.publishAfterCommit(JobEventService.ASSIGNED, assigned, "SUBMITTED");
+        jobEventService.publishAfterCommit(JobEventService.ROUTE_UPDATED, reordered, null);
+    }
+
+    private Booking copyOf(Booking booking, Carpenter carpenter, LocalDate date, int routeOrder) {
+        Booking copy = new Booking();
+        copy.setId(booking.getId());
+        copy.setOrderNo(booking.getOrderNo());
+        copy.setCustomerName(booking.getCustomerName());
+        copy.setCustomerMobile(booking.getCustomerMobile());
+        copy.setServiceName(booking.getServiceName());
+        copy.setAddress(booking.getAddress());
+        copy.setNotes(booking.getNotes());
+        copy.setCarpenterId(carpenter.getCarpenterId());
+        copy.setCarpenterName(carpenter.getCarpenterName());
+        copy.setAssignedDate(date);
+        copy.setRouteOrder(routeOrder);
+        return copy;
+    }
+
+    private Plan buildPlan(LocalDate date, String cityCode, String branchCode, Integer maxJobs) {
+        long start = System.currentTimeMillis();
+        int capacityLimit = maxJobs != null && maxJobs > 0 ? maxJobs : defaultMaxJobs;
+        Plan plan = new Plan(date);
+
+        Map<String, Pincode> pincodes = pincodeRepository.findAll().stream()
+                .collect(Collectors.toMap(Pincode::getPincode, p -> p, (a, b) -> a));
+
+        // Carpenters in scope with a resolvable home location
+        Map<String, List<CarpenterPlan>> carpentersByCity = new HashMap<>();
+        for (Carpenter carpenter : carpenterRepository.findByActive(true)) {
+            if (!matches(cityCode, carpenter.getCityCode()) || !matches(branchCode, carpenter.getBranchCode())) {
+                continue;
+            }
+            double[] home = resolveHome(carpenter);
+            if (home == null) {
+                plan.skippedCarpenters.add(describe(carpenter, "NO_HOME_LOCATION"));
+                continue;
+            }
+            CarpenterPlan cp = new CarpenterPlan(carpenter, home[0], home[1], capacityLimit);
+            plan.carpenters.add(cp);
+            carpentersByCity.computeIfAbsent(normalize(carpenter.getCityCode()), k -> new ArrayList<>()).add(cp);
+        }
+
+        // Jobs still to do that day count against capacity and join the route; finished ones do not
+        Map<String, CarpenterPlan> byId = plan.carpenters.stream()
+                .collect(Collectors.toMap(cp -> cp.carpenter.getCarpenterId(), cp -> cp));
+        for (Booking booking : bookingRepository.findByAssignmentStatusAndAssignedDate("ASSIGNED", date)) {
+            CarpenterPlan cp = byId.get(booking.getCarpenterId());
+            if (cp == null) {
+                continue;
+            }
+            cp.existingJobs++;
+            if (booking.getLatitude() != null && booking.getLongitude() != null) {
+                cp.add(new Stop(booking, booking.getLatitude(), booking.getLongitude(), false, true));
+            } else {
+                cp.unrouted.add(booking);
+            }
+        }
+        for (CarpenterPlan cp : plan.carpenters) {
+            cp.unrouted.sort(Comparator.comparing(Booking::getRouteOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Booking::getId));
+        }
+
+        // Open bookings grouped by the city of their pincode
+        Map<String, List<Stop>> stopsByCity = new HashMap<>();
+        for (Booking booking : bookingRepository.findByAssignmentStatusAndDate("SUBMITTED", date)) {
+            String pincode = BookingAddressFormatter.extractPincode(booking.getAddress());
+            Pincode master = pincode != null ? pincodes.get(pincode) : null;
+            if (master == null) {
+                plan.unassigned.add(describe(booking, "UNKNOWN_PINCODE"));
+                continue;
+            }
+            if (cityCode != null && !cityCode.isEmpty() && !matches(cityCode, master.getCityCode())) {
+                continue;
+            }
+
+            Stop stop;
+            if (booking.getLatitude() != null && booking.getLongitude() != null) {
+                stop = new Stop(booking, booking.getLatitude(), booking.getLongitude(), false, false);
+            } else {
+                // Not geocoded yet: plan on the pincode centroid
+                Map<String, Object> centroid = pincodeCentroidIndex.resolve(pincode);
+                if (centroid == null) {
+                    plan.unassigned.add(describe(booking, "NO_LOCATION"));
+                    continue;
+                }
+                stop = new Stop(booking, (Double) centroid.get("latitude"), (Double) centroid.get("longitude"), true, false);
+            }
+            stopsByCity.computeIfAbsent(normalize(master.getCityCode()), k -> new ArrayList<>()).add(stop);
+        }
+
+        for (Map.Entry<String, List<Stop>> entry : stopsByCity.entrySet()) {
+            List<CarpenterPlan> candidates = carpentersByCity.getOrDefault(entry.getKey(), Collections.emptyList());
+            assignCity(entry.getValue(), candidates, plan);
+        }
+
+        for (CarpenterPlan cp : plan.carpenters) {
+            route(cp);
+        }
+
+        plan.planningMillis = System.currentTimeMillis() - start;
+        return plan;
+    }
+
+    /**
+     * Capacitated regret insertion of one city's stops into its carpenters' clusters
+     */
+    private void assignCity(List<Stop> stops, List<CarpenterPlan> carpenters, Plan plan) {
+        List<Stop> open = new ArrayList<>(stops);
+        // Deterministic tie-breaking between runs
+        open.sort(Comparator.comparing(s -> s.booking.getId()));
+
+        while (!open.isEmpty()) {
+            Stop pick = null;
+            CarpenterPlan pickTarget = null;
+            double pickRegret = -1;
+
+            Iterator<Stop> it = open.iterator();
+            while (it.hasNext()) {
+                Stop stop = it.next();
+                double best = Double.MAX_VALUE;
+                double second = Double.MAX_VALUE;
+                CarpenterPlan bestTarget = null;
+
+                for (CarpenterPlan cp : carpenters) {
+                    if (cp.remaining() <= 0) {
+                        continue;
+                    }
+                    double fromHome = RouteOptimizer.haversineKm(cp.homeLat, cp.homeLng, stop.lat, stop.lng);
+                    if (fromHome > maxDistanceKm) {
+                        continue;
+                    }
+                    double fromCluster = RouteOptimizer.haversineKm(cp.centroidLat(), cp.centroidLng(), stop.lat, stop.lng);
+                    double cost = (0.5 * fromHome + 0.5 * fromCluster) * (1 + balanceWeight * cp.loadRatio());
+                    if (cost < best) {
+                        second = best;
+                        best = cost;
+                        bestTarget = cp;
+                    } else if (cost < second) {
+                        second = cost;
+                    }
+                }
+
+                if (bestTarget == null) {
+                    plan.unassigned.add(describe(stop.booking, carpenters.isEmpty() ? "NO_CARPENTER_IN_CITY"
+                            : carpenters.stream().anyMatch(cp -> cp.remaining() > 0) ? "OUT_OF_RANGE" : "NO_CAPACITY"));
+                    it.remove();
+                    continue;
+                }
+
+                // Only one feasible carpenter left: place it before it loses that option
+                double regret = second == Double.MAX_VALUE ? Double.MAX_VALUE : second - best;
+                if (regret > pickRegret) {
+                    pickRegret = regret;
+                    pick = stop;
+                    pickTarget = bestTarget;
+                }
+            }
+
+            if (pick == null) {
+                break;
+            }
+            pick.distanceFromHomeKm = RouteOptimizer.haversineKm(pickTarget.homeLat, pickTarget.homeLng, pick.lat, pick.lng);
+            pickTarget.add(pick);
+            open.remove(pick);
+        }
+    }
+
+    private void route(CarpenterPlan cp) {
+        if (cp.stops.isEmpty()) {
+            cp.routeOrder = new ArrayList<>();
+            cp.legs = new ArrayList<>();
+            cp.totalDistanceKm = 0;
+            cp.totalDurationMinutes = 0;
+            return;
+        }
+        double[] lats = new double[cp.stops.size()];
+        double[] lngs = new double[cp.stops.size()];
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < cp.stops.size(); i++) {
+            lats[i] = cp.stops.get(i).lat;
+            lngs[i] = cp.stops.get(i).lng;
+            bookingIds.add(cp.stops.get(i).booking.getId());
+        }
+        RoadDistanceCache.RoadMatrix matrix = roadDistanceCache.matrix(cp.homeLat, cp.homeLng, lats, lngs);
+        RouteOptimizer.RoutePlan routePlan = routeOptimizer.solve(matrix.getKm(), routingTimeBudgetMs);
+
+        cp.routeOrder = new ArrayList<>();
+        for (int index : routePlan.getOrder()) {
+            cp.routeOrder.add(index);
+        }
+        cp.totalDistanceKm = routePlan.getTotalDistance();
+        cp.totalDurationMinutes = (int) Math.round(matrix.tourMinutes(routePlan.getOrder()));
+        cp.legs = routeLegService.fromMatrix(cp.homeLat, cp.homeLng, lats, lngs, bookingIds,
+                routePlan.getOrder(), matrix);
+    }
+
+    private double[] resolveHome(Carpenter carpenter) {
+        if (carpenter.getPincode() == null || carpenter.getPincode().trim().isEmpty()) {
+            return null;
+        }
+        // Centroid index first, then the cached geocoder
+        Map<String, Object> home = googleMapsService.geocodePincode(carpenter.getPincode().trim(), "India");
+        if (!Boolean.TRUE.equals(home.get("success"))) {
+            return null;
+        }
+        return new double[]{((Number) home.get("latitude")).doubleValue(), ((Number) home.get("longitude")).doubleValue()};
+    }
+
+    private boolean matches(String filter, String value) {
+        return filter == null || filter.trim().isEmpty() || filter.trim().equalsIgnoreCase(value);
+    }
+
+    private String normalize(String cityCode) {
+        return cityCode == null ? "" : cityCode.trim().toUpperCase();
+    }
+
+    private Map<String, Object> describe(Booking booking, String reason) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("bookingId", booking.getId());
+        row.put("orderNo", booking.getOrderNo());
+        row.put("customerName", booking.getCustomerName());
+        row.put("reason", reason);
+        return row;
+    }
+
+    private Map<String, Object> describe(Carpenter carpenter, String reason) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("carpenterId", carpenter.getCarpenterId());
+        row.put("carpenterName", carpenter.getCarpenterName());
+        row.put("pincode", carpenter.getPincode());
+        row.put("reason", reason);
+        return row;
+    }
+
+    private static final class Stop {
+        private final Booking booking;
+        private final double lat;
+        private final double lng;
+        // Located by pincode centroid, not geocoded
+        private final boolean approximate;
+        // Already assigned to this carpenter before the run
+        private final boolean existing;
+        private double distanceFromHomeKm;
+
+        Stop(Booking booking, double lat, double lng, boolean approximate, boolean existing) {
+            this.booking = booking;
+            this.lat = lat;
+            this.lng = lng;
+            this.approximate = approximate;
+            this.existing = existing;
+        }
+    }
+
+    private static final class CarpenterPlan {
+        private final Carpenter carpenter;
+        private final double homeLat;
+        private final double homeLng;
+        private final int capacity;
+        private final List<Stop> stops = new ArrayList<>();
+        // Existing jobs of the day that have no coordinates, in their current route order
+        private final List<Booking> unrouted = new ArrayList<>();
+        private int existingJobs;
+        private double sumLat;
+        private double sumLng;
+        private List<Integer> routeOrder = new ArrayList<>();
+        private List<RouteLegService.Leg> legs = new ArrayList<>();
+        private double totalDistanceKm;
+        private int totalDurationMinutes;
+
+        CarpenterPlan(Carpenter carpenter, double homeLat, double homeLng, int capacity) {
+            this.carpenter = carpenter;
+            this.homeLat = homeLat;
+            this.homeLng = homeLng;
+            this.capacity = capacity;
+            this.sumLat = homeLat;
+            this.sumLng = homeLng;
+        }
+
+        void add(Stop stop) {
+            stops.add(stop);
+            sumLat += stop.lat;
+            sumLng += stop.lng;
+        }
+
+        void remove(Stop stop) {
+            stops.remove(stop);
+            sumLat -= stop.lat;
+            sumLng -= stop.lng;
+        }
+
+        int newStops() {
+            return (int) stops.stream().filter(s -> !s.existing).count();
+        }
+
+        int load() {
+            return existingJobs + newStops();
+        }
+
+        int remaining() {
+            return capacity - load();
+        }
+
+        double loadRatio() {
+            return capacity == 0 ? 1 : (double) load() / capacity;
+        }
+
+        // Mean of home and every stop so far
+        double centroidLat() {
+            return sumLat / (stops.size() + 1);
+        }
+
+        double centroidLng() {
+            return sumLng / (stops.size() + 1);
+        }
+
+        Map<String, Object> toResult() {
+            Map<String, Object> row = new HashMap<>();
+            row.put("carpenterId", carpenter.getCarpenterId());
+            row.put("carpenterName", carpenter.getCarpenterName());
+            row.put("cityCode", carpenter.getCityCode());
+            row.put("branchCode", carpenter.getBranchCode());
+            row.put("homePincode", carpenter.getPincode());
+            row.put("capacity", capacity);
+            row.put("existingJobs", existingJobs);
+            row.put("newJobs", newStops());
+            row.put("totalDistance", String.format("%.2f km", totalDistanceKm));
+            row.put("totalDuration", totalDurationMinutes + " minutes (estimated)");
+
+            List<Map<String, Object>> route = new ArrayList<>();
+            for (int position = 0; position < routeOrder.size(); position++) {
+                Stop stop = stops.get(routeOrder.get(position));
+                Map<String, Object> item = new HashMap<>();
+                item.put("routeOrder", position + 1);
+                item.put("bookingId", stop.booking.getId());
+                item.put("orderNo", stop.booking.getOrderNo());
+                item.put("customerName", stop.booking.getCustomerName());
+                item.put("existing", stop.existing);
+                item.put("approximateLocation", stop.approximate);
+                item.put("distanceFromHomeKm", Math.round(stop.distanceFromHomeKm * 100) / 100.0);
+                route.add(item);
+            }
+            row.put("route", route);
+            return row;
+        }
+    }
+
+    private static final class Plan {
+        private final LocalDate date;
+        private final List<CarpenterPlan> carpenters = new ArrayList<>();
+        private final List<Map<String, Object>> unassigned = new ArrayList<>();
+        private final List<Map<String, Object>> skippedCarpenters = new ArrayList<>();
+        private long planningMillis;
+
+        Plan(LocalDate date) {
+            this.date = date;
+        }
+
+        Map<String, Object> toResult() {
+            List<Map<String, Object>> assignments = carpenters.stream()
+                    .filter(cp -> cp.newStops() > 0)
+                    .map(CarpenterPlan::toResult)
+                    .collect(Collectors.toList());
+            int planned = carpenters.stream().mapToInt(CarpenterPlan::newStops).sum();
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("date", date);
+            result.put("plannedCount", planned);
+            result.put("unassignedCount", unassigned.size());
+            result.put("carpentersUsed", assignments.size());
+            result.put("assignments", assignments);
+            result.put("unassigned", unassigned);
+            result.put("skippedCarpenters", skippedCarpenters);
+            result.put("planningMillis", planningMillis);
+            return result;
+        }
+    }
+}
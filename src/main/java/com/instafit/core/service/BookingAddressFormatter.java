@@ -0,0 +1,65 @@
+package com.instafit.core.service;
+
+/**
+ * Booking Address Formatter
+ * Parses the Supabase address format "address details - pincode" for geocoding
+ */
+public final class BookingAddressFormatter {
+
+    private BookingAddressFormatter() {}
+
+    /**
+     * Build address string for geocoding: "address details, pincode, India"
+     */
+    public static String toGeocodeAddress(String fullAddress) {
+        if (fullAddress == null || fullAddress.isEmpty()) {
+            return "";
+        }
+
+        // Extract pincode if present (6 digits after last dash)
+        String pincode = extractPincode(fullAddress);
+
+        // Build clean address for geocoding
+        StringBuilder address = new StringBuilder();
+
+        if (pincode != null && !pincode.isEmpty()) {
+            // Remove pincode from address for cleaner geocoding
+            String addressWithoutPincode = fullAddress.substring(0, fullAddress.lastIndexOf('-')).trim();
+            address.append(addressWithoutPincode);
+            address.append(", ").append(pincode);
+        } else {
+            address.append(fullAddress);
+        }
+
+        // Add India for better geocoding accuracy
+        address.append(", India");
+
+        return address.toString();
+    }
+
+    /**
+     * Extract 6-digit pincode from address string
+     * Format: "address details - 560024"
+     */
+    public static String extractPincode(String address) {
+        if (address == null || address.isEmpty()) {
+            return null;
+        }
+
+        // Find last occurrence of dash
+        int lastDashIndex = address.lastIndexOf('-');
+        if (lastDashIndex == -1) {
+            return null;
+        }
+
+        // Get text after last dash
+        String afterDash = address.substring(lastDashIndex + 1).trim();
+
+        // Check if it's a 6-digit pincode
+        if (afterDash.matches("^[0-9]{6}$")) {
+            return afterDash;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.Booking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Booking Batch Writer
+ * Bounded buffer between the streaming reader and the database; holds at most batchSize bookings
+ */
+public class BookingBatchWriter implements Consumer<Booking> {
+
+    private final int batchSize;
+    private final Consumer<List<Booking>> flusher;
+    private final List<Booking> buffer;
+
+    public BookingBatchWriter(int batchSize, Consumer<List<Booking>> flusher) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.flusher = flusher;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void accept(Booking booking) {
+        buffer.add(booking);
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Write whatever is buffered; call once the stream ends
+     */
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<Booking> batch = new ArrayList<>(buffer);
+        buffer.clear();
+        flusher.accept(batch);
+    }
+}
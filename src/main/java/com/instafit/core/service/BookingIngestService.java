@@ -0,0 +1,329 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Booking Ingest Service
+ * Set-based insert path for fetched bookings: one dedup query and three JDBC batches per chunk
+ */
+@Service
+public class BookingIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIngestService.class);
+
+    private static final String SELECT_FETCHED_SQL =
+            "SELECT order_no FROM fetched_bookings WHERE order_no = ANY(?)";
+
+    // Same sequences and block size the entities draw from, allocated the way Hibernate's pooled
+    // optimizer does it (a nextval returning v reserves v-49..v), so JDBC and JPA inserts never collide
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT s.hi - g FROM (SELECT nextval(CAST(? AS regclass)) AS hi FROM generate_series(1, ?)) s " +
+            "CROSS JOIN generate_series(0, " + (ID_BLOCK_SIZE - 1) + ") g ORDER BY 1 LIMIT ?";
+
+    private static final String INSERT_BOOKING_SQL =
+            "INSERT INTO bookings (id, order_no, user_id, customer_name, customer_mobile, date, booking_time, " +
+            "service_name, service_id, service_types, total_price, address, status, payment_id, " +
+            "employee_name, employee_phone, created_at, assignment_status, geocode_status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (order_no) DO NOTHING";
+
+    private static final String INSERT_FETCHED_SQL =
+            "INSERT INTO fetched_bookings (id, order_no, booking_id, first_fetched_at, last_fetched_at, " +
+            "fetch_count, fetched_by) " +
+            "VALUES (?, ?, ?, ?, ?, 1, ?) " +
+            "ON CONFLICT (order_no) DO NOTHING";
+
+    private static final String INSERT_LOG_SQL =
+            "INSERT INTO booking_logs (id, booking_id, order_no, action_type, changed_by, notes, ip_address, created_at) " +
+            "VALUES (?, ?, ?, 'FETCHED', ?, ?, ?, ?)";
+
+    private static final String UPSERT_FAILURE_SQL =
+            "INSERT INTO booking_sync_failures (row_key, order_no, source_created_at, raw_row, error, attempts, " +
+            "first_failed_at, last_failed_at) VALUES (?, ?, ?, ?, ?, 1, ?, ?) " +
+            "ON CONFLICT (row_key) DO UPDATE SET raw_row = EXCLUDED.raw_row, error = EXCLUDED.error, " +
+            "source_created_at = EXCLUDED.source_created_at, attempts = booking_sync_failures.attempts + 1, " +
+            "last_failed_at = EXCLUDED.last_failed_at";
+
+    private static final String BUMP_FAILURES_SQL =
+            "UPDATE booking_sync_failures SET attempts = attempts + 1, last_failed_at = ? WHERE order_no = ANY(?)";
+
+    private static final String DELETE_FAILURES_SQL =
+            "DELETE FROM booking_sync_failures WHERE order_no = ANY(?)";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the bookings of one chunk that have not been fetched before
+     * Runs in its own transaction so a sync commits chunk by chunk
+     */
+    @Transactional
+    public IngestResult ingest(List<Booking> chunk, String fetchedBy, String ipAddress) {
+        IngestResult result = new IngestResult();
+
+        // Collapse duplicates inside the chunk, keeping the first occurrence
+        Map<String, Booking> byOrderNo = new LinkedHashMap<>();
+        for (Booking booking : chunk) {
+            if (booking.getOrderNo() == null) {
+                result.failed++;
+            } else if (byOrderNo.putIfAbsent(booking.getOrderNo(), booking) != null) {
+                result.skipped++;
+            }
+        }
+
+        if (byOrderNo.isEmpty()) {
+            return result;
+        }
+
+        // One round-trip to find every order number already fetched
+        Set<String> existing = findFetchedOrderNos(byOrderNo.keySet());
+        List<Booking> fresh = new ArrayList<>(byOrderNo.size());
+        for (Booking booking : byOrderNo.values()) {
+            if (existing.contains(booking.getOrderNo())) {
+                result.skipped++;
+            } else {
+                fresh.add(booking);
+            }
+        }
+
+        if (fresh.isEmpty()) {
+            return result;
+        }
+
+        List<Long> ids = allocateIds("bookings_id_seq", fresh.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < fresh.size(); i++) {
+            Booking booking = fresh.get(i);
+            booking.setId(ids.get(i));
+            if (booking.getCreatedAt() == null) {
+                booking.setCreatedAt(now);
+            }
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_BOOKING_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindBooking(ps, fresh.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return fresh.size();
+            }
+        });
+
+        // A concurrent insert of the same order_no is skipped rather than failing the chunk
+        List<Booking> inserted = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            if (counts[i] == 0) {
+                result.skipped++;
+            } else {
+                inserted.add(fresh.get(i));
+                result.newIds.add(fresh.get(i).getId());
+            }
+        }
+
+        if (!inserted.isEmpty()) {
+            Timestamp nowTs = Timestamp.valueOf(now);
+            List<Long> fetchedIds = allocateIds("fetched_bookings_id_seq", inserted.size());
+            List<Long> logIds = allocateIds("booking_logs_id_seq", inserted.size());
+
+            jdbcTemplate.batchUpdate(INSERT_FETCHED_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Booking booking = inserted.get(i);
+                    ps.setLong(1, fetchedIds.get(i));
+                    ps.setString(2, booking.getOrderNo());
+                    ps.setLong(3, booking.getId());
+                    ps.setTimestamp(4, nowTs);
+                    ps.setTimestamp(5, nowTs);
+                    ps.setString(6, fetchedBy);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return inserted.size();
+                }
+            });
+
+            jdbcTemplate.batchUpdate(INSERT_LOG_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Booking booking = inserted.get(i);
+                    ps.setLong(1, logIds.get(i));
+                    ps.setLong(2, booking.getId());
+                    ps.setString(3, booking.getOrderNo());
+                    ps.setString(4, fetchedBy);
+                    ps.setString(5, "Fetched from Supabase API");
+                    ps.setObject(6, ipAddress, Types.VARCHAR);
+                    ps.setTimestamp(7, nowTs);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return inserted.size();
+                }
+            });
+        }
+
+        logger.debug("Ingested chunk of {}: {} new, {} skipped, {} failed",
+                chunk.size(), result.newIds.size(), result.skipped, result.failed);
+        return result;
+    }
+
+    /**
+     * Dead-letter source rows that could not be parsed, keeping the raw JSON and the error
+     * A row that fails again updates its entry and counts the attempt
+     */
+    @Transactional
+    public void recordFailures(List<SupabaseBookingClient.FailedRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_FAILURE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SupabaseBookingClient.FailedRow row = rows.get(i);
+                String error = row.getError();
+                ps.setString(1, failureKey(row));
+                ps.setString(2, row.getOrderNo());
+                ps.setString(3, row.getCreatedAt());
+                ps.setString(4, row.getRawRow());
+                ps.setString(5, error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        logger.warn("Dead-lettered {} Supabase rows that could not be parsed", rows.size());
+    }
+
+    /**
+     * Drop the dead letter entries of rows that have now been read successfully
+     */
+    @Transactional
+    public int clearFailures(Collection<String> orderNos) {
+        if (orderNos.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_FAILURES_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", orderNos.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Count another failed attempt for dead-lettered rows a retry did not get back from the source
+     */
+    public void markRetried(Collection<String> orderNos) {
+        if (orderNos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(BUMP_FAILURES_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(2, con.createArrayOf("varchar", orderNos.toArray()));
+            return ps;
+        });
+    }
+
+    // order_no identifies a row across runs; without one, the content does
+    static String failureKey(SupabaseBookingClient.FailedRow row) {
+        if (row.getOrderNo() != null && !row.getOrderNo().isEmpty()) {
+            return row.getOrderNo();
+        }
+        return "md5:" + DigestUtils.md5DigestAsHex(row.getRawRow().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reserve count ids from a pooled sequence, one nextval per block of ID_BLOCK_SIZE
+     */
+    List<Long> allocateIds(String sequence, int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, sequence, blocks, count);
+    }
+
+    private Set<String> findFetchedOrderNos(Collection<String> orderNos) {
+        String[] values = orderNos.toArray(new String[0]);
+        Set<String> found = new HashSet<>();
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_FETCHED_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", values));
+            return ps;
+        }, rs -> {
+            found.add(rs.getString(1));
+        });
+
+        return found;
+    }
+
+    /**
+     * Bind with explicit SQL types so null columns need no parameter metadata lookup
+     */
+    private void bindBooking(PreparedStatement ps, Booking b) throws SQLException {
+        ps.setLong(1, b.getId());
+        ps.setString(2, b.getOrderNo());
+        ps.setObject(3, b.getUserId(), Types.VARCHAR);
+        ps.setObject(4, b.getCustomerName(), Types.VARCHAR);
+        ps.setObject(5, b.getCustomerMobile(), Types.VARCHAR);
+        ps.setObject(6, b.getDate() != null ? Date.valueOf(b.getDate()) : null, Types.DATE);
+        ps.setObject(7, b.getBookingTime() != null ? Time.valueOf(b.getBookingTime()) : null, Types.TIME);
+        ps.setObject(8, b.getServiceName(), Types.VARCHAR);
+        ps.setObject(9, b.getServiceId(), Types.INTEGER);
+        ps.setObject(10, b.getServiceTypes(), Types.VARCHAR);
+        ps.setObject(11, b.getTotalPrice(), Types.NUMERIC);
+        ps.setObject(12, b.getAddress(), Types.VARCHAR);
+        ps.setObject(13, b.getStatus(), Types.VARCHAR);
+        ps.setObject(14, b.getPaymentId(), Types.VARCHAR);
+        ps.setObject(15, b.getEmployeeName(), Types.VARCHAR);
+        ps.setObject(16, b.getEmployeePhone(), Types.VARCHAR);
+        ps.setTimestamp(17, Timestamp.valueOf(b.getCreatedAt()));
+        ps.setObject(18, b.getAssignmentStatus(), Types.VARCHAR);
+        ps.setObject(19, b.getGeocodeStatus(), Types.VARCHAR);
+    }
+
+    /**
+     * Outcome of one ingested chunk
+     */
+    public static class IngestResult {
+        private final List<Long> newIds = new ArrayList<>();
+        private int skipped;
+        private int failed;
+
+        public List<Long> getNewIds() { return newIds; }
+
+        public int getSkipped() { return skipped; }
+
+        public int getFailed() { return failed; }
+    }
+}
@@ -0,0 +1,183 @@
+package com.instafit.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Booking Search Service
+ * Ranked free-text search over customer name, mobile, order number, service name and
+ * address. All five are folded into one lower-cased document with a pg_trgm GIN index,
+ * so both substring (LIKE) and fuzzy word-similarity (<%) matches are index scans.
+ * Only the MAX_CANDIDATES newest matches are ranked, plus any exact order number or mobile
+ * hit however old; slices follow a (score, id) cursor over that fixed candidate set.
+ */
+@Service
+public class BookingSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSearchService.class);
+
+    public static final int MIN_QUERY_LENGTH = 3;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Must match the idx_bookings_search_trgm expression (V4 migration) exactly for the planner to use it
+    public static final String SEARCH_DOCUMENT =
+            "lower(coalesce(customer_name, '') || ' ' || coalesce(customer_mobile, '') || ' ' || " +
+            "coalesce(order_no, '') || ' ' || coalesce(service_name, '') || ' ' || coalesce(address, ''))";
+
+    // Matches read before ranking; a search this broad is refined, not paged through
+    private static final int MAX_CANDIDATES = 1000;
+
+    private static final String CANDIDATE_COLUMNS =
+            "id, order_no, customer_name, customer_mobile, service_name, address, date, status, " +
+            "assignment_status, carpenter_name";
+
+    // Exact order number / mobile hits, through their btree indexes, so a broad query cannot crowd them out
+    private static final String EXACT_CANDIDATES =
+            "SELECT " + CANDIDATE_COLUMNS + " FROM bookings WHERE order_no IN (?, ?, ?) OR customer_mobile = ?";
+
+    // Exact order number / mobile first, then customer name prefix, then word similarity.
+    // Ranks at most MAX_CANDIDATES index matches, newest first so every slice ranks the same set
+    private static final String SEARCH_SQL =
+            "SELECT * FROM (SELECT " + CANDIDATE_COLUMNS + ", " +
+            "(CASE WHEN lower(order_no) = ? OR customer_mobile = ? THEN 2 ELSE 0 END " +
+            "+ CASE WHEN lower(customer_name) LIKE ? THEN 1 ELSE 0 END " +
+            "+ word_similarity(?, " + SEARCH_DOCUMENT + "))::float8 AS score " +
+            "FROM (" + EXACT_CANDIDATES + " UNION SELECT * FROM (SELECT " + CANDIDATE_COLUMNS + " FROM bookings " +
+            "WHERE " + SEARCH_DOCUMENT + " LIKE ? OR ? <% " + SEARCH_DOCUMENT + " " +
+            "ORDER BY id DESC LIMIT ?) matches) candidates) ranked ";
+
+    // Without pg_trgm (see V4 migration): substring matches only, not index assisted
+    private static final String SUBSTRING_SEARCH_SQL =
+            "SELECT * FROM (SELECT " + CANDIDATE_COLUMNS + ", " +
+            "(CASE WHEN lower(order_no) = ? OR customer_mobile = ? THEN 2 ELSE 0 END " +
+            "+ CASE WHEN lower(customer_name) LIKE ? THEN 1 ELSE 0 END)::float8 AS score " +
+            "FROM (" + EXACT_CANDIDATES + " UNION SELECT * FROM (SELECT " + CANDIDATE_COLUMNS + " FROM bookings " +
+            "WHERE " + SEARCH_DOCUMENT + " LIKE ? ORDER BY id DESC LIMIT ?) matches) candidates) ranked ";
+
+    private static final String AFTER_CURSOR = "WHERE score < ? OR (score = ? AND id < ?) ";
+
+    private static final String RANK_ORDER = "ORDER BY score DESC, id DESC LIMIT ?";
+
+    private static final String TRIGRAM_CHECK_SQL = "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean trigramAvailable;
+
+    /**
+     * One slice of matches, best first. The cursor is the opaque nextCursor of the previous
+     * slice (null for the first); reads one extra row to report hasMore instead of counting.
+     */
+    public Map<String, Object> search(String query, String cursor, int size) {
+        String text = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (text.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search text must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        String escaped = escapeLike(text);
+        // order_no is compared as stored, so try the query as typed and in either case
+        String typed = query.trim();
+        List<Object> exact = Arrays.asList(typed, text, typed.toUpperCase(Locale.ROOT), typed);
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder();
+        if (isTrigramAvailable()) {
+            sql.append(SEARCH_SQL);
+            params.addAll(Arrays.asList(text, text, escaped + "%", text));
+            params.addAll(exact);
+            params.addAll(Arrays.asList("%" + escaped + "%", text, MAX_CANDIDATES));
+        } else {
+            sql.append(SUBSTRING_SEARCH_SQL);
+            params.addAll(Arrays.asList(text, text, escaped + "%"));
+            params.addAll(exact);
+            params.addAll(Arrays.asList("%" + escaped + "%", MAX_CANDIDATES));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            Object[] position = decodeCursor(cursor);
+            sql.append(AFTER_CURSOR);
+            params.addAll(Arrays.asList(position[0], position[0], position[1]));
+        }
+        sql.append(RANK_ORDER);
+        params.add(limit + 1);
+
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", rs.getLong("id"));
+            row.put("orderNo", rs.getString("order_no"));
+            row.put("customerName", rs.getString("customer_name"));
+            row.put("customerMobile", rs.getString("customer_mobile"));
+            row.put("serviceName", rs.getString("service_name"));
+            row.put("address", rs.getString("address"));
+            Date date = rs.getDate("date");
+            row.put("date", date != null ? date.toLocalDate() : null);
+            row.put("status", rs.getString("status"));
+            row.put("assignmentStatus", rs.getString("assignment_status"));
+            row.put("carpenterName", rs.getString("carpenter_name"));
+            row.put("score", rs.getDouble("score"));
+            return row;
+        }, params.toArray());
+
+        boolean hasMore = rows.size() > limit;
+        String nextCursor = null;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor((Double) last.get("score"), (Long) last.get("id"));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("items", rows);
+        result.put("size", limit);
+        result.put("nextCursor", nextCursor);
+        result.put("hasMore", hasMore);
+        return result;
+    }
+
+    private String encodeCursor(double score, long id) {
+        String position = score + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Object[]{Double.valueOf(parts[0]), Long.valueOf(parts[1])};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private boolean isTrigramAvailable() {
+        if (trigramAvailable == null) {
+            Integer count = jdbcTemplate.queryForObject(TRIGRAM_CHECK_SQL, Integer.class);
+            trigramAvailable = count != null && count > 0;
+            if (!trigramAvailable) {
+                logger.warn("pg_trgm is not installed: booking search uses unindexed substring matching");
+            }
+        }
+        return trigramAvailable;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,285 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.BookingSyncSummary;
+import com.instafit.core.entity.BookingSyncState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Booking Sync Job Service
+ * Runs the Supabase sync in the background, on a schedule or on demand, one run at a time
+ */
+@Service
+public class BookingSyncJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSyncJobService.class);
+
+    private static final int MAX_TRACKED_JOBS = 50;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private DataSource dataSource;
+
+
+    @Value("${app.booking-sync.enabled:true}")
+    private boolean scheduleEnabled;
+
+    @Value("${app.booking-sync.advisory-lock:true}")
+    private boolean useAdvisoryLock;
+
+    @Value("${app.booking-sync.lock-key:7263001}")
+    private long advisoryLockKey;
+
+    // Single worker; the currentJob guard keeps at most one sync submitted at a time
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The job currently queued or running in this JVM; null when idle
+    private final AtomicReference<SyncJob> currentJob = new AtomicReference<>();
+
+    // Recent jobs by id, oldest evicted first
+    private final Map<String, SyncJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<String, SyncJob>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SyncJob> eldest) {
+                    return size() > MAX_TRACKED_JOBS;
+                }
+            });
+
+    private volatile SyncJob lastFinishedJob;
+
+    /**
+     * Periodic sync; interval is app.booking-sync.interval-ms
+     */
+    @Scheduled(fixedDelayString = "${app.booking-sync.interval-ms:300000}",
+            initialDelayString = "${app.booking-sync.initial-delay-ms:60000}")
+    public void scheduledSync() {
+        if (scheduleEnabled) {
+            trigger("SCHEDULER", false);
+        }
+    }
+
+    /**
+     * Start a sync unless one is already queued or running, in which case that job is returned.
+     * A joined job keeps its own mode: check isFullResync() to see whether a full rewind applies
+     */
+    public SyncJob trigger(String triggeredBy, boolean fullResync) {
+        SyncJob job = new SyncJob(UUID.randomUUID().toString(), triggeredBy, fullResync);
+
+        while (true) {
+            SyncJob running = currentJob.get();
+            if (running != null) {
+                logger.debug("Sync {} already in progress, joining it", running.getJobId());
+                return running;
+            }
+            if (currentJob.compareAndSet(null, job)) {
+                break;
+            }
+        }
+
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.finish("FAILED", "Sync executor rejected the job");
+            currentJob.compareAndSet(job, null);
+        }
+
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public Optional<SyncJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public SyncJob getCurrentJob() {
+        return currentJob.get();
+    }
+
+    /**
+     * Last run latency, row counts and lag behind Supabase
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        BookingSyncState state = bookingService.findSyncState();
+        SyncJob running = currentJob.get();
+        SyncJob last = lastFinishedJob;
+
+        status.put("running", running != null);
+        status.put("currentJobId", running != null ? running.getJobId() : null);
+        status.put("scheduleEnabled", scheduleEnabled);
+
+        if (last != null) {
+            status.put("lastJobId", last.getJobId());
+            status.put("lastJobStatus", last.getStatus());
+            status.put("lastJobFinishedAt", last.getFinishedAt());
+        }
+
+        if (state != null) {
+            status.put("lastRunStartedAt", state.getLastRunStartedAt());
+            status.put("lastRunFinishedAt", state.getLastRunFinishedAt());
+            status.put("lastRunMillis", state.getLastRunMillis());
+            status.put("lastRunRows", state.getLastRunRows());
+            status.put("lastRunPages", state.getLastRunPages());
+            status.put("cursorCreatedAt", state.getLastCreatedAt());
+            status.put("cursorOrderNo", state.getLastOrderNo());
+            status.put("lagSeconds", lagSeconds(state.getLastCreatedAt()));
+            if (state.getLastRunFinishedAt() != null) {
+                status.put("secondsSinceLastRun",
+                        Duration.between(state.getLastRunFinishedAt(), LocalDateTime.now()).getSeconds());
+            }
+        }
+
+        return status;
+    }
+
+    private void run(SyncJob job) {
+        job.start();
+        try (Connection lockConnection = useAdvisoryLock ? dataSource.getConnection() : null) {
+            // Cross-node guard: the lock is tied to this connection and released with it
+            if (lockConnection != null && !tryAdvisoryLock(lockConnection)) {
+                job.finish("SKIPPED", "Another node is already syncing");
+                logger.info("Sync {} skipped, advisory lock held elsewhere", job.getJobId());
+                return;
+            }
+
+            try {
+                if (job.isFullResync()) {
+                    bookingService.resetSyncCursor();
+                }
+                job.setSummary(bookingService.fetchAndSaveBookings());
+                job.finish("COMPLETED", "Bookings fetched successfully");
+            } finally {
+                if (lockConnection != null) {
+                    releaseAdvisoryLock(lockConnection);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Booking sync {} failed", job.getJobId(), e);
+            job.finish("FAILED", "Error fetching bookings: " + e.getMessage());
+        } finally {
+            lastFinishedJob = job;
+            currentJob.compareAndSet(job, null);
+        }
+    }
+
+    private boolean tryAdvisoryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            ps.setLong(1, advisoryLockKey);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void releaseAdvisoryLock(Connection connection) {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            ps.setLong(1, advisoryLockKey);
+            ps.execute();
+        } catch (SQLException e) {
+            logger.warn("Failed to release booking sync advisory lock", e);
+        }
+    }
+
+    private Long lagSeconds(String cursorCreatedAt) {
+        if (cursorCreatedAt == null) {
+            return null;
+        }
+        try {
+            OffsetDateTime newest = OffsetDateTime.parse(cursorCreatedAt.replace(' ', 'T'));
+            return Duration.between(newest, OffsetDateTime.now()).getSeconds();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One sync run; fields are written by the worker and read by pollers
+     */
+    public static class SyncJob {
+        private final String jobId;
+        private final String triggeredBy;
+        private final boolean fullResync;
+        private final LocalDateTime requestedAt = LocalDateTime.now();
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Long durationMillis;
+        private volatile BookingSyncSummary summary;
+
+        SyncJob(String jobId, String triggeredBy, boolean fullResync) {
+            this.jobId = jobId;
+            this.triggeredBy = triggeredBy;
+            this.fullResync = fullResync;
+        }
+
+        void start() {
+            startedAt = LocalDateTime.now();
+            status = "RUNNING";
+        }
+
+        void finish(String status, String message) {
+            finishedAt = LocalDateTime.now();
+            if (startedAt != null) {
+                durationMillis = Duration.between(startedAt, finishedAt).toMillis();
+            }
+            this.message = message;
+            this.status = status;
+        }
+
+        void setSummary(BookingSyncSummary summary) { this.summary = summary; }
+
+        public String getJobId() { return jobId; }
+
+        public String getTriggeredBy() { return triggeredBy; }
+
+        public boolean isFullResync() { return fullResync; }
+
+        public LocalDateTime getRequestedAt() { return requestedAt; }
+
+        public String getStatus() { return status; }
+
+        public String getMessage() { return message; }
+
+        public LocalDateTime getStartedAt() { return startedAt; }
+
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+
+        public Long getDurationMillis() { return durationMillis; }
+
+        // New, skipped and failed counts plus new ids; null until the run completes
+        public BookingSyncSummary getSummary() { return summary; }
+    }
+}
@@ -9,6 +9,8 @@ import com.instafit.core.repository.OrderRouteRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +35,34 @@ public class CarpenterAssignmentService {
     @Autowired
     private GoogleMapsService googleMapsService;
 
+    @Autowired
+    private GeocodingPipelineService geocodingPipelineService;
+
+    @Autowired
+    private GeocodeCacheService geocodeCacheService;
+
+    @Autowired
+    private RouteOptimizer routeOptimizer;
+
+    @Autowired
+    private RoadDistanceCache roadDistanceCache;
+
+    @Autowired
+    private RouteLegService routeLegService;
+
+    @Autowired
+    private JobEventService jobEventService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // "local" (in-process solver) or "google" (Directions API optimize:true)
+    @Value("${app.routing.engine:local}")
+    private String routingEngine;
+
+    @Value("${app.routing.time-budget-ms:200}")
+    private long routingTimeBudgetMs;
+
     /**
      * Manually assign orders to carpenter with date
      */
@@ -50,17 +80,29 @@ public class CarpenterAssignmentService {
                     .orElseThrow(() -> new RuntimeException("Carpenter not found: " + carpenterId));
 
             List<Booking> assignedBookings = new ArrayList<>();
+            List<Long> geocodeIds = new ArrayList<>();
 
             for (Long bookingId : bookingIds) {
                 Booking booking = bookingRepository.findById(bookingId)
                         .orElseThrow(() -> new RuntimeException("Booking not found: " + bookingId));
 
+                String previousStatus = booking.getAssignmentStatus();
+                String previousCarpenterId = booking.getCarpenterId();
+                LocalDate previousDate = booking.getAssignedDate();
                 booking.setCarpenterId(carpenter.getCarpenterId());
                 booking.setCarpenterName(carpenter.getCarpenterName());
                 booking.setAssignedDate(assignedDate);
                 booking.setAssignmentStatus("ASSIGNED");
 
+                // Coordinates fixed by hand are kept; everything else is re-geocoded
+                if (!hasManualLocation(booking)) {
+                    booking.setGeocodeStatus(GeocodingPipelineService.STATUS_QUEUED);
+                    geocodeIds.add(booking.getId());
+                }
+
                 assignedBookings.add(bookingRepository.save(booking));
+                jobEventService.publishAfterCommit(JobEventService.ASSIGNED, booking, previousStatus);
+                eventPublisher.publishEvent(JobTransitionEvent.of(previousCarpenterId, previousDate, previousStatus, booking));
 
                 logger.info("Assigned booking {} to carpenter {} for date {}",
                         bookingId, carpenterId, assignedDate);
@@ -69,9 +111,10 @@ public class CarpenterAssignmentService {
             result.put("success", true);
             result.put("message", "Successfully assigned " + bookingIds.size() + " orders to " + carpenter.getCarpenterName());
             result.put("assignedBookings", assignedBookings);
+            result.put("geocodeQueued", geocodeIds);
 
-            // Trigger geocoding for assigned orders
-            geocodeAssignedOrders(bookingIds);
+            // Geocoding runs in the background once this assignment commits
+            geocodingPipelineService.submitAfterCommit(geocodeIds);
 
         } catch (Exception e) {
             logger.error("Error assigning orders to carpenter", e);
@@ -83,38 +126,24 @@ public class CarpenterAssignmentService {
     }
 
     /**
-     * Geocode customer addresses for assigned orders
+     * Queue customer addresses of assigned orders for background geocoding
      */
     @Transactional
     public void geocodeAssignedOrders(List<Long> bookingIds) {
-        for (Long bookingId : bookingIds) {
-            try {
-                Booking booking = bookingRepository.findById(bookingId).orElse(null);
-                if (booking == null) continue;
-
-                String address = buildAddress(booking);
-
-                logger.info("Geocoding booking {}: {}", bookingId, address);
-
-                Map<String, Object> geocodeResult = googleMapsService.geocodeAddress(address);
-
-                if (geocodeResult.get("success") != null && (Boolean) geocodeResult.get("success")) {
-                    booking.setLatitude((Double) geocodeResult.get("latitude"));
-                    booking.setLongitude((Double) geocodeResult.get("longitude"));
-                    booking.setGeocodeStatus("SUCCESS");
-                    logger.info("Successfully geocoded booking {}: lat={}, lng={}",
-                            bookingId, booking.getLatitude(), booking.getLongitude());
-                } else {
-                    booking.setGeocodeStatus("FAILED");
-                    logger.warn("Failed to geocode booking {}: {}", bookingId, geocodeResult.get("message"));
-                }
+        List<Booking> bookings = bookingRepository.findAllById(bookingIds);
+        for (Booking booking : bookings) {
+            booking.setGeocodeStatus(GeocodingPipelineService.STATUS_QUEUED);
+        }
+        bookingRepository.saveAll(bookings);
 
-                bookingRepository.save(booking);
+        geocodingPipelineService.submitAfterCommit(
+                bookings.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
 
-            } catch (Exception e) {
-                logger.error("Error geocoding booking " + bookingId, e);
-            }
-        }
+    private boolean hasManualLocation(Booking booking) {
+        String status = booking.getGeocodeStatus();
+        return booking.getLatitude() != null && booking.getLongitude() != null
+                && ("MANUAL".equals(status) || "SUCCESS_MANUAL".equals(status));
     }
 
     /**
@@ -180,6 +209,16 @@ public class CarpenterAssignmentService {
                 return result;
             }
 
+            long stillGeocoding = bookings.stream()
+                    .filter(b -> GeocodingPipelineService.STATUS_QUEUED.equals(b.getGeocodeStatus()))
+                    .count();
+            if (stillGeocoding > 0) {
+                result.put("success", false);
+                result.put("geocodingPending", stillGeocoding);
+                result.put("message", stillGeocoding + " order(s) are still being geocoded. Please retry shortly.");
+                return result;
+            }
+
             // Separate geocoded and failed bookings
             List<Booking> geocodedBookings = bookings.stream()
                     .filter(b -> b.getLatitude() != null && b.getLongitude() != null)
@@ -239,6 +278,7 @@ public class CarpenterAssignmentService {
                 Booking singleBooking = geocodedBookings.get(0);
                 singleBooking.setRouteOrder(1);
                 bookingRepository.save(singleBooking);
+                jobEventService.publishAfterCommit(JobEventService.ROUTE_UPDATED, singleBooking, null);
 
                 // Calculate simple distance for single order
                 double distance = calculateDistance(startLat, startLng,
@@ -259,7 +299,11 @@ public class CarpenterAssignmentService {
                 orderRoute.setCreatedBy(username);
                 orderRoute.setActive(true);
 
-                orderRouteRepository.save(orderRoute);
+                double[] lat = {singleBooking.getLatitude()};
+                double[] lng = {singleBooking.getLongitude()};
+                routeLegService.store(orderRoute, routeLegService.fromMatrix(startLat, startLng, lat, lng,
+                        Collections.singletonList(singleBooking.getId()), new int[]{0},
+                        roadDistanceCache.matrix(startLat, startLng, lat, lng)), null);
 
                 result.put("success", true);
                 result.put("message", "Single order assigned successfully");
@@ -270,43 +314,82 @@ public class CarpenterAssignmentService {
                 return result;
             }
 
-            Map<String, Object> routeResult = googleMapsService.getOptimizedRoute(startLat, startLng, waypoints);
-
-            if (routeResult.get("success") == null || !(Boolean) routeResult.get("success")) {
-                result.put("success", false);
-                result.put("message", "Failed to optimize route");
-                return result;
+            List<Integer> waypointOrder;
+            Double totalDistance;
+            Integer totalDuration;
+            List<RouteLegService.Leg> routeLegs;
+            String overviewPolyline = null;
+
+            double[] lats = new double[geocodedBookings.size()];
+            double[] lngs = new double[geocodedBookings.size()];
+            List<Long> bookingIds = new ArrayList<>();
+            for (int i = 0; i < geocodedBookings.size(); i++) {
+                lats[i] = geocodedBookings.get(i).getLatitude();
+                lngs[i] = geocodedBookings.get(i).getLongitude();
+                bookingIds.add(geocodedBookings.get(i).getId());
             }
+            RoadDistanceCache.RoadMatrix roadMatrix = roadDistanceCache.matrix(startLat, startLng, lats, lngs);
 
-            Map<String, Object> routeData = (Map<String, Object>) routeResult.get("data");
-            List<Map<String, Object>> routes = (List<Map<String, Object>>) routeData.get("routes");
+            // Directions is only needed while some pair of stops has never been measured
+            if ("google".equalsIgnoreCase(routingEngine) && roadMatrix.getEstimatedPairs() > 0) {
+                Map<String, Object> routeResult = googleMapsService.getOptimizedRoute(startLat, startLng, waypoints);
 
-            if (routes == null || routes.isEmpty()) {
-                result.put("success", false);
-                result.put("message", "No route found");
-                return result;
-            }
+                if (routeResult.get("success") == null || !(Boolean) routeResult.get("success")) {
+                    result.put("success", false);
+                    result.put("message", "Failed to optimize route");
+                    return result;
+                }
+
+                Map<String, Object> routeData = (Map<String, Object>) routeResult.get("data");
+                List<Map<String, Object>> routes = (List<Map<String, Object>>) routeData.get("routes");
+
+                if (routes == null || routes.isEmpty()) {
+                    result.put("success", false);
+                    result.put("message", "No route found");
+                    return result;
+                }
+
+                Map<String, Object> route = routes.get(0);
+                waypointOrder = (List<Integer>) route.get("waypoint_order");
+
+                totalDistance = 0.0;
+                totalDuration = 0;
+
+                List<Map<String, Object>> legs = (List<Map<String, Object>>) route.get("legs");
+                routeLegs = routeLegService.fromDirections(startLat, startLng, lats, lngs, bookingIds, waypointOrder,
+                        legs != null ? legs : Collections.emptyList());
 
-            Map<String, Object> route = routes.get(0);
-            List<Integer> waypointOrder = (List<Integer>) route.get("waypoint_order");
-
-            Double totalDistance = 0.0;
-            Integer totalDuration = 0;
-
-            List<Object> legs = (List<Object>) route.get("legs");
-            if (legs != null) {
-                for (Object leg : legs) {
-                    Map<String, Object> legMap = (Map<String, Object>) leg;
-                    Map<String, Object> distance = (Map<String, Object>) legMap.get("distance");
-                    Map<String, Object> duration = (Map<String, Object>) legMap.get("duration");
-
-                    if (distance != null) {
-                        totalDistance += ((Number) distance.get("value")).doubleValue() / 1000.0;
-                    }
-                    if (duration != null) {
-                        totalDuration += ((Number) duration.get("value")).intValue() / 60;
-                    }
+                List<double[]> measuredLegs = new ArrayList<>();
+                for (RouteLegService.Leg leg : routeLegs) {
+                    totalDistance += leg.getDistanceMeters() / 1000.0;
+                    totalDuration += leg.getDurationSeconds() / 60;
+                    measuredLegs.add(new double[]{leg.getFromLatitude(), leg.getFromLongitude(),
+                            leg.getToLatitude(), leg.getToLongitude(), leg.getDistanceMeters(), leg.getDurationSeconds()});
                 }
+                roadDistanceCache.recordLegs(measuredLegs, RoadDistanceCache.SOURCE_DIRECTIONS);
+
+                Map<String, Object> overview = (Map<String, Object>) route.get("overview_polyline");
+                if (overview != null) {
+                    overviewPolyline = (String) overview.get("points");
+                }
+            } else {
+                // Local solver over cached road distances: no waypoint cap, no network round-trip
+                long solveStart = System.nanoTime();
+                RouteOptimizer.RoutePlan plan = routeOptimizer.solve(roadMatrix.getKm(), routingTimeBudgetMs);
+
+                waypointOrder = new ArrayList<>();
+                for (int index : plan.getOrder()) {
+                    waypointOrder.add(index);
+                }
+
+                totalDistance = plan.getTotalDistance();
+                totalDuration = (int) Math.round(roadMatrix.tourMinutes(plan.getOrder()));
+                routeLegs = routeLegService.fromMatrix(startLat, startLng, lats, lngs, bookingIds,
+                        plan.getOrder(), roadMatrix);
+
+                logger.info("Local route for {} stops solved in {} ms ({} improvement passes, {} cached / {} estimated pairs): {}",
+                        geocodedBookings.size(), (System.nanoTime() - solveStart) / 1_000_000,
+                        plan.getPasses(), roadMatrix.getCachedPairs(), roadMatrix.getEstimatedPairs(), waypointOrder);
             }
 
             for (int i = 0; i < waypointOrder.size(); i++) {
@@ -315,6 +398,7 @@ public class CarpenterAssignmentService {
                 booking.setRouteOrder(i + 1);
                 bookingRepository.save(booking);
             }
+            jobEventService.publishAfterCommit(JobEventService.ROUTE_UPDATED, geocodedBookings, null);
 
             OrderRoute orderRoute = orderRouteRepository
                     .findByCarpenterIdAndRouteDate(carpenterId, routeDate)
@@ -331,7 +415,7 @@ public class CarpenterAssignmentService {
             orderRoute.setCreatedBy(username);
             orderRoute.setActive(true);
 
-            orderRouteRepository.save(orderRoute);
+            routeLegService.store(orderRoute, routeLegs, overviewPolyline);
 
             result.put("success", true);
             result.put("message", "Route optimized successfully");
@@ -380,62 +464,11 @@ public class CarpenterAssignmentService {
         return result;
     }
 
-    /**
-     * Build address string from booking for geocoding
-     * Handles address format: "address details - pincode"
-     */
-    private String buildAddress(Booking booking) {
-        if (booking.getAddress() == null || booking.getAddress().isEmpty()) {
-            return "";
-        }
-
-        String fullAddress = booking.getAddress();
-
-        // Extract pincode if present (6 digits after last dash)
-        String pincode = extractPincode(fullAddress);
-
-        // Build clean address for geocoding
-        StringBuilder address = new StringBuilder();
-
-        if (pincode != null && !pincode.isEmpty()) {
-            // Remove pincode from address for cleaner geocoding
-            String addressWithoutPincode = fullAddress.substring(0, fullAddress.lastIndexOf('-')).trim();
-            address.append(addressWithoutPincode);
-            address.append(", ").append(pincode);
-        } else {
-            address.append(fullAddress);
-        }
-
-        // Add India for better geocoding accuracy
-        address.append(", India");
-
-        return address.toString();
-    }
-
     /**
      * Extract 6-digit pincode from address string
-     * Format: "address details - 560024"
      */
     private String extractPincode(String address) {
-        if (address == null || address.isEmpty()) {
-            return null;
-        }
-
-        // Find last occurrence of dash
-        int lastDashIndex = address.lastIndexOf('-');
-        if (lastDashIndex == -1) {
-            return null;
-        }
-
-        // Get text after last dash
-        String afterDash = address.substring(lastDashIndex + 1).trim();
-
-        // Check if it's a 6-digit pincode
-        if (afterDash.matches("^[0-9]{6}$")) {
-            return afterDash;
-        }
-
-        return null;
+        return BookingAddressFormatter.extractPincode(address);
     }
 
     /**
@@ -483,11 +516,15 @@ public class CarpenterAssignmentService {
 
             logger.info("Updating address for booking {}: {} -> {}", bookingId, booking.getAddress(), newAddress);
 
+            // The old address is being corrected; stop serving its cached location
+            geocodeCacheService.evict(cacheKey(booking.getAddress()));
+
             // Update address
             booking.setAddress(newAddress);
 
-            // Try to geocode the new address
-            Map<String, Object> geocodeResult = googleMapsService.geocodeAddress(newAddress);
+            // Try to geocode the new address, in the form the geocoding pipeline caches it under
+            Map<String, Object> geocodeResult = googleMapsService.geocodeAddress(
+                    BookingAddressFormatter.toGeocodeAddress(newAddress));
 
             if ((Boolean) geocodeResult.get("success")) {
                 booking.setLatitude((Double) geocodeResult.get("latitude"));
@@ -542,6 +579,13 @@ public class CarpenterAssignmentService {
 
             bookingRepository.save(booking);
 
+            // Later bookings at the same address get the corrected location instead of the bad geocode
+            Map<String, Object> corrected = new HashMap<>();
+            corrected.put("success", true);
+            corrected.put("latitude", latitude);
+            corrected.put("longitude", longitude);
+            geocodeCacheService.put(cacheKey(booking.getAddress()), "ADDRESS", corrected);
+
             logger.info("Successfully updated coordinates for booking {}", bookingId);
 
             result.put("success", true);
@@ -558,21 +602,21 @@ public class CarpenterAssignmentService {
         return result;
     }
 
+    /**
+     * Geocode cache key of a booking address, or null when it has none
+     */
+    private String cacheKey(String address) {
+        if (address == null || address.trim().isEmpty()) {
+            return null;
+        }
+        return geocodeCacheService.addressKey(BookingAddressFormatter.toGeocodeAddress(address));
+    }
+
     /**
      * Calculate distance between two coordinates using Haversine formula
      * Returns distance in kilometers
      */
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of the earth in km
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = R * c;
-
-        return distance;
+        return RouteOptimizer.haversineKm(lat1, lon1, lat2, lon2);
     }
 }
\ No newline at end of file
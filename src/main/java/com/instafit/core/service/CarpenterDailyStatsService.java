@@ -0,0 +1,271 @@
+package com.instafit.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carpenter Daily Stats Service
+ * Maintains carpenter_daily_stats, the per (carpenter, assigned date, status) job counts.
+ * Writers publish a JobTransitionEvent; committed transitions become +1/-1 deltas that are
+ * coalesced in memory and upserted in batches. A nightly reconciliation recomputes the
+ * rollup from bookings, logs any drift and rebuilds it.
+ * Pending deltas live only in this JVM's memory: those not yet flushed when the process
+ * dies are lost, and the rollup stays off until the next reconciliation rebuilds it.
+ */
+@Service
+public class CarpenterDailyStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarpenterDailyStatsService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO carpenter_daily_stats (carpenter_id, stat_date, assignment_status, job_count, updated_at) " +
+            "VALUES (?, ?, ?, ?, now()) " +
+            "ON CONFLICT (carpenter_id, stat_date, assignment_status) DO UPDATE SET " +
+            "job_count = carpenter_daily_stats.job_count + EXCLUDED.job_count, updated_at = now()";
+
+    private static final String SOURCE_SQL =
+            "SELECT carpenter_id, assigned_date, assignment_status, COUNT(*) AS job_count FROM bookings " +
+            "WHERE carpenter_id IS NOT NULL AND assigned_date IS NOT NULL AND assignment_status IS NOT NULL " +
+            "GROUP BY carpenter_id, assigned_date, assignment_status";
+
+    private static final String ROLLUP_SQL =
+            "SELECT carpenter_id, stat_date, assignment_status, job_count FROM carpenter_daily_stats WHERE job_count <> 0";
+
+    private static final String CLEAR_SQL = "DELETE FROM carpenter_daily_stats";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO carpenter_daily_stats (carpenter_id, stat_date, assignment_status, job_count, updated_at) " +
+            "SELECT carpenter_id, assigned_date, assignment_status, COUNT(*), now() FROM bookings " +
+            "WHERE carpenter_id IS NOT NULL AND assigned_date IS NOT NULL AND assignment_status IS NOT NULL " +
+            "GROUP BY carpenter_id, assigned_date, assignment_status";
+
+    private static final String ANY_ROW_SQL = "SELECT EXISTS (SELECT 1 FROM carpenter_daily_stats)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate snapshotTransaction;
+
+    // Swapped for a new map by each reconciliation; deltas in the old one are in its snapshot
+    private volatile Map<StatKey, Integer> pending = new ConcurrentHashMap<>();
+    private volatile long generation;
+
+    private volatile Map<String, Object> lastReconciliation = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        // Compare and rebuild from one snapshot of bookings and the rollup
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * First start with an empty rollup: build it from bookings
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            Boolean populated = jdbcTemplate.queryForObject(ANY_ROW_SQL, Boolean.class);
+            if (!Boolean.TRUE.equals(populated)) {
+                reconcile();
+            }
+        } catch (Exception e) {
+            logger.warn("Carpenter daily stats not initialised: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    /**
+     * Record a committed transition (immediately when published outside a transaction)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobTransition(JobTransitionEvent event) {
+        Map<StatKey, Integer> deltas = pending;
+        if (event.hasFrom()) {
+            deltas.merge(new StatKey(event.getFromCarpenterId(), event.getFromDate(), event.getFromStatus()), -1, Integer::sum);
+        }
+        if (event.hasTo()) {
+            deltas.merge(new StatKey(event.getToCarpenterId(), event.getToDate(), event.getToStatus()), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Upsert accumulated deltas in one batch
+     */
+    @Scheduled(fixedDelayString = "${app.daily-stats.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<StatKey> keys = new ArrayList<>();
+        List<Integer> deltas = new ArrayList<>();
+        for (StatKey key : new ArrayList<>(pending.keySet())) {
+            Integer delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                keys.add(key);
+                deltas.add(delta);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    StatKey key = keys.get(i);
+                    ps.setString(1, key.carpenterId);
+                    ps.setDate(2, Date.valueOf(key.date));
+                    ps.setString(3, key.status);
+                    ps.setInt(4, deltas.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return keys.size();
+                }
+            });
+        } catch (Exception e) {
+            // Put them back for the next flush
+            for (int i = 0; i < keys.size(); i++) {
+                pending.merge(keys.get(i), deltas.get(i), Integer::sum);
+            }
+            logger.error("Carpenter daily stats flush failed for {} rows", keys.size(), e);
+        }
+    }
+
+    /**
+     * Compare the rollup with bookings, log drift, and rebuild it from bookings, all in one
+     * REPEATABLE READ transaction. Deltas pending when its snapshot is taken are dropped: their
+     * transitions committed before they were recorded, so the snapshot already includes them.
+     */
+    @Scheduled(cron = "${app.daily-stats.reconcile-cron:0 30 2 * * *}")
+    public synchronized Map<String, Object> reconcile() {
+        long start = System.currentTimeMillis();
+
+        Map<String, Object> result = snapshotTransaction.execute(status -> {
+            // The first statement fixes the snapshot; swap the deltas right after it
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            Map<StatKey, Integer> included = pending;
+            pending = new ConcurrentHashMap<>();
+            generation++;
+
+            Map<StatKey, Integer> expected = new HashMap<>();
+            jdbcTemplate.query(SOURCE_SQL, rs -> {
+                expected.put(new StatKey(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getString(3)), rs.getInt(4));
+            });
+            // What readers would have seen once the dropped deltas were flushed
+            Map<StatKey, Integer> actual = new HashMap<>(included);
+            jdbcTemplate.query(ROLLUP_SQL, rs -> {
+                actual.merge(new StatKey(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getString(3)),
+                        rs.getInt(4), Integer::sum);
+            });
+
+            Set<StatKey> keys = new HashSet<>(expected.keySet());
+            keys.addAll(actual.keySet());
+            List<String> samples = new ArrayList<>();
+            int drifted = 0;
+            for (StatKey key : keys) {
+                int want = expected.getOrDefault(key, 0);
+                int have = actual.getOrDefault(key, 0);
+                if (want != have) {
+                    drifted++;
+                    if (samples.size() < 20) {
+                        samples.add(key + " expected " + want + " found " + have);
+                    }
+                }
+            }
+
+            // Readers see either the old or the rebuilt rollup, never an empty one
+            jdbcTemplate.update(CLEAR_SQL);
+            jdbcTemplate.update(REBUILD_SQL);
+
+            if (drifted > 0) {
+                logger.warn("Carpenter daily stats drifted on {} of {} rows, rebuilt: {}", drifted, keys.size(), samples);
+            } else {
+                logger.info("Carpenter daily stats reconciled: {} rows, no drift", expected.size());
+            }
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("checkedAt", LocalDateTime.now().toString());
+            summary.put("rows", expected.size());
+            summary.put("driftedRows", drifted);
+            summary.put("droppedDeltas", included.size());
+            summary.put("samples", samples);
+            return summary;
+        });
+
+        result.put("durationMillis", System.currentTimeMillis() - start);
+        lastReconciliation = result;
+        return result;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("pendingDeltas", pending.size());
+        status.put("generation", generation);
+        status.put("lastReconciliation", lastReconciliation);
+        return status;
+    }
+
+    private static final class StatKey {
+        private final String carpenterId;
+        private final LocalDate date;
+        private final String status;
+
+        StatKey(String carpenterId, LocalDate date, String status) {
+            this.carpenterId = carpenterId;
+            this.date = date;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StatKey that = (StatKey) o;
+            return carpenterId.equals(that.carpenterId) && date.equals(that.date) && status.equals(that.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(carpenterId, date, status);
+        }
+
+        @Override
+        public String toString() {
+            return carpenterId + "/" + date + "/" + status;
+        }
+    }
+}
@@ -4,9 +4,7 @@ import com.instafit.core.entity.Branch;
 import com.instafit.core.entity.Carpenter;
 import com.instafit.core.entity.City;
 import com.instafit.core.entity.User;
-import com.instafit.core.repository.BranchRepository;
 import com.instafit.core.repository.CarpenterRepository;
-import com.instafit.core.repository.CityRepository;
 import com.instafit.core.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,10 +24,7 @@ public class CarpenterService {
     private CarpenterRepository carpenterRepository;
 
     @Autowired
-    private CityRepository cityRepository;
-
-    @Autowired
-    private BranchRepository branchRepository;
+    private MasterDataCache masterDataCache;
 
     @Autowired
     private UserRepository userRepository;
@@ -72,13 +67,13 @@ public class CarpenterService {
         }
 
         if (carpenter.getCityCode() != null && !carpenter.getCityCode().isEmpty()) {
-            City city = cityRepository.findByCityCode(carpenter.getCityCode())
+            City city = masterDataCache.findCity(carpenter.getCityCode())
                     .orElseThrow(() -> new RuntimeException("Invalid city code: " + carpenter.getCityCode()));
             carpenter.setCityDesc(city.getCityDesc());
         }
 
         if (carpenter.getBranchCode() != null && !carpenter.getBranchCode().isEmpty()) {
-            Branch branch = branchRepository.findByBranchCode(carpenter.getBranchCode())
+            Branch branch = masterDataCache.findBranch(carpenter.getBranchCode())
                     .orElseThrow(() -> new RuntimeException("Invalid branch code: " + carpenter.getBranchCode()));
             carpenter.setBranchCode(branch.getBranchDesc());
         }
@@ -105,13 +100,13 @@ public class CarpenterService {
         }
 
         if (carpenter.getCityCode() != null && !carpenter.getCityCode().isEmpty()) {
-            City city = cityRepository.findByCityCode(carpenter.getCityCode())
+            City city = masterDataCache.findCity(carpenter.getCityCode())
                     .orElseThrow(() -> new RuntimeException("Invalid city code: " + carpenter.getCityCode()));
             carpenter.setCityDesc(city.getCityDesc());
         }
 
         if (carpenter.getBranchCode() != null && !carpenter.getBranchCode().isEmpty()) {
-            Branch branch = branchRepository.findByBranchCode(carpenter.getBranchCode())
+            Branch branch = masterDataCache.findBranch(carpenter.getBranchCode())
                     .orElseThrow(() -> new RuntimeException("Invalid branch code: " + carpenter.getBranchCode()));
             carpenter.setBranchCode(branch.getBranchDesc());
         }
@@ -146,14 +141,14 @@ public class CarpenterService {
                 .orElseThrow(() -> new RuntimeException("Carpenter not found"));
 
         if (updatedCarpenter.getCityCode() != null && !updatedCarpenter.getCityCode().isEmpty()) {
-            City city = cityRepository.findByCityCode(updatedCarpenter.getCityCode())
+            City city = masterDataCache.findCity(updatedCarpenter.getCityCode())
                     .orElseThrow(() -> new RuntimeException("Invalid city code: " + updatedCarpenter.getCityCode()));
             carpenter.setCityCode(updatedCarpenter.getCityCode());
             carpenter.setCityDesc(city.getCityDesc());
         }
 
         if (updatedCarpenter.getBranchCode() != null && !updatedCarpenter.getBranchCode().isEmpty()) {
-            Branch branch = branchRepository.findByBranchCode(updatedCarpenter.getBranchCode())
+            Branch branch = masterDataCache.findBranch(updatedCarpenter.getBranchCode())
                     .orElseThrow(() -> new RuntimeException("Invalid branch code: " + updatedCarpenter.getBranchCode()));
             carpenter.setBranchCode(updatedCarpenter.getBranchCode());
             carpenter.setBranchCode(branch.getBranchDesc());
@@ -0,0 +1,84 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.CarpenterJobStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carpenter Stats Service
+ * Dashboard and profile counters for a carpenter from the carpenter_daily_stats rollup,
+ * and the latest jobs from the (carpenter_id, assigned_date) index, instead of
+ * loading the carpenter's whole job history.
+ */
+@Service
+public class CarpenterStatsService {
+
+    private static final String STATS_SQL =
+            "SELECT COALESCE(SUM(job_count), 0) AS total, " +
+            "COALESCE(SUM(job_count) FILTER (WHERE assignment_status = 'ASSIGNED'), 0) AS pending, " +
+            "COALESCE(SUM(job_count) FILTER (WHERE assignment_status = 'IN_PROGRESS'), 0) AS in_progress, " +
+            "COALESCE(SUM(job_count) FILTER (WHERE assignment_status = 'COMPLETED'), 0) AS completed, " +
+            "COALESCE(SUM(job_count) FILTER (WHERE assignment_status = 'COMPLETED' AND stat_date = ?), 0) AS completed_today, " +
+            "COALESCE(SUM(job_count) FILTER (WHERE stat_date >= ? AND stat_date < ?), 0) AS this_month " +
+            "FROM carpenter_daily_stats WHERE carpenter_id = ?";
+
+    private static final String STATUS_COUNTS_SQL =
+            "SELECT assignment_status, SUM(job_count) FROM carpenter_daily_stats GROUP BY assignment_status";
+
+    private static final String RECENT_JOBS_SQL =
+            "SELECT id, order_no, service_name, customer_name, assigned_date, assignment_status, address " +
+            "FROM bookings WHERE carpenter_id = ? AND assigned_date IS NOT NULL " +
+            "ORDER BY assigned_date DESC LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public CarpenterJobStats getStats(String carpenterId) {
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+
+        return jdbcTemplate.queryForObject(STATS_SQL, (rs, rowNum) -> new CarpenterJobStats(
+                        rs.getLong("total"),
+                        rs.getLong("pending"),
+                        rs.getLong("in_progress"),
+                        rs.getLong("completed"),
+                        rs.getLong("completed_today"),
+                        rs.getLong("this_month")),
+                Date.valueOf(today), Date.valueOf(monthStart), Date.valueOf(monthStart.plusMonths(1)), carpenterId);
+    }
+
+    /**
+     * Assigned jobs per assignment status across all carpenters, for the job board header
+     */
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(STATUS_COUNTS_SQL, rs -> {
+            counts.put(rs.getString(1), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    /**
+     * Latest jobs by assigned date, shaped for the dashboard
+     */
+    public List<Map<String, Object>> getRecentJobs(String carpenterId, int limit) {
+        return jdbcTemplate.query(RECENT_JOBS_SQL, (rs, rowNum) -> {
+            Map<String, Object> job = new HashMap<>();
+            job.put("id", rs.getLong("id"));
+            job.put("orderNo", rs.getString("order_no"));
+            job.put("serviceName", rs.getString("service_name"));
+            job.put("customerName", rs.getString("customer_name"));
+            job.put("scheduledDate", rs.getDate("assigned_date").toLocalDate());
+            job.put("status", rs.getString("assignment_status"));
+            job.put("address", rs.getString("address"));
+            return job;
+        }, carpenterId, limit);
+    }
+}
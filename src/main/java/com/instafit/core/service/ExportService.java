@@ -0,0 +1,399 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.BookingFilter;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Export Service
+ * Streams bookings, the booking audit log, routes and the master tables as CSV or XLSX.
+ * Rows come from a forward-only JDBC cursor (fetch size inside a read-only transaction)
+ * and go straight to the output stream; XLSX uses SXSSF's sliding row window, so memory
+ * stays constant whatever the row count, and continues on a new sheet at Excel's row limit.
+ * CSV text that a spreadsheet would read as a formula is prefixed with a quote.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_XLSX = "xlsx";
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int XLSX_ROW_WINDOW = 100;
+    private static final int XLSX_MAX_CELL_LENGTH = 32767;
+    // Excel's rows per sheet, header included
+    private static final int XLSX_MAX_ROWS = 1048576;
+
+    // Master tables lead with the columns their upload expects, so an export can be re-uploaded
+    private static final Map<String, String> MASTER_SQL = new LinkedHashMap<>();
+
+    static {
+        MASTER_SQL.put("pincodes",
+                "SELECT pincode AS \"Pincode\", city_code AS \"City Code\", area AS \"Area\", " +
+                "latitude AS \"Latitude\", longitude AS \"Longitude\", city_desc AS \"City\", active AS \"Active\" " +
+                "FROM pincodes ORDER BY pincode");
+        MASTER_SQL.put("cities",
+                "SELECT city_code AS \"City Code\", city_desc AS \"City\", active AS \"Active\" " +
+                "FROM cities ORDER BY city_code");
+        MASTER_SQL.put("branches",
+                "SELECT b.branch_code AS \"Branch Code\", b.branch_desc AS \"Branch\", " +
+                "(SELECT string_agg(bc.city_code, ',' ORDER BY bc.city_code) FROM branch_cities bc " +
+                "WHERE bc.branch_id = b.id) AS \"City Codes\", b.active AS \"Active\" " +
+                "FROM branches b ORDER BY b.branch_code");
+        MASTER_SQL.put("items",
+                "SELECT item_code AS \"Item Code\", item_desc AS \"Item\", active AS \"Active\" " +
+                "FROM items ORDER BY item_code");
+        MASTER_SQL.put("fit-types",
+                "SELECT fit_type_code AS \"Fit Type Code\", fit_type_desc AS \"Fit Type\", active AS \"Active\" " +
+                "FROM fit_types ORDER BY fit_type_code");
+    }
+
+    private static final String BOOKINGS_SQL =
+            "SELECT id AS \"ID\", order_no AS \"Order No\", date AS \"Date\", booking_time AS \"Time\", " +
+            "customer_name AS \"Customer\", customer_mobile AS \"Mobile\", address AS \"Address\", " +
+            "service_name AS \"Service\", service_types AS \"Service Types\", total_price AS \"Total Price\", " +
+            "status AS \"Status\", payment_id AS \"Payment ID\", employee_name AS \"Employee\", " +
+            "employee_phone AS \"Employee Phone\", created_at AS \"Created At\", submitted_by AS \"Submitted By\", " +
+            "submitted_at AS \"Submitted At\", carpenter_id AS \"Carpenter ID\", carpenter_name AS \"Carpenter\", " +
+            "assigned_date AS \"Assigned Date\", assignment_status AS \"Assignment Status\", " +
+            "route_order AS \"Route Order\", latitude AS \"Latitude\", longitude AS \"Longitude\", " +
+            "geocode_status AS \"Geocode Status\", notes AS \"Notes\" FROM bookings";
+
+    private static final String BOOKING_LOGS_SQL =
+            "SELECT id AS \"ID\", booking_id AS \"Booking ID\", order_no AS \"Order No\", " +
+            "action_type AS \"Action\", field_changed AS \"Field\", old_value AS \"Old Value\", " +
+            "new_value AS \"New Value\", changed_by AS \"Changed By\", ip_address AS \"IP Address\", " +
+            "notes AS \"Notes\", created_at AS \"Created At\" FROM booking_logs";
+
+    private static final String ROUTES_SQL =
+            "SELECT id AS \"ID\", carpenter_id AS \"Carpenter ID\", route_date AS \"Route Date\", " +
+            "start_location AS \"Start Location\", start_latitude AS \"Start Latitude\", " +
+            "start_longitude AS \"Start Longitude\", total_distance AS \"Distance (km)\", " +
+            "total_duration AS \"Duration (min)\", order_sequence AS \"Order Sequence\", " +
+            "map_url AS \"Map URL\", active AS \"Active\", created_by AS \"Created By\", " +
+            "created_at AS \"Created At\", updated_at AS \"Updated At\" FROM order_routes";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate cursorJdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+
+        // PostgreSQL only streams with a fetch size when autocommit is off
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Set<String> getDatasets() {
+        Set<String> datasets = new LinkedHashSet<>(Arrays.asList("bookings", "booking-logs", "routes"));
+        datasets.addAll(MASTER_SQL.keySet());
+        return datasets;
+    }
+
+    /**
+     * Check the dataset and format before anything is written to the response
+     */
+    public void validate(String dataset, String format) {
+        if (!getDatasets().contains(dataset)) {
+            throw new IllegalArgumentException("Unknown export: " + dataset);
+        }
+        if (!FORMAT_CSV.equals(format) && !FORMAT_XLSX.equals(format)) {
+            throw new IllegalArgumentException("Format must be csv or xlsx");
+        }
+    }
+
+    /**
+     * Write one dataset to the stream. The booking filter applies to bookings; its date range
+     * also limits booking logs (created date) and routes (route date), and its carpenter routes.
+     */
+    public long export(String dataset, BookingFilter filter, String format, OutputStream out) throws IOException {
+        validate(dataset, format);
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(dataset, filter != null ? filter : new BookingFilter(), params);
+
+        long start = System.currentTimeMillis();
+        long rows;
+        try (RowWriter writer = FORMAT_XLSX.equals(format) ? new XlsxRowWriter(out, dataset) : new CsvRowWriter(out)) {
+            rows = stream(sql, params, writer);
+        }
+        logger.info("Exported {} {} rows as {} in {} ms", rows, dataset, format, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private long stream(String sql, List<Object> params, RowWriter writer) {
+        Long rows = readOnlyTransaction.execute(status -> cursorJdbcTemplate.query(sql, (ResultSetExtractor<Long>) rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columns = meta.getColumnCount();
+            Object[] values = new Object[columns];
+            try {
+                for (int i = 0; i < columns; i++) {
+                    values[i] = meta.getColumnLabel(i + 1);
+                }
+                writer.write(values);
+
+                long count = 0;
+                while (rs.next()) {
+                    for (int i = 0; i < columns; i++) {
+                        values[i] = exportValue(rs.getObject(i + 1));
+                    }
+                    writer.write(values);
+                    count++;
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, params.toArray()));
+        return rows != null ? rows : 0;
+    }
+
+    private String buildQuery(String dataset, BookingFilter filter, List<Object> params) {
+        List<String> where = new ArrayList<>();
+        switch (dataset) {
+            case "bookings":
+                addBookingFilter(filter, where, params);
+                return BOOKINGS_SQL + whereClause(where) + " ORDER BY created_at DESC, id DESC";
+            case "booking-logs":
+                if (filter.getDateFrom() != null) {
+                    where.add("created_at >= ?");
+                    params.add(java.sql.Date.valueOf(filter.getDateFrom()));
+                }
+                if (filter.getDateTo() != null) {
+                    where.add("created_at < ?");
+                    params.add(java.sql.Date.valueOf(filter.getDateTo().plusDays(1)));
+                }
+                return BOOKING_LOGS_SQL + whereClause(where) + " ORDER BY created_at, id";
+            case "routes":
+                if (hasText(filter.getCarpenterId())) {
+                    where.add("carpenter_id = ?");
+                    params.add(filter.getCarpenterId());
+                }
+                if (filter.getDateFrom() != null) {
+                    where.add("route_date >= ?");
+                    params.add(java.sql.Date.valueOf(filter.getDateFrom()));
+                }
+                if (filter.getDateTo() != null) {
+                    where.add("route_date <= ?");
+                    params.add(java.sql.Date.valueOf(filter.getDateTo()));
+                }
+                return ROUTES_SQL + whereClause(where) + " ORDER BY route_date DESC, carpenter_id";
+            default:
+                return MASTER_SQL.get(dataset);
+        }
+    }
+
+    // Same filters as BookingSpecifications.matching
+    private void addBookingFilter(BookingFilter filter, List<String> where, List<Object> params) {
+        if (hasText(filter.getStatus())) {
+            where.add("status = ?");
+            params.add(filter.getStatus());
+        }
+        if (hasText(filter.getExcludeStatus())) {
+            where.add("(status IS NULL OR status <> ?)");
+            params.add(filter.getExcludeStatus());
+        }
+        if (hasText(filter.getAssignmentStatus())) {
+            where.add("assignment_status = ?");
+            params.add(filter.getAssignmentStatus());
+        }
+        if (hasText(filter.getCarpenterId())) {
+            where.add("carpenter_id = ?");
+            params.add(filter.getCarpenterId());
+        }
+        if (Boolean.TRUE.equals(filter.getSubmitted())) {
+            where.add("submitted_by IS NOT NULL");
+        }
+        if (hasText(filter.getCustomerName())) {
+            where.add("lower(customer_name) LIKE ?");
+            params.add(containsPattern(filter.getCustomerName()));
+        }
+        if (hasText(filter.getOrderNo())) {
+            where.add("lower(order_no) LIKE ?");
+            params.add(containsPattern(filter.getOrderNo()));
+        }
+        if (hasText(filter.getServiceName())) {
+            where.add("lower(service_name) LIKE ?");
+            params.add(containsPattern(filter.getServiceName()));
+        }
+        if (filter.getDateFrom() != null) {
+            where.add("date >= ?");
+            params.add(java.sql.Date.valueOf(filter.getDateFrom()));
+        }
+        if (filter.getDateTo() != null) {
+            where.add("date <= ?");
+            params.add(java.sql.Date.valueOf(filter.getDateTo()));
+        }
+    }
+
+    private static String whereClause(List<String> where) {
+        return where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static String containsPattern(String value) {
+        return "%" + value.trim().toLowerCase() + "%";
+    }
+
+    private static Object exportValue(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().toString();
+        }
+        if (value instanceof java.sql.Time) {
+            return ((java.sql.Time) value).toLocalTime().toString();
+        }
+        return value;
+    }
+
+    /**
+     * Text starting with = + - or @ runs as a formula when the file is opened in a spreadsheet;
+     * a leading quote makes it plain text. Numbers are written as values and left alone.
+     */
+    private static String formulaSafe(String text) {
+        if (!text.isEmpty()) {
+            char first = text.charAt(0);
+            if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+                return "'" + text;
+            }
+        }
+        return text;
+    }
+
+    private interface RowWriter extends Closeable {
+        void write(Object[] values) throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            // BOM so Excel opens the file as UTF-8
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof String) {
+                    writer.write(escape(formulaSafe((String) value)));
+                } else if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Flush only; the response stream belongs to the container
+            writer.flush();
+        }
+    }
+
+    private static final class XlsxRowWriter implements RowWriter {
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook;
+        private final String sheetName;
+        private Sheet sheet;
+        private Object[] header;
+        private int rowIndex;
+
+        XlsxRowWriter(OutputStream out, String sheetName) {
+            this.out = out;
+            this.sheetName = sheetName;
+            this.workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+            this.workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet(sheetName);
+        }
+
+        @Override
+        public void write(Object[] values) {
+            if (header == null) {
+                header = values.clone();
+            } else if (rowIndex == XLSX_MAX_ROWS) {
+                // Sheet full: continue on "<dataset> (2)" and so on, each with the header row
+                sheet = workbook.createSheet(sheetName + " (" + (workbook.getNumberOfSheets() + 1) + ")");
+                rowIndex = 0;
+                writeRow(header);
+            }
+            writeRow(values);
+        }
+
+        private void writeRow(Object[] values) {
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(i);
+                if (value instanceof Number) {
+                    cell.setCellValue(((Number) value).doubleValue());
+                } else if (value instanceof Boolean) {
+                    cell.setCellValue((Boolean) value);
+                } else {
+                    // A string cell is never evaluated, so no formula guard is needed here
+                    String text = value.toString();
+                    cell.setCellValue(text.length() > XLSX_MAX_CELL_LENGTH ? text.substring(0, XLSX_MAX_CELL_LENGTH) : text);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                workbook.write(out);
+                out.flush();
+            } finally {
+                // Removes the temp files backing the flushed rows
+                workbook.dispose();
+                workbook.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.GeocodeCache;
+import com.instafit.core.repository.GeocodeCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Geocode Cache Service
+ * Two-tier cache in front of the Google Geocoding API: a bounded in-process
+ * LRU with TTL, backed by the geocode_cache table. Only successful lookups
+ * are cached, so a failed address is retried next time. Table writes run in their own
+ * transaction, so a failed write never aborts the caller's.
+ */
+@Service
+public class GeocodeCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodeCacheService.class);
+
+    private static final int MAX_KEY_LENGTH = 500;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO geocode_cache (cache_key, key_type, latitude, longitude, formatted_address, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, now(), now()) " +
+            "ON CONFLICT (cache_key) DO UPDATE SET latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude, " +
+            "formatted_address = EXCLUDED.formatted_address, updated_at = now()";
+
+    @Autowired
+    private GeocodeCacheRepository geocodeCacheRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate writeTransaction;
+
+    @Value("${app.geocode-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.geocode-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.geocode-cache.memory-ttl-minutes:1440}")
+    private long memoryTtlMinutes;
+
+    @Value("${app.geocode-cache.db-ttl-days:180}")
+    private long dbTtlDays;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong dbHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    private final Object memoryLock = new Object();
+    private LinkedHashMap<String, CachedLocation> memory;
+
+    @PostConstruct
+    public void init() {
+        // In PostgreSQL a failed statement aborts the whole transaction it runs in
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        final int capacity = Math.max(maxEntries, 1);
+        // Access-ordered, so the eldest entry is the least recently used
+        memory = new LinkedHashMap<String, CachedLocation>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLocation> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Cache key for a free-text address (the buildAddress output)
+     */
+    public String addressKey(String address) {
+        return toKey("A:", normalize(address));
+    }
+
+    /**
+     * Cache key for a pincode lookup
+     */
+    public String pincodeKey(String pincode, String country) {
+        return toKey("P:", normalize(pincode) + "|" + normalize(country));
+    }
+
+    /**
+     * Look up coordinates, memory first then the table.
+     * Returns the geocodeAddress result shape with cached=true, or empty on a miss
+     */
+    public Optional<Map<String, Object>> get(String key) {
+        if (!enabled || key == null) {
+            return Optional.empty();
+        }
+
+        CachedLocation location = getFromMemory(key);
+        if (location != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(location.toResult());
+        }
+
+        try {
+            Optional<GeocodeCache> row = geocodeCacheRepository.findByCacheKey(key);
+            if (row.isPresent() && !isStale(row.get())) {
+                GeocodeCache entry = row.get();
+                location = new CachedLocation(entry.getLatitude(), entry.getLongitude(),
+                        entry.getFormattedAddress(), expiry());
+                putInMemory(key, location);
+                dbHits.incrementAndGet();
+                return Optional.of(location.toResult());
+            }
+        } catch (Exception e) {
+            // The cache must never break geocoding; fall through to the API
+            logger.warn("Geocode cache read failed for {}: {}", key, e.getMessage());
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a successful geocodeAddress result in both tiers
+     */
+    public void put(String key, String keyType, Map<String, Object> result) {
+        if (!enabled || key == null || !Boolean.TRUE.equals(result.get("success"))) {
+            return;
+        }
+
+        Double latitude = toDouble(result.get("latitude"));
+        Double longitude = toDouble(result.get("longitude"));
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        String formattedAddress = truncate((String) result.get("formattedAddress"), MAX_KEY_LENGTH);
+
+        putInMemory(key, new CachedLocation(latitude, longitude, formattedAddress, expiry()));
+        try {
+            writeTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update(UPSERT_SQL, key, keyType, latitude, longitude, formattedAddress));
+            stores.incrementAndGet();
+        } catch (Exception e) {
+            logger.warn("Geocode cache write failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop one key from both tiers (e.g. after a bad geocode was corrected)
+     */
+    public void evict(String key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (memoryLock) {
+            memory.remove(key);
+        }
+        try {
+            writeTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update("DELETE FROM geocode_cache WHERE cache_key = ?", key));
+        } catch (Exception e) {
+            logger.warn("Geocode cache evict failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Hit/miss counters; savedApiCalls is every lookup answered without Google
+     */
+    public Map<String, Object> getStats() {
+        long memory = memoryHits.get();
+        long db = dbHits.get();
+        long miss = misses.get();
+        long lookups = memory + db + miss;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("memoryHits", memory);
+        stats.put("dbHits", db);
+        stats.put("misses", miss);
+        stats.put("stores", stores.get());
+        stats.put("savedApiCalls", memory + db);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) (memory + db) / lookups);
+        stats.put("memoryEntries", memorySize());
+        stats.put("maxEntries", maxEntries);
+        return stats;
+    }
+
+    private CachedLocation getFromMemory(String key) {
+        synchronized (memoryLock) {
+            CachedLocation location = memory.get(key);
+            if (location != null && location.expiresAt < System.currentTimeMillis()) {
+                memory.remove(key);
+                return null;
+            }
+            return location;
+        }
+    }
+
+    private void putInMemory(String key, CachedLocation location) {
+        synchronized (memoryLock) {
+            memory.put(key, location);
+        }
+    }
+
+    private int memorySize() {
+        synchronized (memoryLock) {
+            return memory.size();
+        }
+    }
+
+    private boolean isStale(GeocodeCache entry) {
+        return dbTtlDays > 0 && entry.getUpdatedAt() != null
+                && entry.getUpdatedAt().isBefore(LocalDateTime.now().minusDays(dbTtlDays));
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + memoryTtlMinutes * 60_000L;
+    }
+
+    /**
+     * Case and whitespace folding so "12 MG Road ,Bangalore" and "12 mg road, bangalore" share a key
+     */
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim()
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll(" ?, ?", ", ")
+                .replaceAll("(, )+", ", ");
+    }
+
+    private String toKey(String prefix, String normalized) {
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        String key = prefix + normalized;
+        if (key.length() <= MAX_KEY_LENGTH) {
+            return key;
+        }
+        // Very long addresses are keyed by digest to fit the column
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder(prefix).append('#');
+            for (byte b : digest.digest(normalized.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private Double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    private String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    private static final class CachedLocation {
+        private final double latitude;
+        private final double longitude;
+        private final String formattedAddress;
+        private final long expiresAt;
+
+        CachedLocation(double latitude, double longitude, String formattedAddress, long expiresAt) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.formattedAddress = formattedAddress;
+            this.expiresAt = expiresAt;
+        }
+
+        Map<String, Object> toResult() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("latitude", latitude);
+            result.put("longitude", longitude);
+            result.put("formattedAddress", formattedAddress);
+            result.put("cached", true);
+            return result;
+        }
+    }
+}
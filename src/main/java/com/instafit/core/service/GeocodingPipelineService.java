@@ -0,0 +1,341 @@
+package com.instafit.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Geocoding Pipeline Service
+ * Background geocoding of assigned bookings. The bookings table is the outbox:
+ * a booking waiting for coordinates has geocode_status = 'QUEUED', so queued work
+ * survives a restart. Ids flow through a bounded in-memory queue to a fixed worker
+ * pool; Maps requests are paced by MapsRateLimiter and results are written back
+ * in JDBC batches.
+ */
+@Service
+public class GeocodingPipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingPipelineService.class);
+
+    public static final String STATUS_QUEUED = "QUEUED";
+
+    private static final String FIND_ADDRESS_SQL =
+            "SELECT address FROM bookings WHERE id = ? AND geocode_status = 'QUEUED'";
+
+    private static final String FIND_QUEUED_SQL =
+            "SELECT id FROM bookings WHERE geocode_status = 'QUEUED' ORDER BY id";
+
+    // Only rows still waiting are touched, so a manual fix made meanwhile wins
+    private static final String WRITE_BACK_SQL =
+            "UPDATE bookings SET latitude = COALESCE(?, latitude), longitude = COALESCE(?, longitude), " +
+            "geocode_status = ? WHERE id = ? AND geocode_status = 'QUEUED'";
+
+    private static final String PROGRESS_SQL =
+            "SELECT id, geocode_status, latitude, longitude FROM bookings WHERE id = ANY(?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GoogleMapsService googleMapsService;
+
+    @Autowired
+    private PincodeCentroidIndex pincodeCentroidIndex;
+
+    @Value("${app.geocoding.workers:4}")
+    private int workerCount;
+
+    @Value("${app.geocoding.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.geocoding.batch-size:50}")
+    private int batchSize;
+
+    private BlockingQueue<Long> queue;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    // Ids queued, being geocoded, or waiting for write-back
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Queue<Outcome> outcomes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingOutcomes = new AtomicInteger();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong pincodeFallbacks = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(Math.max(queueCapacity, 1));
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(workerCount, 1), runnable -> {
+            Thread thread = new Thread(runnable, "geocode-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        for (int i = 0; i < Math.max(workerCount, 1); i++) {
+            workers.submit(this::workerLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Pick up bookings left QUEUED by a previous run
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            recoverQueued();
+        } catch (Exception e) {
+            logger.warn("Could not recover queued geocodes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Periodic sweep for QUEUED bookings that are not in memory (queue overflow, lost workers)
+     */
+    @Scheduled(fixedDelayString = "${app.geocoding.sweep-interval-ms:300000}",
+            initialDelayString = "${app.geocoding.sweep-interval-ms:300000}")
+    public void recoverQueued() {
+        List<Long> queued = jdbcTemplate.queryForList(FIND_QUEUED_SQL, Long.class);
+        int submitted = submit(queued);
+        if (submitted > 0) {
+            logger.info("Re-queued {} bookings waiting for geocoding", submitted);
+        }
+    }
+
+    /**
+     * Queue bookings once the surrounding transaction has committed their QUEUED status
+     */
+    public void submitAfterCommit(Collection<Long> bookingIds) {
+        List<Long> ids = new ArrayList<>(bookingIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(ids);
+                }
+            });
+        } else {
+            submit(ids);
+        }
+    }
+
+    /**
+     * Queue bookings for geocoding; returns how many were newly queued
+     */
+    public int submit(Collection<Long> bookingIds) {
+        int submitted = 0;
+        for (Long bookingId : bookingIds) {
+            if (bookingId == null || !inFlight.add(bookingId)) {
+                continue;
+            }
+            if (queue.offer(bookingId)) {
+                submitted++;
+            } else {
+                // Still QUEUED in the table; the next sweep retries it
+                inFlight.remove(bookingId);
+                logger.warn("Geocoding queue full, booking {} deferred to next sweep", bookingId);
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Write finished geocodes back in one batch
+     */
+    @Scheduled(fixedDelayString = "${app.geocoding.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (pendingOutcomes.get() == 0) {
+            return;
+        }
+
+        List<Outcome> batch = new ArrayList<>();
+        Outcome outcome;
+        while ((outcome = outcomes.poll()) != null) {
+            batch.add(outcome);
+        }
+        pendingOutcomes.addAndGet(-batch.size());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(WRITE_BACK_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Outcome o = batch.get(i);
+                    ps.setObject(1, o.latitude, Types.DOUBLE);
+                    ps.setObject(2, o.longitude, Types.DOUBLE);
+                    ps.setString(3, o.status);
+                    ps.setLong(4, o.bookingId);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+            logger.debug("Wrote back {} geocodes", batch.size());
+        } catch (Exception e) {
+            // Rows stay QUEUED and are picked up again by the sweep
+            logger.error("Geocode write-back failed for {} bookings", batch.size(), e);
+        } finally {
+            for (Outcome o : batch) {
+                inFlight.remove(o.bookingId);
+            }
+        }
+    }
+
+    /**
+     * Current geocode status and coordinates of the given bookings
+     */
+    public List<Map<String, Object>> getProgress(List<Long> bookingIds) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(PROGRESS_SQL);
+            Array ids = connection.createArrayOf("bigint", bookingIds.toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, (rs, rowNum) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("bookingId", rs.getLong("id"));
+            row.put("geocodeStatus", rs.getString("geocode_status"));
+            row.put("latitude", rs.getObject("latitude"));
+            row.put("longitude", rs.getObject("longitude"));
+            return row;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("workers", workerCount);
+        stats.put("queued", queue.size());
+        stats.put("inFlight", inFlight.size());
+        stats.put("awaitingWriteBack", pendingOutcomes.get());
+        stats.put("processed", processed.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("pincodeFallbacks", pincodeFallbacks.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    private void workerLoop() {
+        while (running) {
+            Long bookingId;
+            try {
+                bookingId = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (bookingId == null) {
+                continue;
+            }
+
+            try {
+                process(bookingId);
+            } catch (Exception e) {
+                // Leave it QUEUED for the sweep rather than marking a transient error as FAILED
+                inFlight.remove(bookingId);
+                logger.error("Error geocoding booking " + bookingId, e);
+            }
+        }
+    }
+
+    private void process(Long bookingId) {
+        String address;
+        try {
+            address = jdbcTemplate.queryForObject(FIND_ADDRESS_SQL, String.class, bookingId);
+        } catch (EmptyResultDataAccessException e) {
+            // Deleted, or no longer waiting (fixed manually in the meantime)
+            inFlight.remove(bookingId);
+            return;
+        }
+
+        String geocodeAddress = BookingAddressFormatter.toGeocodeAddress(address);
+        logger.info("Geocoding booking {}: {}", bookingId, geocodeAddress);
+
+        Map<String, Object> geocodeResult = googleMapsService.geocodeAddress(geocodeAddress);
+        Outcome outcome;
+        if (Boolean.TRUE.equals(geocodeResult.get("success"))) {
+            outcome = new Outcome(bookingId, toDouble(geocodeResult.get("latitude")),
+                    toDouble(geocodeResult.get("longitude")), "SUCCESS");
+            succeeded.incrementAndGet();
+        } else {
+            // Fall back to the centroid of the address pincode
+            Map<String, Object> centroid = pincodeCentroidIndex.resolve(BookingAddressFormatter.extractPincode(address));
+            if (centroid != null) {
+                outcome = new Outcome(bookingId, toDouble(centroid.get("latitude")),
+                        toDouble(centroid.get("longitude")), "SUCCESS_PINCODE");
+                pincodeFallbacks.incrementAndGet();
+            } else {
+                outcome = new Outcome(bookingId, null, null, "FAILED");
+                failed.incrementAndGet();
+                logger.warn("Failed to geocode booking {}: {}", bookingId, geocodeResult.get("message"));
+            }
+        }
+        processed.incrementAndGet();
+
+        outcomes.add(outcome);
+        if (pendingOutcomes.incrementAndGet() >= batchSize) {
+            flush();
+        }
+    }
+
+    private Double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    private static final class Outcome {
+        private final long bookingId;
+        private final Double latitude;
+        private final Double longitude;
+        private final String status;
+
+        Outcome(long bookingId, Double latitude, Double longitude, String status) {
+            this.bookingId = bookingId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.status = status;
+        }
+    }
+}
@@ -2,17 +2,12 @@ package com.instafit.core.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import javax.net.ssl.*;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.X509Certificate;
 import java.util.*;
 
 @Service
@@ -23,43 +18,36 @@ public class GoogleMapsService {
     @Value("${google.maps.api.key:}")
     private String apiKey;
 
-    private RestTemplate createTrustAllRestTemplate() {
-        try {
-            // Create a trust manager that accepts all certificates
-            TrustManager[] trustAllCerts = new TrustManager[]{
-                    new X509TrustManager() {
-                        public X509Certificate[] getAcceptedIssuers() {
-                            return null;
-                        }
-                        public void checkClientTrusted(X509Certificate[] certs, String authType) {
-                        }
-                        public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                        }
-                    }
-            };
-
-            // Install the all-trusting trust manager
-            SSLContext sslContext = SSLContext.getInstance("TLS");
-            sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-
-            // Create an ssl socket factory with our all-trusting manager
-            SSLSocketFactory sslSocketFactory = sslContext.getSocketFactory();
-
-            // Configure HttpsURLConnection to use this
-            HttpsURLConnection.setDefaultSSLSocketFactory(sslSocketFactory);
-            HttpsURLConnection.setDefaultHostnameVerifier((hostname, session) -> true);
-
-            return new RestTemplate();
-        } catch (NoSuchAlgorithmException | KeyManagementException e) {
-            logger.error("Failed to create SSL trust-all context", e);
-            return new RestTemplate();
-        }
-    }
+    @Autowired
+    private GeocodeCacheService geocodeCacheService;
+
+    @Autowired
+    private PincodeCentroidIndex pincodeCentroidIndex;
+
+    @Autowired
+    private MapsRateLimiter mapsRateLimiter;
+
+    @Autowired
+    private MapsHttpClient mapsHttpClient;
 
     /**
      * Geocode an address to get latitude and longitude
+     * Served from the geocode cache when the normalized address was resolved before
      */
     public Map<String, Object> geocodeAddress(String address) {
+        String cacheKey = geocodeCacheService.addressKey(address);
+        Optional<Map<String, Object>> cached = geocodeCacheService.get(cacheKey);
+        if (cached.isPresent()) {
+            logger.debug("Geocode cache hit: {}", address);
+            return cached.get();
+        }
+
+        Map<String, Object> result = requestGeocode(address);
+        geocodeCacheService.put(cacheKey, "ADDRESS", result);
+        return result;
+    }
+
+    private Map<String, Object> requestGeocode(String address) {
         Map<String, Object> result = new HashMap<>();
 
         if (apiKey == null || apiKey.isEmpty()) {
@@ -77,10 +65,9 @@ public class GoogleMapsService {
                     .toUriString();
 
             logger.info("Geocoding address: {}", address);
+            mapsRateLimiter.acquire();
 
-            // Use the trust-all REST template
-            RestTemplate restTemplate = createTrustAllRestTemplate();
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<Map> response = mapsHttpClient.getRestTemplate().getForEntity(url, Map.class);
             Map<String, Object> responseBody = response.getBody();
 
             if (responseBody != null && "OK".equals(responseBody.get("status"))) {
@@ -108,6 +95,10 @@ public class GoogleMapsService {
                 result.put("success", false);
                 result.put("message", "Geocoding failed: " + status);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.put("success", false);
+            result.put("message", "Geocoding interrupted");
         } catch (Exception e) {
             logger.error("Error geocoding address: " + address, e);
             result.put("success", false);
@@ -119,13 +110,30 @@ public class GoogleMapsService {
 
     /**
      * Geocode a pincode to get latitude and longitude
+     * Uses the uploaded pincode centroid when one exists, so no network call is made
      */
     public Map<String, Object> geocodePincode(String pincode, String country) {
         if (country == null || country.isEmpty()) {
             country = "India";
         }
+        if ("India".equalsIgnoreCase(country)) {
+            Map<String, Object> centroid = pincodeCentroidIndex.resolve(pincode);
+            if (centroid != null) {
+                return centroid;
+            }
+        }
+
+        String cacheKey = geocodeCacheService.pincodeKey(pincode, country);
+        Optional<Map<String, Object>> cached = geocodeCacheService.get(cacheKey);
+        if (cached.isPresent()) {
+            logger.debug("Geocode cache hit for pincode: {}", pincode);
+            return cached.get();
+        }
+
         String address = pincode + ", " + country;
-        return geocodeAddress(address);
+        Map<String, Object> result = requestGeocode(address);
+        geocodeCacheService.put(cacheKey, "PINCODE", result);
+        return result;
     }
 
     /**
@@ -165,10 +173,9 @@ public class GoogleMapsService {
                     .toUriString();
 
             logger.info("Optimizing route with {} waypoints", waypoints.size());
+            mapsRateLimiter.acquire();
 
-            // Use the trust-all REST template
-            RestTemplate restTemplate = createTrustAllRestTemplate();
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<Map> response = mapsHttpClient.getRestTemplate().getForEntity(url, Map.class);
             Map<String, Object> responseBody = response.getBody();
 
             if (responseBody != null && "OK".equals(responseBody.get("status"))) {
@@ -187,6 +194,10 @@ public class GoogleMapsService {
                 result.put("success", false);
                 result.put("message", "Route optimization failed: " + status);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.put("success", false);
+            result.put("message", "Route optimization interrupted");
         } catch (Exception e) {
             logger.error("Error optimizing route", e);
             result.put("success", false);
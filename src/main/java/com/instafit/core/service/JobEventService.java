@@ -0,0 +1,233 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Job Event Service
+ * Server-sent change feed for the job monitoring board. Assignment, status and
+ * reassignment changes are published as small job deltas once their transaction
+ * commits. Each event has an increasing id and the most recent events are kept
+ * in a ring buffer, so a reconnecting client (Last-Event-ID) gets what it missed;
+ * a client too far behind is told to reload its snapshot.
+ * All buffering and sending runs on one dispatcher thread, which keeps events in
+ * order per client without locking the publishing request threads.
+ * The feed lives in this JVM and only sees changes made through it: the application is
+ * deployed as a single node. A second node would need the events relayed between them
+ * (e.g. PostgreSQL LISTEN/NOTIFY) before its clients could rely on the feed.
+ */
+@Service
+public class JobEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobEventService.class);
+
+    public static final String ASSIGNED = "ASSIGNED";
+    public static final String REASSIGNED = "REASSIGNED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String ROUTE_UPDATED = "ROUTE_UPDATED";
+
+    @Value("${app.job-events.buffer-size:5000}")
+    private int bufferSize;
+
+    @Value("${app.job-events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    // Seeded from the clock so ids keep increasing across restarts
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final long firstEventId = sequence.get() + 1;
+    private final Deque<JobEvent> buffer = new ArrayDeque<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        for (SseEmitter emitter : emitters) {
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Id of the latest event; a snapshot taken now is current up to this id
+     */
+    public long currentEventId() {
+        return sequence.get();
+    }
+
+    /**
+     * Publish changes to bookings once the surrounding transaction commits (immediately if none).
+     * The job state is captured now; previousStatus is the assignment status before the change,
+     * or null when it did not change.
+     */
+    public void publishAfterCommit(String type, Collection<Booking> bookings, String previousStatus) {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (Booking booking : bookings) {
+            jobs.add(toJob(booking));
+        }
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(type, jobs, previousStatus);
+                }
+            });
+        } else {
+            dispatch(type, jobs, previousStatus);
+        }
+    }
+
+    public void publishAfterCommit(String type, Booking booking, String previousStatus) {
+        publishAfterCommit(type, Collections.singletonList(booking), previousStatus);
+    }
+
+    /**
+     * Open a stream; events after lastEventId are replayed first
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        dispatcher.execute(() -> {
+            if (lastEventId != null) {
+                JobEvent oldest = buffer.peekFirst();
+                long oldestKept = oldest != null ? oldest.id : sequence.get() + 1;
+                if (lastEventId < firstEventId - 1 || lastEventId < oldestKept - 1) {
+                    // Missed events from before a restart or more than the buffer holds
+                    send(emitter, SseEmitter.event().name("reset").data(Collections.singletonMap("reason", "too far behind")));
+                } else {
+                    for (JobEvent event : buffer) {
+                        if (event.id > lastEventId && !send(emitter, event.toSse())) {
+                            return;
+                        }
+                    }
+                }
+            }
+            emitters.add(emitter);
+        });
+        return emitter;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", emitters.size());
+        stats.put("lastEventId", sequence.get());
+        stats.put("bufferSize", bufferSize);
+        return stats;
+    }
+
+    /**
+     * Comment line every 25 s so proxies do not close idle streams
+     */
+    @Scheduled(fixedDelay = 25000)
+    public void heartbeat() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void dispatch(String type, List<Map<String, Object>> jobs, String previousStatus) {
+        dispatcher.execute(() -> {
+            for (Map<String, Object> job : jobs) {
+                JobEvent event = new JobEvent(sequence.incrementAndGet(), type, job, previousStatus);
+                buffer.addLast(event);
+                while (buffer.size() > bufferSize) {
+                    buffer.removeFirst();
+                }
+                for (SseEmitter emitter : emitters) {
+                    send(emitter, event.toSse());
+                }
+            }
+        });
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (Exception e) {
+            // Client went away
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+            logger.debug("Dropped job event subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // The fields the job board renders
+    private Map<String, Object> toJob(Booking booking) {
+        Map<String, Object> job = new HashMap<>();
+        job.put("id", booking.getId());
+        job.put("orderNo", booking.getOrderNo());
+        job.put("customerName", booking.getCustomerName());
+        job.put("customerMobile", booking.getCustomerMobile());
+        job.put("serviceName", booking.getServiceName());
+        job.put("address", booking.getAddress());
+        job.put("notes", booking.getNotes());
+        job.put("carpenterId", booking.getCarpenterId());
+        job.put("carpenterName", booking.getCarpenterName());
+        job.put("assignedDate", booking.getAssignedDate() != null ? booking.getAssignedDate().toString() : null);
+        job.put("assignmentStatus", booking.getAssignmentStatus());
+        job.put("routeOrder", booking.getRouteOrder());
+        return job;
+    }
+
+    private static final class JobEvent {
+        private final long id;
+        private final String type;
+        private final Map<String, Object> job;
+        private final String previousStatus;
+        private final long timestamp = System.currentTimeMillis();
+
+        JobEvent(long id, String type, Map<String, Object> job, String previousStatus) {
+            this.id = id;
+            this.type = type;
+            this.job = job;
+            this.previousStatus = previousStatus;
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            Map<String, Object> data = new HashMap<>();
+            data.put("eventId", id);
+            data.put("type", type);
+            data.put("job", job);
+            data.put("previousStatus", previousStatus);
+            data.put("timestamp", timestamp);
+            return SseEmitter.event().id(String.valueOf(id)).data(data);
+        }
+    }
+}
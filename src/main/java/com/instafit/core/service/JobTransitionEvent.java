@@ -0,0 +1,58 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.Booking;
+
+import java.time.LocalDate;
+
+/**
+ * Job Transition Event
+ * A booking moved from one (carpenter, assigned date, assignment status) slot to another.
+ * Either side is empty when the booking had no carpenter or assigned date.
+ */
+public class JobTransitionEvent {
+
+    private final String fromCarpenterId;
+    private final LocalDate fromDate;
+    private final String fromStatus;
+    private final String toCarpenterId;
+    private final LocalDate toDate;
+    private final String toStatus;
+
+    public JobTransitionEvent(String fromCarpenterId, LocalDate fromDate, String fromStatus,
+                              String toCarpenterId, LocalDate toDate, String toStatus) {
+        this.fromCarpenterId = fromCarpenterId;
+        this.fromDate = fromDate;
+        this.fromStatus = fromStatus;
+        this.toCarpenterId = toCarpenterId;
+        this.toDate = toDate;
+        this.toStatus = toStatus;
+    }
+
+    /**
+     * Transition from the given earlier slot to the booking's current one
+     */
+    public static JobTransitionEvent of(String fromCarpenterId, LocalDate fromDate, String fromStatus, Booking booking) {
+        return new JobTransitionEvent(fromCarpenterId, fromDate, fromStatus,
+                booking.getCarpenterId(), booking.getAssignedDate(), booking.getAssignmentStatus());
+    }
+
+    public boolean hasFrom() {
+        return fromCarpenterId != null && fromDate != null && fromStatus != null;
+    }
+
+    public boolean hasTo() {
+        return toCarpenterId != null && toDate != null && toStatus != null;
+    }
+
+    public String getFromCarpenterId() { return fromCarpenterId; }
+
+    public LocalDate getFromDate() { return fromDate; }
+
+    public String getFromStatus() { return fromStatus; }
+
+    public String getToCarpenterId() { return toCarpenterId; }
+
+    public LocalDate getToDate() { return toDate; }
+
+    public String getToStatus() { return toStatus; }
+}
@@ -0,0 +1,148 @@
+package com.instafit.core.service;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps HTTP Client
+ * One pooled, keep-alive HTTP client shared by every Google Maps call,
+ * built once at startup instead of per request
+ */
+@Component
+public class MapsHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapsHttpClient.class);
+
+    @Value("${app.maps.http.max-total:50}")
+    private int maxTotal;
+
+    @Value("${app.maps.http.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${app.maps.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.maps.http.read-timeout-ms:10000}")
+    private int readTimeoutMs;
+
+    @Value("${app.maps.http.pool-timeout-ms:2000}")
+    private int poolTimeoutMs;
+
+    @Value("${app.maps.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Value("${app.maps.http.compression:true}")
+    private boolean compression;
+
+    // Same certificate handling the per-call client had, without touching JVM-wide defaults
+    @Value("${app.maps.http.trust-all:true}")
+    private boolean trustAll;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+
+    @PostConstruct
+    public void init() throws Exception {
+        SSLConnectionSocketFactory sslSocketFactory = trustAll
+                ? new SSLConnectionSocketFactory(trustAllContext(), NoopHostnameVerifier.INSTANCE)
+                : SSLConnectionSocketFactory.getSocketFactory();
+
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+
+        connectionManager = new PoolingHttpClientConnectionManager(registry);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .setConnectionRequestTimeout(poolTimeoutMs)
+                .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // Honour the server's Keep-Alive header, otherwise reuse for keepAliveMs
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? serverKeepAlive : keepAliveMs;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS);
+
+        if (!compression) {
+            builder.disableContentCompression();
+        }
+
+        httpClient = builder.build();
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+
+        logger.info("Maps HTTP client ready: maxTotal={}, maxPerRoute={}, connectTimeout={}ms, readTimeout={}ms, gzip={}",
+                maxTotal, maxPerRoute, connectTimeoutMs, readTimeoutMs, compression);
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.warn("Error closing Maps HTTP client: {}", e.getMessage());
+        }
+    }
+
+    public RestTemplate getRestTemplate() {
+        return restTemplate;
+    }
+
+    /**
+     * Connection pool usage: leased, idle (available), waiting (pending) and limits
+     */
+    public Map<String, Object> getPoolStats() {
+        PoolStats total = connectionManager.getTotalStats();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("leased", total.getLeased());
+        stats.put("available", total.getAvailable());
+        stats.put("pending", total.getPending());
+        stats.put("max", total.getMax());
+        stats.put("maxPerRoute", maxPerRoute);
+        stats.put("routes", connectionManager.getRoutes().size());
+        return stats;
+    }
+
+    private SSLContext trustAllContext() throws Exception {
+        return SSLContexts.custom()
+                .loadTrustMaterial(null, (chain, authType) -> true)
+                .build();
+    }
+}
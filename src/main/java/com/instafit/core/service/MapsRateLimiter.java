@@ -0,0 +1,42 @@
+package com.instafit.core.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps Rate Limiter
+ * Spaces outbound Google Maps requests evenly to stay under the per-second quota,
+ * shared by every caller (request threads and geocoding workers alike)
+ */
+@Component
+public class MapsRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeSlot = System.nanoTime();
+
+    public MapsRateLimiter(@Value("${app.geocoding.rate-per-second:20}") int ratePerSecond) {
+        this.intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+    }
+
+    /**
+     * Block until the next request slot is free
+     */
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextFreeSlot, now);
+            nextFreeSlot = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
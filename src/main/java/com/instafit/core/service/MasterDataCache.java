@@ -0,0 +1,270 @@
+package com.instafit.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.instafit.core.entity.*;
+import com.instafit.core.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Master Data Cache
+ * Read-mostly copy of cities, branches, pincodes, items and fit types, loaded in full at
+ * startup. Each table is an immutable snapshot (sorted list, by-code map and the active
+ * list pre-serialized to JSON with its ETag) that is rebuilt and swapped after every
+ * committed write, so readers never lock. Writes made through another instance are picked
+ * up by the periodic full refresh. Listed entities are shared: do not modify them; the
+ * single-row lookups return copies.
+ */
+@Service
+public class MasterDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MasterDataCache.class);
+
+    public enum Table { CITIES, BRANCHES, PINCODES, ITEMS, FIT_TYPES }
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private PincodeRepository pincodeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private FitTypeRepository fitTypeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Copy-on-write: replaced as a whole, never modified in place
+    private volatile Map<Table, Snapshot<?>> snapshots = new EnumMap<>(Table.class);
+
+    // Before the other loaders, which may read master data
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        for (Table table : Table.values()) {
+            try {
+                refresh(table);
+            } catch (Exception e) {
+                logger.warn("Master data cache for {} not loaded: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reload every table, so writes made through other instances are seen within the interval
+     */
+    @Scheduled(initialDelayString = "${app.master-data.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.master-data.refresh-interval-ms:300000}")
+    public void refreshAll() {
+        for (Table table : Table.values()) {
+            try {
+                refresh(table);
+            } catch (Exception e) {
+                logger.warn("Master data cache refresh of {} failed, keeping the loaded copy: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reload one table from the database and swap it in.
+     * Serialized, so a slow reload can never overwrite a newer one.
+     */
+    public synchronized void refresh(Table table) {
+        long start = System.currentTimeMillis();
+        Snapshot<?> snapshot;
+        switch (table) {
+            case CITIES:
+                snapshot = build(cityRepository::findAllByOrderByCityCodeAsc, City::getCityCode, City::getActive);
+                break;
+            case BRANCHES:
+                snapshot = build(branchRepository::findAllByOrderByBranchCodeAsc, Branch::getBranchCode, Branch::getActive);
+                break;
+            case PINCODES:
+                snapshot = build(pincodeRepository::findAllByOrderByPincodeAsc, Pincode::getPincode, Pincode::getActive);
+                break;
+            case ITEMS:
+                snapshot = build(itemRepository::findAllByOrderByItemCodeAsc, Item::getItemCode, Item::getActive);
+                break;
+            default:
+                snapshot = build(fitTypeRepository::findAllByOrderByFitTypeCodeAsc, FitType::getFitTypeCode, FitType::getActive);
+                break;
+        }
+
+        Map<Table, Snapshot<?>> next = new EnumMap<>(Table.class);
+        next.putAll(snapshots);
+        next.put(table, snapshot);
+        snapshots = next;
+        logger.info("Master data cache loaded {}: {} rows in {} ms",
+                table, snapshot.all.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Refresh once the current transaction commits (immediately if there is none)
+     */
+    public void refreshAfterCommit(Table table) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(table);
+                }
+            });
+        } else {
+            refresh(table);
+        }
+    }
+
+    public List<City> getCities() { return this.<City>snapshot(Table.CITIES).all; }
+
+    public List<City> getActiveCities() { return this.<City>snapshot(Table.CITIES).active; }
+
+    /**
+     * Copy of the cached city, safe for the caller to modify
+     */
+    public Optional<City> findCity(String cityCode) {
+        return this.<City>snapshot(Table.CITIES).find(cityCode).map(MasterDataCache::copy);
+    }
+
+    public boolean cityExists(String cityCode) { return this.<City>snapshot(Table.CITIES).find(cityCode).isPresent(); }
+
+    public List<Branch> getBranches() { return this.<Branch>snapshot(Table.BRANCHES).all; }
+
+    public List<Branch> getActiveBranches() { return this.<Branch>snapshot(Table.BRANCHES).active; }
+
+    /**
+     * Copy of the cached branch, safe for the caller to modify
+     */
+    public Optional<Branch> findBranch(String branchCode) {
+        return this.<Branch>snapshot(Table.BRANCHES).find(branchCode).map(MasterDataCache::copy);
+    }
+
+    public List<Pincode> getPincodes() { return this.<Pincode>snapshot(Table.PINCODES).all; }
+
+    public List<Pincode> getActivePincodes() { return this.<Pincode>snapshot(Table.PINCODES).active; }
+
+    public List<Item> getItems() { return this.<Item>snapshot(Table.ITEMS).all; }
+
+    public List<Item> getActiveItems() { return this.<Item>snapshot(Table.ITEMS).active; }
+
+    public List<FitType> getFitTypes() { return this.<FitType>snapshot(Table.FIT_TYPES).all; }
+
+    public List<FitType> getActiveFitTypes() { return this.<FitType>snapshot(Table.FIT_TYPES).active; }
+
+    /**
+     * The table's active rows as pre-serialized JSON; 304 when the client's ETag still matches
+     */
+    public ResponseEntity<byte[]> activeJsonResponse(Table table, WebRequest request) {
+        Snapshot<?> snapshot = snapshot(table);
+        if (request.checkNotModified(snapshot.etag)) {
+            return ResponseEntity.status(304).eTag(snapshot.etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.activeJson);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Snapshot<T> snapshot(Table table) {
+        Snapshot<?> snapshot = snapshots.get(table);
+        if (snapshot == null) {
+            // Not loaded at startup (e.g. the database was down): load on first use
+            refresh(table);
+            snapshot = snapshots.get(table);
+        }
+        return (Snapshot<T>) snapshot;
+    }
+
+    private <T> Snapshot<T> build(Supplier<List<T>> loader, Function<T, String> code, Function<T, Boolean> active) {
+        List<T> all = loader.get();
+        Map<String, T> byCode = new HashMap<>(all.size() * 2);
+        List<T> activeRows = new ArrayList<>();
+        for (T row : all) {
+            byCode.put(code.apply(row), row);
+            if (Boolean.TRUE.equals(active.apply(row))) {
+                activeRows.add(row);
+            }
+        }
+
+        byte[] json;
+        try {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+            json = writer.writeValueAsBytes(activeRows);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize master data: " + e.getMessage(), e);
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+
+        return new Snapshot<>(Collections.unmodifiableList(all), Collections.unmodifiableMap(byCode),
+                Collections.unmodifiableList(activeRows), json, etag);
+    }
+
+    private static City copy(City city) {
+        City copy = new City(city.getCityCode(), city.getCityDesc());
+        copy.setId(city.getId());
+        copy.setActive(city.getActive());
+        copy.setCreatedBy(city.getCreatedBy());
+        copy.setUpdatedBy(city.getUpdatedBy());
+        copy.setCreatedAt(city.getCreatedAt());
+        copy.setUpdatedAt(city.getUpdatedAt());
+        return copy;
+    }
+
+    private static Branch copy(Branch branch) {
+        Branch copy = new Branch(branch.getBranchCode(), branch.getBranchDesc(), branch.getCityCodes());
+        copy.setId(branch.getId());
+        copy.setActive(branch.getActive());
+        copy.setCreatedBy(branch.getCreatedBy());
+        copy.setUpdatedBy(branch.getUpdatedBy());
+        copy.setCreatedAt(branch.getCreatedAt());
+        copy.setUpdatedAt(branch.getUpdatedAt());
+        return copy;
+    }
+
+    private static final class Snapshot<T> {
+        private final List<T> all;
+        private final Map<String, T> byCode;
+        private final List<T> active;
+        private final byte[] activeJson;
+        private final String etag;
+
+        Snapshot(List<T> all, Map<String, T> byCode, List<T> active, byte[] activeJson, String etag) {
+            this.all = all;
+            this.byCode = byCode;
+            this.active = active;
+            this.activeJson = activeJson;
+            this.etag = etag;
+        }
+
+        Optional<T> find(String code) {
+            return code == null ? Optional.empty() : Optional.ofNullable(byCode.get(code));
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.ImportReport;
+import com.instafit.core.entity.City;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Master Data Import Service
+ * Shared CSV/Excel import for pincodes, cities, branches, items and fit types.
+ * Referenced master data is loaded once, rows streamed from SpreadsheetReader are
+ * validated in memory, and valid rows are written in large JDBC batches whose
+ * INSERT ... ON CONFLICT reports per row whether it was new. Every rejected row is
+ * listed in the returned report.
+ */
+@Service
+public class MasterDataImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MasterDataImportService.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MasterDataCache masterDataCache;
+
+    @Value("${app.import.max-rows:100000}")
+    private int maxRows;
+
+    @Value("${app.import.max-file-size-mb:10}")
+    private long maxFileSizeMb;
+
+    /**
+     * Import a CSV or Excel file whose first row is a header.
+     * Rows are validated and written batch by batch as they are read.
+     */
+    public ImportReport importFile(MultipartFile file, Definition definition, String username) throws IOException {
+        long start = System.currentTimeMillis();
+        String filename = file.getOriginalFilename();
+        if (file.getSize() > maxFileSizeMb * 1024 * 1024) {
+            throw new IllegalArgumentException("File is larger than " + maxFileSizeMb + " MB");
+        }
+
+        ImportRun run = new ImportRun(definition, new ReferenceData(loadCities()), username);
+        if (filename != null && filename.toLowerCase().endsWith(".csv")) {
+            logger.info("Detected CSV file: {}", filename);
+            SpreadsheetReader.readCsv(file.getInputStream(), run::row);
+        } else {
+            logger.info("Detected Excel file: {}", filename);
+            // The event reader works from a file, not a fully buffered stream
+            File workbook = File.createTempFile("master-import-", ".xlsx");
+            try {
+                file.transferTo(workbook);
+                SpreadsheetReader.readXlsx(workbook, run::row);
+            } finally {
+                Files.deleteIfExists(workbook.toPath());
+            }
+        }
+        run.flush();
+
+        ImportReport report = run.report;
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        logger.info("{} from {} in {} ms", report.getSummary(), filename, report.getDurationMillis());
+        return report;
+    }
+
+    private Map<String, String> loadCities() {
+        Map<String, String> cities = new HashMap<>();
+        for (City city : masterDataCache.getCities()) {
+            cities.put(city.getCityCode(), city.getCityDesc());
+        }
+        return cities;
+    }
+
+    /**
+     * State of one import: validates each row as it arrives and writes a batch whenever one fills up
+     */
+    private final class ImportRun {
+        private final Definition definition;
+        private final ReferenceData reference;
+        private final String username;
+        private final ImportReport report;
+        private final Map<Object, Integer> seen = new HashMap<>();
+        private final List<Integer> rowNumbers = new ArrayList<>();
+        private final List<Object[]> values = new ArrayList<>();
+
+        ImportRun(Definition definition, ReferenceData reference, String username) {
+            this.definition = definition;
+            this.reference = reference;
+            this.username = username;
+            this.report = new ImportReport(definition.entityName);
+        }
+
+        boolean row(int rowNumber, String[] cells) {
+            // Header
+            if (rowNumber == 1) {
+                return true;
+            }
+            if (report.getTotalRows() >= maxRows) {
+                report.fail(rowNumber, "File has more than " + maxRows + " rows; this row and the rest were not read");
+                return false;
+            }
+            report.setTotalRows(report.getTotalRows() + 1);
+
+            Object[] params;
+            try {
+                params = definition.toRow(cells, reference, username);
+            } catch (IllegalArgumentException e) {
+                report.fail(rowNumber, e.getMessage());
+                return true;
+            }
+
+            Integer firstRow = seen.putIfAbsent(params[0], rowNumber);
+            if (firstRow != null) {
+                report.skip(rowNumber, "Duplicate of row " + firstRow + ": " + params[0]);
+                return true;
+            }
+
+            rowNumbers.add(rowNumber);
+            values.add(params);
+            if (values.size() >= BATCH_SIZE) {
+                flush();
+            }
+            return true;
+        }
+
+        /**
+         * Write the pending rows in one batch; it commits on its own, so a bad batch does not undo the rest
+         */
+        void flush() {
+            if (values.isEmpty()) {
+                return;
+            }
+            write(0, values.size());
+            rowNumbers.clear();
+            values.clear();
+        }
+
+        /**
+         * Write rows [from, to) in one transaction. A failed batch is split in halves and retried,
+         * so only the rows that fail on their own are reported
+         */
+        private void write(int from, int to) {
+            List<Object[]> rows = values.subList(from, to);
+            try {
+                int[] counts = transactionTemplate.execute(status -> {
+                    List<Object[]> bound = new ArrayList<>(rows.size());
+                    for (Object[] row : rows) {
+                        bound.add(definition.bind(row));
+                    }
+                    int[] result = jdbcTemplate.batchUpdate(definition.sql, bound, definition.argTypes);
+
+                    List<Object[]> inserted = new ArrayList<>();
+                    for (int i = 0; i < result.length; i++) {
+                        if (result[i] != 0) {
+                            inserted.add(rows.get(i));
+                        }
+                    }
+                    if (!inserted.isEmpty()) {
+                        definition.afterInsert(jdbcTemplate, inserted);
+                    }
+                    return result;
+                });
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        report.skip(rowNumbers.get(from + i), definition.existsMessage(rows.get(i)));
+                    } else {
+                        report.setImported(report.getImported() + 1);
+                    }
+                }
+            } catch (Exception e) {
+                if (to - from == 1) {
+                    logger.warn("{} import row {} failed: {}", definition.entityName, rowNumbers.get(from), rootMessage(e));
+                    report.fail(rowNumbers.get(from), "Not saved: " + rootMessage(e));
+                    return;
+                }
+                logger.warn("{} import batch of {} rows failed, retrying in halves: {}",
+                        definition.entityName, to - from, rootMessage(e));
+                int middle = (from + to) >>> 1;
+                write(from, middle);
+                write(middle, to);
+            }
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    /**
+     * Master data the rows may refer to, loaded once per import
+     */
+    public static final class ReferenceData {
+        private final Map<String, String> cityDescs;
+
+        ReferenceData(Map<String, String> cityDescs) {
+            this.cityDescs = cityDescs;
+        }
+
+        public boolean hasCity(String cityCode) {
+            return cityDescs.containsKey(cityCode);
+        }
+
+        public String cityDesc(String cityCode) {
+            return cityDescs.get(cityCode);
+        }
+    }
+
+    /**
+     * How one master-data type is imported: the batched upsert and the row validation.
+     * The first bind value is the natural key; a row whose upsert changes nothing already existed.
+     * Values after the bound ones are not sent with the upsert but are passed on to afterInsert.
+     */
+    public abstract static class Definition {
+        private final String entityName;
+        private final String keyLabel;
+        private final String sql;
+        private final int[] argTypes;
+
+        protected Definition(String entityName, String keyLabel, String sql, int... argTypes) {
+            this.entityName = entityName;
+            this.keyLabel = keyLabel;
+            this.sql = sql;
+            this.argTypes = argTypes;
+        }
+
+        /**
+         * Bind values for one row; throw IllegalArgumentException with the reason to reject it
+         */
+        protected abstract Object[] toRow(String[] cells, ReferenceData reference, String username);
+
+        /**
+         * Code + description tables (cities, items, fit types): code upper-cased, insert only
+         */
+        public static Definition codeAndDescription(String entityName, String label, String table,
+                                                    String codeColumn, String descColumn) {
+            String sql = "INSERT INTO " + table + " (" + codeColumn + ", " + descColumn + ", active, " +
+                    "created_by, updated_by, created_at, updated_at) VALUES (?, ?, true, ?, ?, now(), now()) " +
+                    "ON CONFLICT (" + codeColumn + ") DO NOTHING";
+            return new Definition(entityName, label + " code", sql,
+                    Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR) {
+                @Override
+                protected Object[] toRow(String[] cells, ReferenceData reference, String username) {
+                    String code = required(cells, 0, label + " code", 20).toUpperCase();
+                    String desc = required(cells, 1, label + " description", 200);
+                    return new Object[]{code, desc, username, username};
+                }
+            };
+        }
+
+        /**
+         * Write rows that depend on the batch's newly inserted rows, in the same transaction
+         */
+        protected void afterInsert(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        }
+
+        private Object[] bind(Object[] row) {
+            return row.length == argTypes.length ? row : Arrays.copyOf(row, argTypes.length);
+        }
+
+        protected String existsMessage(Object[] row) {
+            return keyLabel + " already exists: " + row[0];
+        }
+
+        protected static String required(String[] cells, int index, String label, int maxLength) {
+            String value = optional(cells, index, label, maxLength);
+            if (value == null) {
+                throw new IllegalArgumentException(label + " is empty");
+            }
+            return value;
+        }
+
+        protected static String optional(String[] cells, int index, String label, int maxLength) {
+            if (index >= cells.length || cells[index] == null || cells[index].trim().isEmpty()) {
+                return null;
+            }
+            String value = cells[index].trim();
+            if (value.length() > maxLength) {
+                throw new IllegalArgumentException(label + " is longer than " + maxLength + " characters");
+            }
+            return value;
+        }
+    }
+}
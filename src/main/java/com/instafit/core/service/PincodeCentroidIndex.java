@@ -0,0 +1,169 @@
+package com.instafit.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pincode Centroid Index
+ * In-memory lookup of pincode centroids from the pincodes table, held as
+ * sorted primitive arrays so a lookup is a binary search with no boxing.
+ * The snapshot is swapped atomically on refresh; readers never lock.
+ */
+@Service
+public class PincodeCentroidIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PincodeCentroidIndex.class);
+
+    private static final String LOAD_SQL =
+            "SELECT pincode, latitude, longitude FROM pincodes " +
+            "WHERE latitude IS NOT NULL AND longitude IS NOT NULL ORDER BY pincode";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot = new Snapshot(new int[0], new double[0], new double[0]);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("Pincode centroid index not loaded: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload centroids from the pincodes table
+     */
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        Snapshot.Builder builder = new Snapshot.Builder();
+
+        // pincode strings are all 6 digits, so ORDER BY pincode is numeric order
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            int code = parseCode(rs.getString(1));
+            if (code >= 0) {
+                builder.add(code, rs.getDouble(2), rs.getDouble(3));
+            }
+        });
+
+        snapshot = builder.build();
+        logger.info("Pincode centroid index loaded: {} pincodes in {} ms",
+                snapshot.size, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Refresh once the current transaction commits (immediately if there is none)
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Geocode a pincode from its centroid.
+     * Returns the geocodeAddress result shape, or null when the pincode has no centroid
+     */
+    public Map<String, Object> resolve(String pincode) {
+        int code = parseCode(pincode);
+        if (code < 0) {
+            return null;
+        }
+
+        Snapshot current = snapshot;
+        int index = Arrays.binarySearch(current.codes, code);
+        if (index < 0) {
+            return null;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("latitude", current.latitudes[index]);
+        result.put("longitude", current.longitudes[index]);
+        result.put("formattedAddress", pincode.trim() + ", India");
+        result.put("source", "PINCODE_CENTROID");
+        return result;
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    // 6-digit Indian pincode as an int, or -1
+    private int parseCode(String pincode) {
+        if (pincode == null) {
+            return -1;
+        }
+        String value = pincode.trim();
+        if (value.length() != 6) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            code = code * 10 + (c - '0');
+        }
+        return code;
+    }
+
+    private static final class Snapshot {
+        private final int[] codes;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final int size;
+
+        Snapshot(int[] codes, double[] latitudes, double[] longitudes) {
+            this.codes = codes;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.size = codes.length;
+        }
+
+        private static final class Builder {
+            private int[] codes = new int[1024];
+            private double[] latitudes = new double[1024];
+            private double[] longitudes = new double[1024];
+            private int size;
+
+            void add(int code, double latitude, double longitude) {
+                if (size == codes.length) {
+                    codes = Arrays.copyOf(codes, size * 2);
+                    latitudes = Arrays.copyOf(latitudes, size * 2);
+                    longitudes = Arrays.copyOf(longitudes, size * 2);
+                }
+                codes[size] = code;
+                latitudes[size] = latitude;
+                longitudes[size] = longitude;
+                size++;
+            }
+
+            Snapshot build() {
+                return new Snapshot(Arrays.copyOf(codes, size),
+                        Arrays.copyOf(latitudes, size),
+                        Arrays.copyOf(longitudes, size));
+            }
+        }
+    }
+}
@@ -1,24 +1,18 @@
 package com.instafit.core.service;
 
+import com.instafit.core.dto.ImportReport;
 import com.instafit.core.entity.City;
 import com.instafit.core.entity.Pincode;
-import com.instafit.core.repository.CityRepository;
 import com.instafit.core.repository.PincodeRepository;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.sql.Types;
 import java.util.List;
 
 @Service
@@ -26,20 +20,53 @@ public class PincodeService {
 
     private static final Logger logger = LoggerFactory.getLogger(PincodeService.class);
 
+    // Re-uploading a known pincode with coordinates loads its centroid; without them it is left alone
+    private static final MasterDataImportService.Definition IMPORT = new MasterDataImportService.Definition(
+            "pincodes", "Pincode",
+            "INSERT INTO pincodes (pincode, city_code, city_desc, area, latitude, longitude, active, " +
+            "created_by, updated_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, true, ?, ?, now(), now()) " +
+            "ON CONFLICT (pincode) DO UPDATE SET latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude, " +
+            "updated_by = EXCLUDED.updated_by, updated_at = now() WHERE EXCLUDED.latitude IS NOT NULL",
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.DOUBLE,
+            Types.VARCHAR, Types.VARCHAR) {
+        @Override
+        protected Object[] toRow(String[] cells, MasterDataImportService.ReferenceData reference, String username) {
+            String pincode = required(cells, 0, "Pincode", 10);
+            String cityCode = required(cells, 1, "City code", 20).toUpperCase();
+            String area = optional(cells, 2, "Area", 200);
+            if (!reference.hasCity(cityCode)) {
+                throw new IllegalArgumentException("Invalid city code: " + cityCode);
+            }
+
+            String latitude = cells.length > 3 ? cells[3] : null;
+            String longitude = cells.length > 4 ? cells[4] : null;
+            Double[] centroid = parseCentroid(latitude, longitude);
+            if (centroid == null) {
+                throw new IllegalArgumentException("Invalid latitude/longitude: " + latitude + ", " + longitude);
+            }
+            return new Object[]{pincode, cityCode, reference.cityDesc(cityCode), area,
+                    centroid[0], centroid[1], username, username};
+        }
+    };
+
     @Autowired
     private PincodeRepository pincodeRepository;
 
     @Autowired
-    private CityRepository cityRepository;
+    private PincodeCentroidIndex pincodeCentroidIndex;
+
+    @Autowired
+    private MasterDataImportService masterDataImportService;
+
+    @Autowired
+    private MasterDataCache masterDataCache;
 
-    @Transactional(readOnly = true)
     public List<Pincode> getAllPincodes() {
-        return pincodeRepository.findAllByOrderByPincodeAsc();
+        return masterDataCache.getPincodes();
     }
 
-    @Transactional(readOnly = true)
     public List<Pincode> getActivePincodes() {
-        return pincodeRepository.findByActive(true);
+        return masterDataCache.getActivePincodes();
     }
 
     @Transactional(readOnly = true)
@@ -53,14 +80,17 @@ public class PincodeService {
             throw new RuntimeException("Pincode already exists: " + pincode.getPincode());
         }
 
-        City city = cityRepository.findByCityCode(pincode.getCityCode())
+        City city = masterDataCache.findCity(pincode.getCityCode())
                 .orElseThrow(() -> new RuntimeException("Invalid city code: " + pincode.getCityCode()));
 
         pincode.setCityDesc(city.getCityDesc());
         pincode.setCreatedBy(username);
         pincode.setUpdatedBy(username);
 
-        return pincodeRepository.save(pincode);
+        Pincode saved = pincodeRepository.save(pincode);
+        pincodeCentroidIndex.refreshAfterCommit();
+        masterDataCache.refreshAfterCommit(MasterDataCache.Table.PINCODES);
+        return saved;
     }
 
     @Transactional
@@ -68,16 +98,21 @@ public class PincodeService {
         Pincode pincode = pincodeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pincode not found"));
 
-        City city = cityRepository.findByCityCode(updatedPincode.getCityCode())
+        City city = masterDataCache.findCity(updatedPincode.getCityCode())
                 .orElseThrow(() -> new RuntimeException("Invalid city code: " + updatedPincode.getCityCode()));
 
         pincode.setCityCode(updatedPincode.getCityCode());
         pincode.setCityDesc(city.getCityDesc());
         pincode.setArea(updatedPincode.getArea());
+        pincode.setLatitude(updatedPincode.getLatitude());
+        pincode.setLongitude(updatedPincode.getLongitude());
         pincode.setActive(updatedPincode.getActive());
         pincode.setUpdatedBy(username);
 
-        return pincodeRepository.save(pincode);
+        Pincode saved = pincodeRepository.save(pincode);
+        pincodeCentroidIndex.refreshAfterCommit();
+        masterDataCache.refreshAfterCommit(MasterDataCache.Table.PINCODES);
+        return saved;
     }
 
     @Transactional
@@ -88,249 +123,47 @@ public class PincodeService {
         pincode.setActive(!pincode.getActive());
         pincode.setUpdatedBy(username);
 
-        return pincodeRepository.save(pincode);
+        Pincode saved = pincodeRepository.save(pincode);
+        masterDataCache.refreshAfterCommit(MasterDataCache.Table.PINCODES);
+        return saved;
     }
 
     @Transactional
     public void deletePincode(Long id) {
         pincodeRepository.deleteById(id);
+        masterDataCache.refreshAfterCommit(MasterDataCache.Table.PINCODES);
+        pincodeCentroidIndex.refreshAfterCommit();
     }
 
-    public List<Pincode> uploadFromExcel(MultipartFile file, String username) throws IOException {
-        String filename = file.getOriginalFilename();
-
-        if (filename != null && filename.toLowerCase().endsWith(".csv")) {
-            logger.info("Detected CSV file: {}", filename);
-            return uploadFromCSV(file, username);
-        } else {
-            logger.info("Detected Excel file: {}", filename);
-            return uploadFromExcelFile(file, username);
-        }
+    public ImportReport uploadFromExcel(MultipartFile file, String username) throws IOException {
+        ImportReport report = masterDataImportService.importFile(file, IMPORT, username);
+        pincodeCentroidIndex.refresh();
+        masterDataCache.refresh(MasterDataCache.Table.PINCODES);
+        return report;
     }
 
-    private List<Pincode> uploadFromCSV(MultipartFile file, String username) throws IOException {
-        List<Pincode> pincodes = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
-        int totalLines = 0;
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-
-            String line;
-            int lineNumber = 0;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-
-                if (lineNumber == 1) {
-                    logger.debug("Skipping header: {}", line);
-                    continue;
-                }
-
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                totalLines++;
-                String[] parts = parseCsvLine(line);
-
-                if (parts.length < 2) {
-                    errors.add("Line " + lineNumber + ": Invalid format, expected at least 2 columns");
-                    continue;
-                }
-
-                try {
-                    String pincode = parts[0].trim();
-                    String cityCode = parts[1].trim();
-                    String area = parts.length > 2 ? parts[2].trim() : "";
-
-                    if (pincode.isEmpty()) {
-                        errors.add("Line " + lineNumber + ": Pincode is empty");
-                        continue;
-                    }
-
-                    if (cityCode.isEmpty()) {
-                        errors.add("Line " + lineNumber + ": City code is empty");
-                        continue;
-                    }
-
-                    // Validate city code
-                    City city = cityRepository.findByCityCode(cityCode.toUpperCase()).orElse(null);
-                    if (city == null) {
-                        errors.add("Line " + lineNumber + ": Invalid city code: " + cityCode);
-                        continue;
-                    }
-
-                    Pincode savedPincode = savePincodeInNewTransaction(
-                            pincode,
-                            cityCode.toUpperCase(),
-                            city.getCityDesc(),
-                            area.isEmpty() ? null : area,
-                            username
-                    );
-
-                    if (savedPincode != null) {
-                        pincodes.add(savedPincode);
-                        logger.debug("Successfully created pincode: {} - {} ({})", pincode, cityCode, area);
-                    } else {
-                        errors.add("Line " + lineNumber + ": Pincode already exists: " + pincode);
-                    }
-
-                } catch (Exception e) {
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
-                    logger.error("Error processing line {}: {}", lineNumber, line, e);
-                }
-            }
+    /**
+     * Optional centroid columns: both blank gives {null, null}, invalid or half-filled gives null
+     */
+    private static Double[] parseCentroid(String latitude, String longitude) {
+        boolean noLatitude = latitude == null || latitude.trim().isEmpty();
+        boolean noLongitude = longitude == null || longitude.trim().isEmpty();
+        if (noLatitude && noLongitude) {
+            return new Double[]{null, null};
         }
-
-        if (!errors.isEmpty()) {
-            logger.warn("CSV upload completed with {} errors out of {} total lines", errors.size(), totalLines);
-            if (errors.size() <= 10) {
-                logger.warn("Errors: {}", String.join("; ", errors));
-            } else {
-                logger.warn("First 10 errors: {}", String.join("; ", errors.subList(0, 10)));
-            }
+        if (noLatitude || noLongitude) {
+            return null;
         }
 
-        logger.info("Successfully uploaded {} pincodes from CSV (Total lines: {}, Errors: {})",
-                pincodes.size(), totalLines, errors.size());
-        return pincodes;
-    }
-
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public Pincode savePincodeInNewTransaction(String pincode, String cityCode, String cityDesc, String area, String username) {
         try {
-            if (pincodeRepository.existsByPincode(pincode)) {
-                logger.debug("Pincode already exists: {}", pincode);
+            double lat = Double.parseDouble(latitude.trim());
+            double lng = Double.parseDouble(longitude.trim());
+            if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
                 return null;
             }
-
-            Pincode pincodeEntity = new Pincode(pincode, cityCode);
-            pincodeEntity.setCityDesc(cityDesc);
-            pincodeEntity.setArea(area);
-            pincodeEntity.setCreatedBy(username);
-            pincodeEntity.setUpdatedBy(username);
-
-            Pincode saved = pincodeRepository.save(pincodeEntity);
-            pincodeRepository.flush();
-
-            logger.info("Saved pincode: {} - {}", pincode, cityCode);
-            return saved;
-
-        } catch (Exception e) {
-            logger.error("Failed to save pincode {}: {}", pincode, e.getMessage(), e);
+            return new Double[]{lat, lng};
+        } catch (NumberFormatException e) {
             return null;
         }
     }
-
-    private List<Pincode> uploadFromExcelFile(MultipartFile file, String username) throws IOException {
-        List<Pincode> pincodes = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
-
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                try {
-                    String pincode = getCellValue(row.getCell(0));
-                    String cityCode = getCellValue(row.getCell(1));
-                    String area = getCellValue(row.getCell(2));
-
-                    if (pincode == null || pincode.trim().isEmpty()) {
-                        errors.add("Row " + (i + 1) + ": Pincode is empty");
-                        continue;
-                    }
-
-                    if (cityCode == null || cityCode.trim().isEmpty()) {
-                        errors.add("Row " + (i + 1) + ": City code is empty");
-                        continue;
-                    }
-
-                    City city = cityRepository.findByCityCode(cityCode.trim().toUpperCase()).orElse(null);
-                    if (city == null) {
-                        errors.add("Row " + (i + 1) + ": Invalid city code: " + cityCode);
-                        continue;
-                    }
-
-                    Pincode savedPincode = savePincodeInNewTransaction(
-                            pincode.trim(),
-                            cityCode.trim().toUpperCase(),
-                            city.getCityDesc(),
-                            area != null && !area.trim().isEmpty() ? area.trim() : null,
-                            username
-                    );
-
-                    if (savedPincode != null) {
-                        pincodes.add(savedPincode);
-                    } else {
-                        errors.add("Row " + (i + 1) + ": Pincode already exists: " + pincode);
-                    }
-
-                } catch (Exception e) {
-                    errors.add("Row " + (i + 1) + ": " + e.getMessage());
-                }
-            }
-        }
-
-        if (!errors.isEmpty()) {
-            logger.warn("Excel upload completed with {} errors", errors.size());
-            if (errors.size() <= 10) {
-                logger.warn("Errors: {}", String.join("; ", errors));
-            } else {
-                logger.warn("First 10 errors: {}", String.join("; ", errors.subList(0, 10)));
-            }
-        }
-
-        logger.info("Successfully uploaded {} pincodes from Excel", pincodes.size());
-        return pincodes;
-    }
-
-    private String[] parseCsvLine(String line) {
-        List<String> result = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        result.add(current.toString());
-
-        return result.toArray(new String[0]);
-    }
-
-    private String getCellValue(Cell cell) {
-        if (cell == null) return null;
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                }
-                double numValue = cell.getNumericCellValue();
-                if (numValue == Math.floor(numValue)) {
-                    return String.valueOf((long) numValue);
-                }
-                return String.valueOf(numValue);
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return null;
-        }
-    }
-}
\ No newline at end of file
+}
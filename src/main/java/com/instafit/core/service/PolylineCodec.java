@@ -0,0 +1,96 @@
+package com.instafit.core.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polyline Codec
+ * Google's encoded polyline format (1e-5 degree precision), as used by Directions
+ * and accepted by the Maps JavaScript API geometry library
+ */
+public final class PolylineCodec {
+
+    private PolylineCodec() {}
+
+    /**
+     * Decode to a list of {lat, lng} points
+     */
+    public static List<double[]> decode(String encoded) {
+        List<double[]> points = new ArrayList<>();
+        if (encoded == null) {
+            return points;
+        }
+
+        int index = 0;
+        int lat = 0;
+        int lng = 0;
+        while (index < encoded.length()) {
+            int[] next = decodeValue(encoded, index);
+            lat += next[0];
+            next = decodeValue(encoded, next[1]);
+            lng += next[0];
+            index = next[1];
+            points.add(new double[]{lat / 1e5, lng / 1e5});
+        }
+        return points;
+    }
+
+    /**
+     * Encode {lat, lng} points
+     */
+    public static String encode(List<double[]> points) {
+        StringBuilder encoded = new StringBuilder();
+        long previousLat = 0;
+        long previousLng = 0;
+        for (double[] point : points) {
+            long lat = Math.round(point[0] * 1e5);
+            long lng = Math.round(point[1] * 1e5);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lng - previousLng, encoded);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Join consecutive polylines (e.g. Directions steps) into one, dropping repeated joints
+     */
+    public static String concat(List<String> polylines) {
+        List<double[]> points = new ArrayList<>();
+        for (String polyline : polylines) {
+            List<double[]> part = decode(polyline);
+            if (!points.isEmpty() && !part.isEmpty()) {
+                double[] last = points.get(points.size() - 1);
+                double[] first = part.get(0);
+                if (last[0] == first[0] && last[1] == first[1]) {
+                    part = part.subList(1, part.size());
+                }
+            }
+            points.addAll(part);
+        }
+        return encode(points);
+    }
+
+    private static int[] decodeValue(String encoded, int index) {
+        int result = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = encoded.charAt(index++) - 63;
+            result |= (b & 0x1f) << shift;
+            shift += 5;
+        } while (b >= 0x20 && index < encoded.length());
+        int value = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+        return new int[]{value, index};
+    }
+
+    private static void encodeValue(long value, StringBuilder out) {
+        long v = value < 0 ? ~(value << 1) : (value << 1);
+        while (v >= 0x20) {
+            out.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+        out.append((char) (v + 63));
+    }
+}
@@ -0,0 +1,196 @@
+package com.instafit.core.service;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Query Plan Audit Service
+ * When enabled, records every distinct SELECT Hibernate sends (as its statement inspector)
+ * and EXPLAINs each one as a generic plan, the plan PostgreSQL uses for any parameter values.
+ * Statements that sequentially scan a table of at least min-table-rows are reported.
+ * QueryPlanAuditTests runs the check against a seeded database on every build.
+ */
+@Service
+public class QueryPlanAuditService implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanAuditService.class);
+
+    private static final long serialVersionUID = 1L;
+
+    // Bounded so ad-hoc queries cannot grow it without limit
+    private static final int MAX_STATEMENTS = 500;
+
+    private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*(.*?)\\*/\\s*", Pattern.DOTALL);
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    private static final String TABLE_ROWS_SQL =
+            "SELECT relname, reltuples::bigint FROM pg_class " +
+            "WHERE relkind = 'r' AND relnamespace = current_schema()::regnamespace";
+
+    // SQL without its leading comment -> SQL as Hibernate sent it
+    private final Map<String, String> statements = new ConcurrentHashMap<>();
+
+    @Autowired
+    private transient JdbcTemplate jdbcTemplate;
+
+    @Value("${app.query-plan-audit.enabled:false}")
+    private boolean auditEnabled;
+
+    @Value("${app.query-plan-audit.min-table-rows:10000}")
+    private long minTableRows;
+
+    /**
+     * Install this service as Hibernate's statement inspector when the audit is enabled
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (auditEnabled) {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String body = stripComment(sql);
+        String lower = body.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("select") && lower.contains(" from ") && statements.size() < MAX_STATEMENTS) {
+            statements.putIfAbsent(body, sql);
+        }
+        return sql;
+    }
+
+    @Scheduled(initialDelayString = "${app.query-plan-audit.interval-ms:3600000}",
+            fixedDelayString = "${app.query-plan-audit.interval-ms:3600000}")
+    public void scheduledAudit() {
+        if (auditEnabled) {
+            audit();
+        }
+    }
+
+    /**
+     * EXPLAIN every statement recorded so far; returns the plans that sequentially scan a large
+     * table, keyed by the statement's HQL comment (or its SQL when it has none)
+     */
+    public Map<String, List<String>> audit() {
+        List<String> sqls = new ArrayList<>(statements.values());
+        Map<String, List<String>> seqScans = jdbcTemplate.execute((ConnectionCallback<Map<String, List<String>>>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (Statement st = con.createStatement()) {
+                // Parameter values are unknown, so plan the statement as it runs for any of them
+                st.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+                Map<String, Long> tableRows = tableRows(st);
+
+                Map<String, List<String>> found = new LinkedHashMap<>();
+                for (String sql : sqls) {
+                    List<String> plan = explain(st, sql);
+                    if (plan != null && scansLargeTable(plan, tableRows)) {
+                        found.put(describe(sql), plan);
+                    }
+                }
+                return found;
+            } finally {
+                con.rollback();
+                con.setAutoCommit(autoCommit);
+            }
+        });
+
+        for (Map.Entry<String, List<String>> entry : seqScans.entrySet()) {
+            logger.warn("Query plan audit: {} uses a sequential scan:\n{}",
+                    entry.getKey(), String.join("\n", entry.getValue()));
+        }
+        if (seqScans.isEmpty()) {
+            logger.info("Query plan audit: none of {} recorded statements scans a large table", sqls.size());
+        }
+        return seqScans;
+    }
+
+    /**
+     * Distinct statements recorded so far
+     */
+    public int getRecordedCount() {
+        return statements.size();
+    }
+
+    private List<String> explain(Statement st, String sql) throws SQLException {
+        String body = stripComment(sql);
+        int params = 0;
+        StringBuilder numbered = new StringBuilder(body.length() + 16);
+        boolean quoted = false;
+        for (char c : body.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++params);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        st.execute("SAVEPOINT plan_audit");
+        try {
+            st.execute("PREPARE plan_audit AS " + numbered);
+            String args = params == 0 ? "" : "(" + String.join(", ", Collections.nCopies(params, "NULL")) + ")";
+            List<String> plan = new ArrayList<>();
+            try (ResultSet rs = st.executeQuery("EXPLAIN EXECUTE plan_audit" + args)) {
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+            st.execute("DEALLOCATE plan_audit");
+            st.execute("RELEASE SAVEPOINT plan_audit");
+            return plan;
+        } catch (SQLException e) {
+            st.execute("ROLLBACK TO SAVEPOINT plan_audit");
+            logger.warn("Query plan audit: could not explain {}: {}", describe(sql), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean scansLargeTable(List<String> plan, Map<String, Long> tableRows) {
+        for (String line : plan) {
+            Matcher m = SEQ_SCAN.matcher(line);
+            if (m.find() && tableRows.getOrDefault(m.group(1), 0L) >= minTableRows) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, Long> tableRows(Statement st) throws SQLException {
+        Map<String, Long> rows = new HashMap<>();
+        try (ResultSet rs = st.executeQuery(TABLE_ROWS_SQL)) {
+            while (rs.next()) {
+                rows.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        return rows;
+    }
+
+    private static String stripComment(String sql) {
+        return LEADING_COMMENT.matcher(sql).replaceFirst("");
+    }
+
+    private static String describe(String sql) {
+        Matcher m = LEADING_COMMENT.matcher(sql);
+        return m.find() ? m.group(1).trim() : sql;
+    }
+}
@@ -0,0 +1,440 @@
+package com.instafit.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Road Distance Cache
+ * Road distance and driving time between geohash cells, learned from Directions
+ * legs and kept both in road_distance_cache and in an open-addressing table of
+ * primitive arrays. Routing reads a whole stop matrix in one call; pairs never
+ * measured (unseen, or only stored as an estimate) fall back to the straight-line
+ * estimate. Stops in the same cell are a short leg of their straight-line distance.
+ */
+@Service
+public class RoadDistanceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoadDistanceCache.class);
+
+    public static final String SOURCE_DIRECTIONS = "DIRECTIONS";
+    public static final String SOURCE_ESTIMATE = "ESTIMATE";
+
+    private static final String LOAD_SQL =
+            "SELECT origin_cell, dest_cell, distance_meters, duration_seconds, source FROM road_distance_cache " +
+            "ORDER BY updated_at DESC LIMIT ?";
+
+    // Estimates never overwrite a measured leg
+    private static final String UPSERT_SQL =
+            "INSERT INTO road_distance_cache (origin_cell, dest_cell, distance_meters, duration_seconds, source, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (origin_cell, dest_cell) DO UPDATE SET distance_meters = EXCLUDED.distance_meters, " +
+            "duration_seconds = EXCLUDED.duration_seconds, source = EXCLUDED.source, updated_at = now() " +
+            "WHERE road_distance_cache.source = 'ESTIMATE' OR EXCLUDED.source <> 'ESTIMATE'";
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate writeTransaction;
+
+    // 35 bits is a 7-character geohash, about 150 m x 150 m
+    @Value("${app.distance-cache.cell-bits:35}")
+    private int cellBits;
+
+    @Value("${app.distance-cache.max-entries:200000}")
+    private int maxEntries;
+
+    // Persist straight-line estimates for unseen pairs (local stand-in when Maps is not used)
+    @Value("${app.distance-cache.record-estimates:false}")
+    private boolean recordEstimates;
+
+    @Value("${app.routing.road-distance-factor:1.3}")
+    private double roadDistanceFactor;
+
+    @Value("${app.routing.average-speed-kmph:30}")
+    private double averageSpeedKmph;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] origins = newKeys(1024);
+    private long[] dests = new long[1024];
+    private int[] meters = new int[1024];
+    private int[] seconds = new int[1024];
+    // Slot holds a stored straight-line estimate rather than a measured leg
+    private boolean[] estimates = new boolean[1024];
+    private int size;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        // Callers record legs inside their own transaction, which a failed upsert would abort
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            load();
+        } catch (Exception e) {
+            logger.warn("Road distance cache not loaded: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload the memory table from road_distance_cache, most recent pairs first
+     */
+    public void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            origins = newKeys(1024);
+            dests = new long[1024];
+            meters = new int[1024];
+            seconds = new int[1024];
+            estimates = new boolean[1024];
+            size = 0;
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                putLocked(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4),
+                        SOURCE_ESTIMATE.equals(rs.getString(5)));
+            }, maxEntries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Road distance cache loaded: {} pairs in {} ms", size, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Geohash cell of a coordinate: latitude and longitude bits interleaved, longitude first
+     */
+    public long cell(double lat, double lng) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        long bits = 0;
+        for (int i = 0; i < cellBits; i++) {
+            bits <<= 1;
+            if (i % 2 == 0) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) {
+                    bits |= 1;
+                    minLng = mid;
+                } else {
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    bits |= 1;
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Distance/time matrix for a closed tour; node 0 is the start point, node i + 1 is stop i.
+     * Measured cell pairs use the cached road values (a pair seen in one direction serves both);
+     * two nodes in the same cell are a short leg of their straight-line distance, and the rest
+     * use the straight-line estimate scaled by the road distance factor.
+     */
+    public RoadMatrix matrix(double startLat, double startLng, double[] lats, double[] lngs) {
+        int n = lats.length + 1;
+        double[] nodeLats = new double[n];
+        double[] nodeLngs = new double[n];
+        long[] cells = new long[n];
+        nodeLats[0] = startLat;
+        nodeLngs[0] = startLng;
+        System.arraycopy(lats, 0, nodeLats, 1, lats.length);
+        System.arraycopy(lngs, 0, nodeLngs, 1, lngs.length);
+        for (int i = 0; i < n; i++) {
+            cells[i] = cell(nodeLats[i], nodeLngs[i]);
+        }
+
+        double[][] km = new double[n][n];
+        double[][] minutes = new double[n][n];
+        boolean[][] measured = new boolean[n][n];
+        int cached = 0;
+        int estimated = 0;
+        List<long[]> estimates = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    if (cells[i] == cells[j]) {
+                        // Within one cell (same building or street); Directions would not add anything
+                        km[i][j] = RouteOptimizer.haversineKm(nodeLats[i], nodeLngs[i], nodeLats[j], nodeLngs[j]);
+                        minutes[i][j] = km[i][j] / averageSpeedKmph * 60;
+                        measured[i][j] = true;
+                        cached++;
+                        continue;
+                    }
+                    int slot = measuredSlot(cells[i], cells[j]);
+                    if (slot < 0) {
+                        slot = measuredSlot(cells[j], cells[i]);
+                    }
+                    if (slot >= 0) {
+                        km[i][j] = meters[slot] / 1000.0;
+                        minutes[i][j] = seconds[slot] / 60.0;
+                        measured[i][j] = true;
+                        cached++;
+                    } else {
+                        km[i][j] = RouteOptimizer.haversineKm(nodeLats[i], nodeLngs[i], nodeLats[j], nodeLngs[j])
+                                * roadDistanceFactor;
+                        minutes[i][j] = km[i][j] / averageSpeedKmph * 60;
+                        estimated++;
+                        if (recordEstimates && find(cells[i], cells[j]) < 0) {
+                            estimates.add(new long[]{cells[i], cells[j],
+                                    Math.round(km[i][j] * 1000), Math.round(minutes[i][j] * 60)});
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.addAndGet(cached);
+        misses.addAndGet(estimated);
+        if (!estimates.isEmpty()) {
+            store(estimates, SOURCE_ESTIMATE);
+        }
+        return new RoadMatrix(km, minutes, measured, cached, estimated);
+    }
+
+    /**
+     * Remember measured legs; each leg is {fromLat, fromLng, toLat, toLng, meters, seconds}
+     */
+    public void recordLegs(List<double[]> legs, String source) {
+        List<long[]> pairs = new ArrayList<>();
+        for (double[] leg : legs) {
+            long from = cell(leg[0], leg[1]);
+            long to = cell(leg[2], leg[3]);
+            if (from != to) {
+                pairs.add(new long[]{from, to, Math.round(leg[4]), Math.round(leg[5])});
+            }
+        }
+        if (!pairs.isEmpty()) {
+            store(pairs, source);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("pairs", size);
+            stats.put("capacity", origins.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("cellBits", cellBits);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("recorded", recorded.get());
+        stats.put("hitRate", h + m == 0 ? 0.0 : Math.round(h * 1000.0 / (h + m)) / 10.0);
+        return stats;
+    }
+
+    private void store(List<long[]> pairs, String source) {
+        boolean estimate = SOURCE_ESTIMATE.equals(source);
+        lock.writeLock().lock();
+        try {
+            for (long[] p : pairs) {
+                putLocked(p[0], p[1], (int) p[2], (int) p[3], estimate);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            writeTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    long[] p = pairs.get(i);
+                    ps.setLong(1, p[0]);
+                    ps.setLong(2, p[1]);
+                    ps.setInt(3, (int) p[2]);
+                    ps.setInt(4, (int) p[3]);
+                    ps.setString(5, source);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return pairs.size();
+                }
+            }));
+            recorded.addAndGet(pairs.size());
+        } catch (Exception e) {
+            // Memory still has them; the table catches up the next time the legs are seen
+            logger.warn("Could not persist {} road distances: {}", pairs.size(), e.getMessage());
+        }
+    }
+
+    private int measuredSlot(long origin, long dest) {
+        int slot = find(origin, dest);
+        return slot >= 0 && !estimates[slot] ? slot : -1;
+    }
+
+    private int find(long origin, long dest) {
+        int mask = origins.length - 1;
+        int slot = hash(origin, dest) & mask;
+        while (origins[slot] != EMPTY) {
+            if (origins[slot] == origin && dests[slot] == dest) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void putLocked(long origin, long dest, int distance, int duration, boolean estimate) {
+        int slot = find(origin, dest);
+        if (slot >= 0) {
+            // Estimates never overwrite a measured leg
+            if (!estimate || estimates[slot]) {
+                meters[slot] = distance;
+                seconds[slot] = duration;
+                estimates[slot] = estimate;
+            }
+            return;
+        }
+        if (size >= maxEntries) {
+            return;
+        }
+        if ((size + 1) * 2 > origins.length) {
+            grow();
+        }
+        int mask = origins.length - 1;
+        slot = hash(origin, dest) & mask;
+        while (origins[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        origins[slot] = origin;
+        dests[slot] = dest;
+        meters[slot] = distance;
+        seconds[slot] = duration;
+        estimates[slot] = estimate;
+        size++;
+    }
+
+    private void grow() {
+        long[] oldOrigins = origins;
+        long[] oldDests = dests;
+        int[] oldMeters = meters;
+        int[] oldSeconds = seconds;
+        boolean[] oldEstimates = estimates;
+
+        int capacity = oldOrigins.length * 2;
+        origins = newKeys(capacity);
+        dests = new long[capacity];
+        meters = new int[capacity];
+        seconds = new int[capacity];
+        estimates = new boolean[capacity];
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldOrigins.length; i++) {
+            if (oldOrigins[i] == EMPTY) {
+                continue;
+            }
+            int slot = hash(oldOrigins[i], oldDests[i]) & mask;
+            while (origins[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            origins[slot] = oldOrigins[i];
+            dests[slot] = oldDests[i];
+            meters[slot] = oldMeters[i];
+            seconds[slot] = oldSeconds[i];
+            estimates[slot] = oldEstimates[i];
+        }
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    private static int hash(long origin, long dest) {
+        long h = origin * 0x9E3779B97F4A7C15L + dest;
+        h ^= h >>> 33;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    /**
+     * Road km and minutes between every pair of tour nodes
+     */
+    public static class RoadMatrix {
+        private final double[][] km;
+        private final double[][] minutes;
+        private final boolean[][] measured;
+        private final int cachedPairs;
+        private final int estimatedPairs;
+
+        public RoadMatrix(double[][] km, double[][] minutes, boolean[][] measured, int cachedPairs, int estimatedPairs) {
+            this.km = km;
+            this.minutes = minutes;
+            this.measured = measured;
+            this.cachedPairs = cachedPairs;
+            this.estimatedPairs = estimatedPairs;
+        }
+
+        public double[][] getKm() { return km; }
+
+        public double[][] getMinutes() { return minutes; }
+
+        public int getCachedPairs() { return cachedPairs; }
+
+        /**
+         * Whether node i -> node j came from the cache rather than the estimate
+         */
+        public boolean isCached(int i, int j) { return measured[i][j]; }
+
+        public int getEstimatedPairs() { return estimatedPairs; }
+
+        /**
+         * Driving minutes of the closed tour start -> stops in order -> start
+         */
+        public double tourMinutes(int[] order) {
+            double total = 0;
+            int previous = 0;
+            for (int stop : order) {
+                total += minutes[previous][stop + 1];
+                previous = stop + 1;
+            }
+            return total + minutes[previous][0];
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.OrderRoute;
+import com.instafit.core.repository.OrderRouteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Route Leg Service
+ * Stores each optimized route leg by leg (distance, duration, encoded polyline)
+ * next to its OrderRoute, and serves a stored route back in a single query so
+ * viewing a route needs no Maps call.
+ */
+@Service
+public class RouteLegService {
+
+    public static final String SOURCE_DIRECTIONS = "DIRECTIONS";
+    public static final String SOURCE_CACHED = "CACHED";
+    public static final String SOURCE_ESTIMATE = "ESTIMATE";
+
+    // Google Maps URLs accept at most 9 waypoints
+    private static final int MAP_URL_MAX_WAYPOINTS = 9;
+
+    private static final String DELETE_LEGS_SQL = "DELETE FROM route_legs WHERE route_id = ?";
+
+    private static final String INSERT_LEG_SQL =
+            "INSERT INTO route_legs (route_id, leg_index, booking_id, from_latitude, from_longitude, " +
+            "to_latitude, to_longitude, distance_meters, duration_seconds, polyline, source) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String STORED_ROUTE_SQL =
+            "SELECT r.id AS route_id, r.start_location, r.start_latitude, r.start_longitude, r.total_distance, " +
+            "r.total_duration, r.map_url, r.overview_polyline, r.updated_at, " +
+            "l.leg_index, l.booking_id, l.from_latitude, l.from_longitude, l.to_latitude, l.to_longitude, " +
+            "l.distance_meters, l.duration_seconds, l.polyline, l.source, " +
+            "b.order_no, b.customer_name, b.customer_mobile, b.address, b.service_name, b.booking_time " +
+            "FROM order_routes r " +
+            "LEFT JOIN route_legs l ON l.route_id = r.id " +
+            "LEFT JOIN bookings b ON b.id = l.booking_id " +
+            "WHERE r.carpenter_id = ? AND r.route_date = ? AND r.active = true " +
+            "ORDER BY r.id DESC, l.leg_index";
+
+    @Autowired
+    private OrderRouteRepository orderRouteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Legs of a closed tour priced from a road matrix (node 0 is the start point).
+     * The polyline is the straight segment between the two points.
+     */
+    public List<Leg> fromMatrix(double startLat, double startLng, double[] lats, double[] lngs,
+                                List<Long> bookingIds, int[] order, RoadDistanceCache.RoadMatrix matrix) {
+        List<Leg> legs = new ArrayList<>();
+        int previous = -1;
+        for (int i = 0; i <= order.length; i++) {
+            int next = i < order.length ? order[i] : -1;
+            int fromNode = previous + 1;
+            int toNode = next + 1;
+            double fromLat = previous < 0 ? startLat : lats[previous];
+            double fromLng = previous < 0 ? startLng : lngs[previous];
+            double toLat = next < 0 ? startLat : lats[next];
+            double toLng = next < 0 ? startLng : lngs[next];
+
+            legs.add(new Leg(next < 0 ? null : bookingIds.get(next), fromLat, fromLng, toLat, toLng,
+                    (int) Math.round(matrix.getKm()[fromNode][toNode] * 1000),
+                    (int) Math.round(matrix.getMinutes()[fromNode][toNode] * 60),
+                    straightLine(fromLat, fromLng, toLat, toLng),
+                    matrix.isCached(fromNode, toNode) ? SOURCE_CACHED : SOURCE_ESTIMATE));
+            previous = next;
+        }
+        return legs;
+    }
+
+    /**
+     * Legs of a Directions route; leg i runs between consecutive points of
+     * start -> waypoints in waypoint_order -> start
+     */
+    @SuppressWarnings("unchecked")
+    public List<Leg> fromDirections(double startLat, double startLng, double[] lats, double[] lngs,
+                                    List<Long> bookingIds, List<Integer> waypointOrder,
+                                    List<Map<String, Object>> directionsLegs) {
+        List<Leg> legs = new ArrayList<>();
+        for (int i = 0; i < directionsLegs.size() && i <= waypointOrder.size(); i++) {
+            Map<String, Object> leg = directionsLegs.get(i);
+            Map<String, Object> distance = (Map<String, Object>) leg.get("distance");
+            Map<String, Object> duration = (Map<String, Object>) leg.get("duration");
+
+            int from = i == 0 ? -1 : waypointOrder.get(i - 1);
+            int to = i == waypointOrder.size() ? -1 : waypointOrder.get(i);
+            double fromLat = from < 0 ? startLat : lats[from];
+            double fromLng = from < 0 ? startLng : lngs[from];
+            double toLat = to < 0 ? startLat : lats[to];
+            double toLng = to < 0 ? startLng : lngs[to];
+
+            List<String> stepPolylines = new ArrayList<>();
+            List<Map<String, Object>> steps = (List<Map<String, Object>>) leg.get("steps");
+            if (steps != null) {
+                for (Map<String, Object> step : steps) {
+                    Map<String, Object> polyline = (Map<String, Object>) step.get("polyline");
+                    if (polyline != null && polyline.get("points") != null) {
+                        stepPolylines.add((String) polyline.get("points"));
+                    }
+                }
+            }
+
+            legs.add(new Leg(to < 0 ? null : bookingIds.get(to), fromLat, fromLng, toLat, toLng,
+                    distance != null ? ((Number) distance.get("value")).intValue() : 0,
+                    duration != null ? ((Number) duration.get("value")).intValue() : 0,
+                    stepPolylines.isEmpty() ? straightLine(fromLat, fromLng, toLat, toLng) : PolylineCodec.concat(stepPolylines),
+                    SOURCE_DIRECTIONS));
+        }
+        return legs;
+    }
+
+    /**
+     * Save the route with its map link and overview polyline, replacing any stored legs
+     */
+    @Transactional
+    public OrderRoute store(OrderRoute route, List<Leg> legs, String overviewPolyline) {
+        List<String> polylines = new ArrayList<>();
+        for (Leg leg : legs) {
+            polylines.add(leg.polyline);
+        }
+        route.setOverviewPolyline(overviewPolyline != null ? overviewPolyline : PolylineCodec.concat(polylines));
+        route.setMapUrl(buildMapUrl(route.getStartLatitude(), route.getStartLongitude(), legs));
+        OrderRoute saved = orderRouteRepository.save(route);
+
+        jdbcTemplate.update(DELETE_LEGS_SQL, saved.getId());
+        jdbcTemplate.batchUpdate(INSERT_LEG_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Leg leg = legs.get(i);
+                ps.setLong(1, saved.getId());
+                ps.setInt(2, i);
+                ps.setObject(3, leg.bookingId, Types.BIGINT);
+                ps.setDouble(4, leg.fromLatitude);
+                ps.setDouble(5, leg.fromLongitude);
+                ps.setDouble(6, leg.toLatitude);
+                ps.setDouble(7, leg.toLongitude);
+                ps.setInt(8, leg.distanceMeters);
+                ps.setInt(9, leg.durationSeconds);
+                ps.setString(10, leg.polyline);
+                ps.setString(11, leg.source);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return legs.size();
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Stored route with its legs and the booking at the end of each leg; null when none is stored
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStoredRoute(String carpenterId, LocalDate routeDate) {
+        Map<String, Object> route = new LinkedHashMap<>();
+        List<Map<String, Object>> legs = new ArrayList<>();
+
+        jdbcTemplate.query(STORED_ROUTE_SQL, rs -> {
+            long routeId = rs.getLong("route_id");
+            if (route.isEmpty()) {
+                route.put("routeId", routeId);
+                route.put("carpenterId", carpenterId);
+                route.put("routeDate", routeDate);
+                route.put("startLocation", rs.getString("start_location"));
+                route.put("startLatitude", rs.getObject("start_latitude"));
+                route.put("startLongitude", rs.getObject("start_longitude"));
+                route.put("totalDistance", rs.getObject("total_distance"));
+                route.put("totalDuration", rs.getObject("total_duration"));
+                route.put("mapUrl", rs.getString("map_url"));
+                route.put("overviewPolyline", rs.getString("overview_polyline"));
+                route.put("updatedAt", rs.getTimestamp("updated_at"));
+            } else if (!route.get("routeId").equals(routeId)) {
+                // Older duplicate route row for the same day
+                return;
+            }
+
+            if (rs.getObject("leg_index") == null) {
+                return;
+            }
+            Map<String, Object> leg = new LinkedHashMap<>();
+            leg.put("legIndex", rs.getInt("leg_index"));
+            leg.put("bookingId", rs.getObject("booking_id"));
+            leg.put("fromLatitude", rs.getDouble("from_latitude"));
+            leg.put("fromLongitude", rs.getDouble("from_longitude"));
+            leg.put("toLatitude", rs.getDouble("to_latitude"));
+            leg.put("toLongitude", rs.getDouble("to_longitude"));
+            leg.put("distanceMeters", rs.getInt("distance_meters"));
+            leg.put("durationSeconds", rs.getInt("duration_seconds"));
+            leg.put("polyline", rs.getString("polyline"));
+            leg.put("source", rs.getString("source"));
+            leg.put("orderNo", rs.getString("order_no"));
+            leg.put("customerName", rs.getString("customer_name"));
+            leg.put("customerMobile", rs.getString("customer_mobile"));
+            leg.put("address", rs.getString("address"));
+            leg.put("serviceName", rs.getString("service_name"));
+            leg.put("bookingTime", rs.getString("booking_time"));
+            legs.add(leg);
+        }, carpenterId, Date.valueOf(routeDate));
+
+        if (route.isEmpty()) {
+            return null;
+        }
+        route.put("legs", legs);
+        return route;
+    }
+
+    private String straightLine(double fromLat, double fromLng, double toLat, double toLng) {
+        return PolylineCodec.encode(Arrays.asList(new double[]{fromLat, fromLng}, new double[]{toLat, toLng}));
+    }
+
+    private String buildMapUrl(Double startLat, Double startLng, List<Leg> legs) {
+        if (startLat == null || startLng == null) {
+            return null;
+        }
+        String start = startLat + "," + startLng;
+        StringBuilder waypoints = new StringBuilder();
+        int count = 0;
+        for (Leg leg : legs) {
+            if (leg.bookingId == null || count == MAP_URL_MAX_WAYPOINTS) {
+                continue;
+            }
+            if (count++ > 0) {
+                waypoints.append("%7C");
+            }
+            waypoints.append(leg.toLatitude).append(",").append(leg.toLongitude);
+        }
+        return "https://www.google.com/maps/dir/?api=1&travelmode=driving&origin=" + start
+                + "&destination=" + start + (count > 0 ? "&waypoints=" + waypoints : "");
+    }
+
+    /**
+     * One leg to be stored; bookingId is null for the return to the start point
+     */
+    public static class Leg {
+        private final Long bookingId;
+        private final double fromLatitude;
+        private final double fromLongitude;
+        private final double toLatitude;
+        private final double toLongitude;
+        private final int distanceMeters;
+        private final int durationSeconds;
+        private final String polyline;
+        private final String source;
+
+        public Leg(Long bookingId, double fromLatitude, double fromLongitude, double toLatitude, double toLongitude,
+                   int distanceMeters, int durationSeconds, String polyline, String source) {
+            this.bookingId = bookingId;
+            this.fromLatitude = fromLatitude;
+            this.fromLongitude = fromLongitude;
+            this.toLatitude = toLatitude;
+            this.toLongitude = toLongitude;
+            this.distanceMeters = distanceMeters;
+            this.durationSeconds = durationSeconds;
+            this.polyline = polyline;
+            this.source = source;
+        }
+
+        public Long getBookingId() { return bookingId; }
+
+        public double getFromLatitude() { return fromLatitude; }
+
+        public double getFromLongitude() { return fromLongitude; }
+
+        public double getToLatitude() { return toLatitude; }
+
+        public double getToLongitude() { return toLongitude; }
+
+        public int getDistanceMeters() { return distanceMeters; }
+
+        public int getDurationSeconds() { return durationSeconds; }
+
+        public String getPolyline() { return polyline; }
+
+        public String getSource() { return source; }
+    }
+}
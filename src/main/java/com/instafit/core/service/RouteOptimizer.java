@@ -0,0 +1,257 @@
+package com.instafit.core.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Route Optimizer
+ * In-process TSP solver for one carpenter's day: a closed tour that starts and
+ * ends at the carpenter's start point (the same shape the Directions API call used).
+ * Nearest-neighbour construction, then 2-opt and Or-opt improvement until no move
+ * helps or the time budget runs out. Road matrices are one-way, so every move is costed
+ * with the direction each edge is driven in, including the edges of a reversed run.
+ */
+@Service
+public class RouteOptimizer {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Great-circle distance in km
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Haversine matrix (the same both ways); node 0 is the start point, node i + 1 is stop i
+     */
+    public double[][] haversineMatrix(double startLat, double startLng, double[] lats, double[] lngs) {
+        int n = lats.length + 1;
+        double[] nodeLats = new double[n];
+        double[] nodeLngs = new double[n];
+        nodeLats[0] = startLat;
+        nodeLngs[0] = startLng;
+        System.arraycopy(lats, 0, nodeLats, 1, lats.length);
+        System.arraycopy(lngs, 0, nodeLngs, 1, lngs.length);
+
+        double[][] matrix = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double d = haversineKm(nodeLats[i], nodeLngs[i], nodeLats[j], nodeLngs[j]);
+                matrix[i][j] = d;
+                matrix[j][i] = d;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Solve the closed tour over a distance matrix whose node 0 is the start point.
+     * The returned order holds stop indexes (matrix node - 1), like Directions' waypoint_order
+     */
+    public RoutePlan solve(double[][] matrix, long timeBudgetMillis) {
+        int stops = matrix.length - 1;
+        if (stops <= 0) {
+            return new RoutePlan(new int[0], 0, 0);
+        }
+
+        long deadline = System.nanoTime() + Math.max(timeBudgetMillis, 1) * 1_000_000L;
+
+        // tour[0] is the start point; the tour closes back to it
+        int[] tour = nearestNeighbour(matrix);
+        int passes = 0;
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = twoOpt(tour, matrix, deadline);
+            improved |= orOpt(tour, matrix, deadline);
+            passes++;
+        }
+
+        int[] order = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            order[i] = tour[i + 1] - 1;
+        }
+        return new RoutePlan(order, tourLength(tour, matrix), passes);
+    }
+
+    private int[] nearestNeighbour(double[][] matrix) {
+        int n = matrix.length;
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+
+        int current = 0;
+        for (int position = 1; position < n; position++) {
+            int next = -1;
+            double best = Double.MAX_VALUE;
+            for (int candidate = 1; candidate < n; candidate++) {
+                if (!visited[candidate] && matrix[current][candidate] < best) {
+                    best = matrix[current][candidate];
+                    next = candidate;
+                }
+            }
+            tour[position] = next;
+            visited[next] = true;
+            current = next;
+        }
+        return tour;
+    }
+
+    /**
+     * Reverse tour[i..j] whenever that shortens the tour; first-improvement
+     */
+    private boolean twoOpt(int[] tour, double[][] matrix, long deadline) {
+        int n = tour.length;
+        // forward[k] / backward[k]: cost of tour[0..k] driven as is / against the tour
+        double[] forward = new double[n];
+        double[] backward = new double[n];
+        prefixCosts(tour, matrix, forward, backward);
+
+        boolean improved = false;
+        for (int i = 1; i < n - 1; i++) {
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+            int a = tour[i - 1];
+            int b = tour[i];
+            for (int j = i + 1; j < n; j++) {
+                int c = tour[j];
+                int d = tour[(j + 1) % n];
+                double reversedRun = (backward[j] - backward[i]) - (forward[j] - forward[i]);
+                double delta = matrix[a][c] + matrix[b][d] - matrix[a][b] - matrix[c][d] + reversedRun;
+                if (delta < -EPSILON) {
+                    reverse(tour, i, j);
+                    prefixCosts(tour, matrix, forward, backward);
+                    b = tour[i];
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private void prefixCosts(int[] tour, double[][] matrix, double[] forward, double[] backward) {
+        for (int k = 1; k < tour.length; k++) {
+            forward[k] = forward[k - 1] + matrix[tour[k - 1]][tour[k]];
+            backward[k] = backward[k - 1] + matrix[tour[k]][tour[k - 1]];
+        }
+    }
+
+    /**
+     * Move a run of 1-3 consecutive stops to a better position, keeping or flipping its direction
+     */
+    private boolean orOpt(int[] tour, double[][] matrix, long deadline) {
+        int n = tour.length;
+        boolean improved = false;
+        for (int length = 1; length <= 3 && length < n - 1; length++) {
+            for (int start = 1; start + length <= n; start++) {
+                if (System.nanoTime() > deadline) {
+                    return improved;
+                }
+                int end = start + length - 1;
+                int prev = tour[start - 1];
+                int next = tour[(end + 1) % n];
+                int first = tour[start];
+                int last = tour[end];
+                double removeGain = matrix[prev][first] + matrix[last][next] - matrix[prev][next];
+                // Extra cost of driving the run's own edges the other way
+                double flipCost = 0;
+                for (int i = start; i < end; i++) {
+                    flipCost += matrix[tour[i + 1]][tour[i]] - matrix[tour[i]][tour[i + 1]];
+                }
+
+                // Try inserting the segment between tour[k] and tour[k + 1] outside the segment
+                for (int k = 0; k < n; k++) {
+                    if (k >= start - 1 && k <= end) {
+                        continue;
+                    }
+                    int p = tour[k];
+                    int q = tour[(k + 1) % n];
+                    double forward = matrix[p][first] + matrix[last][q] - matrix[p][q];
+                    double reversed = matrix[p][last] + matrix[first][q] - matrix[p][q] + flipCost;
+                    double insertCost = Math.min(forward, reversed);
+                    if (insertCost - removeGain < -EPSILON) {
+                        moveSegment(tour, start, end, k, reversed < forward);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    private void moveSegment(int[] tour, int start, int end, int after, boolean reverseSegment) {
+        List<Integer> segment = new ArrayList<>();
+        for (int i = start; i <= end; i++) {
+            segment.add(tour[i]);
+        }
+        if (reverseSegment) {
+            Collections.reverse(segment);
+        }
+
+        List<Integer> rest = new ArrayList<>();
+        int insertAt = -1;
+        for (int i = 0; i < tour.length; i++) {
+            if (i >= start && i <= end) {
+                continue;
+            }
+            rest.add(tour[i]);
+            if (i == after) {
+                insertAt = rest.size();
+            }
+        }
+        rest.addAll(insertAt, segment);
+        for (int i = 0; i < tour.length; i++) {
+            tour[i] = rest.get(i);
+        }
+    }
+
+    private void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            int tmp = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = tmp;
+        }
+    }
+
+    private double tourLength(int[] tour, double[][] matrix) {
+        double total = 0;
+        for (int i = 0; i < tour.length; i++) {
+            total += matrix[tour[i]][tour[(i + 1) % tour.length]];
+        }
+        return total;
+    }
+
+    /**
+     * Solver result: visiting order of the stops and closed-tour length in matrix units
+     */
+    public static class RoutePlan {
+        private final int[] order;
+        private final double totalDistance;
+        private final int passes;
+
+        public RoutePlan(int[] order, double totalDistance, int passes) {
+            this.order = order;
+            this.totalDistance = totalDistance;
+            this.passes = passes;
+        }
+
+        public int[] getOrder() { return order; }
+
+        public double getTotalDistance() { return totalDistance; }
+
+        public int getPasses() { return passes; }
+    }
+}
@@ -0,0 +1,156 @@
+package com.instafit.core.service;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Spreadsheet Reader
+ * Streams the rows of a CSV file or the first sheet of an XLSX workbook to a callback.
+ * XLSX is parsed with POI's event model (XSSFReader + SAX over the sheet XML), so only
+ * the shared-strings table and the current row are held in memory, never a workbook DOM.
+ */
+final class SpreadsheetReader {
+
+    /**
+     * Receives each non-empty row with its 1-based row number; return false to stop reading
+     */
+    interface RowCallback {
+        boolean row(int rowNumber, String[] cells);
+    }
+
+    private SpreadsheetReader() {}
+
+    static void readCsv(InputStream in, RowCallback callback) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (!callback.row(lineNumber, parseCsvLine(line))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    static void readXlsx(File file, RowCallback callback) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, strings, new RowCollector(callback), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (StopReading stop) {
+            // Callback asked to stop
+        } catch (Exception e) {
+            if (e.getCause() instanceof StopReading) {
+                return;
+            }
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            throw new IOException("Could not read Excel file: " + e.getMessage(), e);
+        } finally {
+            // Read-only package: release it without saving
+            if (pkg != null) {
+                pkg.revert();
+            }
+        }
+    }
+
+    private static String[] parseCsvLine(String line) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                result.add(current.toString());
+                current = new StringBuilder();
+            } else {
+                current.append(c);
+            }
+        }
+        result.add(current.toString());
+
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * Builds one row at a time from SAX cell events
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowCallback callback;
+        private final List<String> cells = new ArrayList<>();
+
+        RowCollector(RowCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            boolean blank = true;
+            for (String cell : cells) {
+                blank &= cell == null || cell.trim().isEmpty();
+            }
+            if (!blank && !callback.row(rowNum + 1, cells.toArray(new String[0]))) {
+                throw new StopReading();
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Missing cells are not reported, so place each value by its column
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+    }
+
+    private static final class StopReading extends RuntimeException {
+        StopReading() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+-- Schema as Hibernate ddl-auto: update built it before versioned migrations were introduced.
+-- Existing databases are baselined at this version and never run it, so it must describe
+-- exactly that schema: everything added since lives in V2 onwards, which every database runs.
+-- Constraint names are Hibernate's generated ones so both kinds of database stay identical.
+
+-- Bookings
+
+CREATE TABLE bookings (
+    id                BIGSERIAL NOT NULL,
+    order_no          VARCHAR(50),
+    user_id           VARCHAR(100),
+    customer_name     VARCHAR(200),
+    customer_mobile   VARCHAR(20),
+    date              DATE,
+    booking_time      TIME,
+    service_name      VARCHAR(200),
+    service_id        INTEGER,
+    service_types     TEXT,
+    total_price       NUMERIC(10, 2),
+    address           TEXT,
+    status            VARCHAR(50),
+    payment_id        VARCHAR(100),
+    employee_name     VARCHAR(200),
+    employee_phone    VARCHAR(20),
+    created_at        TIMESTAMP,
+    submitted_by      VARCHAR(100),
+    submitted_at      TIMESTAMP,
+    carpenter_id      VARCHAR(20),
+    carpenter_name    VARCHAR(100),
+    assigned_date     DATE,
+    assignment_status VARCHAR(20),
+    route_order       INTEGER,
+    latitude          DOUBLE PRECISION,
+    longitude         DOUBLE PRECISION,
+    geocode_status    VARCHAR(20),
+    notes             TEXT,
+    PRIMARY KEY (id)
+);
+
+-- Booking also declared idx_order_no and idx_created_at, but booking_logs, created first,
+-- already owned those names, so ddl-auto never created them on bookings
+ALTER TABLE bookings ADD CONSTRAINT UK_6u8hfbykadabxoy9rk20sh2lc UNIQUE (order_no);
+CREATE INDEX idx_status ON bookings (status);
+CREATE INDEX idx_date ON bookings (date);
+CREATE INDEX idx_customer_mobile ON bookings (customer_mobile);
+CREATE INDEX idx_user_id ON bookings (user_id);
+CREATE INDEX idx_submitted_at ON bookings (submitted_at);
+
+CREATE TABLE booking_logs (
+    id            BIGSERIAL NOT NULL,
+    booking_id    BIGINT NOT NULL,
+    order_no      VARCHAR(50),
+    action_type   VARCHAR(50) NOT NULL,
+    field_changed VARCHAR(100),
+    old_value     TEXT,
+    new_value     TEXT,
+    changed_by    VARCHAR(100) NOT NULL,
+    ip_address    VARCHAR(45),
+    notes         TEXT,
+    created_at    TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_booking_id ON booking_logs (booking_id);
+CREATE INDEX idx_order_no ON booking_logs (order_no);
+CREATE INDEX idx_action_type ON booking_logs (action_type);
+CREATE INDEX idx_changed_by ON booking_logs (changed_by);
+CREATE INDEX idx_created_at ON booking_logs (created_at);
+
+CREATE TABLE fetched_bookings (
+    id               BIGSERIAL NOT NULL,
+    order_no         VARCHAR(50) NOT NULL,
+    booking_id       BIGINT,
+    first_fetched_at TIMESTAMP NOT NULL,
+    last_fetched_at  TIMESTAMP NOT NULL,
+    fetch_count      INTEGER NOT NULL,
+    fetched_by       VARCHAR(100),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE fetched_bookings ADD CONSTRAINT UK_r6634nrhsuoyt9qudwxld926 UNIQUE (order_no);
+CREATE INDEX idx_fetched_order_no ON fetched_bookings (order_no);
+CREATE INDEX idx_last_fetched ON fetched_bookings (last_fetched_at);
+CREATE INDEX idx_fetched_by ON fetched_bookings (fetched_by);
+
+-- Carpenters and routes
+
+CREATE TABLE carpenters (
+    id             BIGSERIAL NOT NULL,
+    carpenter_id   VARCHAR(20) NOT NULL,
+    carpenter_name VARCHAR(100) NOT NULL,
+    mobile         VARCHAR(20) NOT NULL,
+    email          VARCHAR(100),
+    city_code      VARCHAR(10),
+    city_desc      VARCHAR(100),
+    branch_code    VARCHAR(10),
+    pincode        VARCHAR(10),
+    job_type       VARCHAR(50),
+    active         BOOLEAN NOT NULL,
+    created_by     VARCHAR(50),
+    updated_by     VARCHAR(50),
+    created_at     TIMESTAMP NOT NULL,
+    updated_at     TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE carpenters ADD CONSTRAINT UK_tqh2nvv0e67o9m04tjk6uu47l UNIQUE (carpenter_id);
+ALTER TABLE carpenters ADD CONSTRAINT UK_oeoiqnemqixsdqo882qkywevl UNIQUE (mobile);
+CREATE INDEX idx_carpenter_id ON carpenters (carpenter_id);
+CREATE INDEX idx_carpenter_mobile ON carpenters (mobile);
+CREATE INDEX idx_carpenter_city ON carpenters (city_code);
+
+CREATE TABLE order_routes (
+    id              BIGSERIAL NOT NULL,
+    carpenter_id    VARCHAR(20) NOT NULL,
+    route_date      DATE NOT NULL,
+    start_location  VARCHAR(200),
+    start_latitude  DOUBLE PRECISION,
+    start_longitude DOUBLE PRECISION,
+    order_sequence  TEXT,
+    total_distance  DOUBLE PRECISION,
+    total_duration  INTEGER,
+    map_url         TEXT,
+    active          BOOLEAN NOT NULL,
+    created_by      VARCHAR(50),
+    created_at      TIMESTAMP NOT NULL,
+    updated_at      TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Master data
+
+CREATE TABLE cities (
+    id         BIGSERIAL NOT NULL,
+    city_code  VARCHAR(20) NOT NULL,
+    city_desc  VARCHAR(200) NOT NULL,
+    active     BOOLEAN NOT NULL,
+    created_by VARCHAR(50),
+    updated_by VARCHAR(50),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE cities ADD CONSTRAINT UK_mmxm1v9ejho8cyhd1xs01g0w8 UNIQUE (city_code);
+
+CREATE TABLE branches (
+    id          BIGSERIAL NOT NULL,
+    branch_code VARCHAR(20) NOT NULL,
+    branch_desc VARCHAR(200) NOT NULL,
+    city_codes  VARCHAR(500),
+    active      BOOLEAN NOT NULL,
+    created_by  VARCHAR(50),
+    updated_by  VARCHAR(50),
+    created_at  TIMESTAMP NOT NULL,
+    updated_at  TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE branches ADD CONSTRAINT UK_aqmyw20ht3aku27r3oorfaw43 UNIQUE (branch_code);
+
+CREATE TABLE pincodes (
+    id         BIGSERIAL NOT NULL,
+    pincode    VARCHAR(10) NOT NULL,
+    city_code  VARCHAR(20) NOT NULL,
+    city_desc  VARCHAR(200),
+    area       VARCHAR(200),
+    active     BOOLEAN NOT NULL,
+    created_by VARCHAR(50),
+    updated_by VARCHAR(50),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE pincodes ADD CONSTRAINT UK_misr3jxrfpw8ur9qiriqr4lr3 UNIQUE (pincode);
+
+CREATE TABLE items (
+    id         BIGSERIAL NOT NULL,
+    item_code  VARCHAR(20) NOT NULL,
+    item_desc  VARCHAR(200) NOT NULL,
+    active     BOOLEAN NOT NULL,
+    created_by VARCHAR(50),
+    updated_by VARCHAR(50),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE items ADD CONSTRAINT UK_n3wi2ihmiiviolnt3ifaxppsk UNIQUE (item_code);
+
+CREATE TABLE fit_types (
+    id            BIGSERIAL NOT NULL,
+    fit_type_code VARCHAR(20) NOT NULL,
+    fit_type_desc VARCHAR(200) NOT NULL,
+    active        BOOLEAN NOT NULL,
+    created_by    VARCHAR(50),
+    updated_by    VARCHAR(50),
+    created_at    TIMESTAMP NOT NULL,
+    updated_at    TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE fit_types ADD CONSTRAINT UK_ncv0742fpnabifyxmwmj9haa9 UNIQUE (fit_type_code);
+
+-- Users
+
+CREATE TABLE users (
+    id           BIGSERIAL NOT NULL,
+    full_name    VARCHAR(100) NOT NULL,
+    phone_number VARCHAR(10) NOT NULL,
+    email        VARCHAR(100),
+    password     VARCHAR(255) NOT NULL,
+    role         VARCHAR(20) NOT NULL,
+    active       BOOLEAN NOT NULL,
+    created_by   VARCHAR(50),
+    updated_by   VARCHAR(50),
+    created_at   TIMESTAMP NOT NULL,
+    updated_at   TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE users ADD CONSTRAINT UK_9q63snka3mdh91as4io72espi UNIQUE (phone_number);
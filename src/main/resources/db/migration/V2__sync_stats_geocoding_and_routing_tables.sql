@@ -0,0 +1,86 @@
+-- Tables and columns added for incremental booking sync, dashboard counters, geocoding and
+-- stored routes. IF NOT EXISTS throughout: a database that ran a build of these features under
+-- ddl-auto: update already has some of them when it is baselined at V1.
+
+CREATE TABLE IF NOT EXISTS booking_sync_state (
+    id                   BIGSERIAL NOT NULL,
+    sync_key             VARCHAR(50) NOT NULL,
+    last_created_at      VARCHAR(40),
+    last_order_no        VARCHAR(50),
+    last_run_started_at  TIMESTAMP,
+    last_run_finished_at TIMESTAMP,
+    last_run_millis      BIGINT,
+    last_run_pages       INTEGER,
+    last_run_rows        INTEGER,
+    updated_at           TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_d04j2k06ykpcye3pveb9423fw UNIQUE (sync_key)
+);
+
+CREATE TABLE IF NOT EXISTS carpenter_daily_stats (
+    id                BIGSERIAL NOT NULL,
+    carpenter_id      VARCHAR(20) NOT NULL,
+    stat_date         DATE NOT NULL,
+    assignment_status VARCHAR(20) NOT NULL,
+    job_count         INTEGER NOT NULL,
+    updated_at        TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_carpenter_daily_stats UNIQUE (carpenter_id, stat_date, assignment_status)
+);
+
+CREATE TABLE IF NOT EXISTS geocode_cache (
+    id                BIGSERIAL NOT NULL,
+    cache_key         VARCHAR(500) NOT NULL,
+    key_type          VARCHAR(10) NOT NULL,
+    latitude          DOUBLE PRECISION NOT NULL,
+    longitude         DOUBLE PRECISION NOT NULL,
+    formatted_address VARCHAR(500),
+    created_at        TIMESTAMP NOT NULL,
+    updated_at        TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_i6p658p3b38t4njfg1gui0i7 UNIQUE (cache_key)
+);
+
+-- Pincode centroids
+ALTER TABLE pincodes ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE pincodes ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+CREATE TABLE IF NOT EXISTS road_distance_cache (
+    id               BIGSERIAL NOT NULL,
+    origin_cell      BIGINT NOT NULL,
+    dest_cell        BIGINT NOT NULL,
+    distance_meters  INTEGER NOT NULL,
+    duration_seconds INTEGER NOT NULL,
+    source           VARCHAR(20) NOT NULL,
+    updated_at       TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_road_distance_cells UNIQUE (origin_cell, dest_cell)
+);
+
+ALTER TABLE order_routes ADD COLUMN IF NOT EXISTS overview_polyline TEXT;
+
+CREATE TABLE IF NOT EXISTS route_legs (
+    id               BIGSERIAL NOT NULL,
+    route_id         BIGINT NOT NULL,
+    leg_index        INTEGER NOT NULL,
+    booking_id       BIGINT,
+    from_latitude    DOUBLE PRECISION NOT NULL,
+    from_longitude   DOUBLE PRECISION NOT NULL,
+    to_latitude      DOUBLE PRECISION NOT NULL,
+    to_longitude     DOUBLE PRECISION NOT NULL,
+    distance_meters  INTEGER NOT NULL,
+    duration_seconds INTEGER NOT NULL,
+    polyline         TEXT,
+    source           VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_route_legs_route_index UNIQUE (route_id, leg_index)
+);
+
+CREATE TABLE IF NOT EXISTS branch_cities (
+    branch_id BIGINT NOT NULL,
+    city_code VARCHAR(20) NOT NULL,
+    PRIMARY KEY (branch_id, city_code),
+    CONSTRAINT FKbt5n40hx4912lef7f472tvvv5 FOREIGN KEY (branch_id) REFERENCES branches
+);
+
+CREATE INDEX IF NOT EXISTS idx_branch_cities_city ON branch_cities (city_code, branch_id);
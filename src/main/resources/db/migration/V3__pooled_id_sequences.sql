@@ -0,0 +1,22 @@
+-- Hand out ids in blocks of 50 so JPA and the ingest path can batch inserts without a round
+-- trip per row. Must match allocationSize on Booking, BookingLog and FetchedBooking.
+--
+-- Both writers follow Hibernate's pooled optimizer: a nextval that returns v reserves ids
+-- v-49..v. The sequences are restarted at (highest id used so far) + 50, so the first block
+-- starts right after existing rows and, on an empty database, at 1 rather than at -48.
+DO $$
+DECLARE
+    tbl  TEXT;
+    seq  TEXT;
+    used BIGINT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['bookings', 'booking_logs', 'fetched_bookings'] LOOP
+        seq := tbl || '_id_seq';
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq);
+        EXECUTE format('SELECT GREATEST((SELECT COALESCE(max(id), 0) FROM %I), '
+                       '(SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM %I))',
+                       tbl, seq)
+            INTO used;
+        PERFORM setval(seq, used + 50, false);
+    END LOOP;
+END $$;
@@ -0,0 +1,43 @@
+-- Indexes for the assignment, routing and monitoring queries.
+-- IF NOT EXISTS because databases baselined at V1 may already have them from ddl-auto.
+
+CREATE INDEX IF NOT EXISTS idx_created_at_id ON bookings (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_carpenter_assigned_date ON bookings (carpenter_id, assigned_date);
+CREATE INDEX IF NOT EXISTS idx_assignment_status_date ON bookings (assignment_status, date);
+CREATE INDEX IF NOT EXISTS idx_assigned_date ON bookings (assigned_date);
+CREATE INDEX IF NOT EXISTS idx_order_routes_carpenter_date ON order_routes (carpenter_id, route_date);
+
+-- Unassigned orders, newest first (submitted orders page, auto-assignment)
+CREATE INDEX IF NOT EXISTS idx_bookings_unassigned ON bookings (created_at DESC)
+    WHERE assignment_status = 'SUBMITTED';
+
+-- Job monitoring snapshot, all statuses and per status
+CREATE INDEX IF NOT EXISTS idx_bookings_assigned_recent ON bookings
+    (assigned_date DESC NULLS LAST, id DESC) WHERE carpenter_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_bookings_assigned_status_recent ON bookings
+    (assignment_status, assigned_date DESC NULLS LAST, id DESC) WHERE carpenter_id IS NOT NULL;
+
+-- Booking search needs pg_trgm. Installing it needs superuser before PostgreSQL 13 and CREATE
+-- on the database from 13 on, which managed databases do not always grant. Without it the
+-- migration still succeeds, a warning is logged and search falls back to plain substring
+-- matching; to enable it later, have an administrator run
+--     CREATE EXTENSION pg_trgm;
+-- followed by the CREATE INDEX below, and restart the application.
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION
+    WHEN insufficient_privilege OR undefined_file THEN
+        RAISE WARNING 'pg_trgm not installed (%): booking search will use unindexed substring matching', SQLERRM;
+END $$;
+
+-- The expression must match BookingSearchService.SEARCH_DOCUMENT exactly
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_bookings_search_trgm ON bookings USING gin ((
+            lower(coalesce(customer_name, '') || ' ' || coalesce(customer_mobile, '') || ' ' ||
+                  coalesce(order_no, '') || ' ' || coalesce(service_name, '') || ' ' || coalesce(address, ''))
+        ) gin_trgm_ops);
+    END IF;
+END $$;
@@ -0,0 +1,52 @@
+-- Codes in branches.city_codes that named no city. They cannot go into branch_cities, so they
+-- are kept here for an operator to add the missing city or drop the code. Created on every
+-- database so fresh and upgraded schemas stay identical.
+CREATE TABLE IF NOT EXISTS branch_city_orphans (
+    branch_id   BIGINT NOT NULL,
+    branch_code VARCHAR(20) NOT NULL,
+    city_code   VARCHAR(500) NOT NULL,
+    found_at    TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (branch_id, city_code)
+);
+
+-- Databases that still have the old comma separated branches.city_codes column:
+-- move its valid codes into branch_cities, keep the others in branch_city_orphans, and drop it.
+DO $$
+DECLARE
+    orphans TEXT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'branches' AND column_name = 'city_codes') THEN
+        INSERT INTO branch_city_orphans (branch_id, branch_code, city_code)
+        SELECT DISTINCT b.id, b.branch_code, upper(trim(code))
+        FROM branches b
+        CROSS JOIN LATERAL unnest(string_to_array(b.city_codes, ',')) AS code
+        WHERE trim(code) <> ''
+          AND NOT EXISTS (SELECT 1 FROM cities c WHERE c.city_code = upper(trim(code)))
+        ON CONFLICT DO NOTHING;
+
+        SELECT string_agg(branch_code || ':' || city_code, ', ' ORDER BY branch_code, city_code)
+        INTO orphans FROM branch_city_orphans;
+        IF orphans IS NOT NULL THEN
+            RAISE WARNING 'branches.city_codes named unknown cities, kept in branch_city_orphans: %', orphans;
+        END IF;
+
+        INSERT INTO branch_cities (branch_id, city_code)
+        SELECT DISTINCT b.id, c.city_code
+        FROM branches b
+        CROSS JOIN LATERAL unnest(string_to_array(b.city_codes, ',')) AS code
+        JOIN cities c ON c.city_code = upper(trim(code))
+        ON CONFLICT DO NOTHING;
+
+        ALTER TABLE branches DROP COLUMN city_codes;
+    END IF;
+END $$;
+
+-- Deleting a city removes it from the branches that served it
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_branch_cities_city') THEN
+        ALTER TABLE branch_cities ADD CONSTRAINT fk_branch_cities_city
+            FOREIGN KEY (city_code) REFERENCES cities (city_code) ON DELETE CASCADE;
+    END IF;
+END $$;
@@ -0,0 +1,15 @@
+-- Supabase rows the sync could not parse or ingest, kept verbatim with the error so the
+-- cursor can move on without losing them.
+CREATE TABLE booking_sync_failures (
+    id                BIGSERIAL NOT NULL,
+    row_key           VARCHAR(64) NOT NULL,
+    order_no          VARCHAR(50),
+    source_created_at VARCHAR(40),
+    raw_row           TEXT NOT NULL,
+    error             VARCHAR(1000) NOT NULL,
+    attempts          INTEGER NOT NULL,
+    first_failed_at   TIMESTAMP NOT NULL,
+    last_failed_at    TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_booking_sync_failures_key UNIQUE (row_key)
+);
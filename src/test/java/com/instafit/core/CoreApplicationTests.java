@@ -1,11 +1,19 @@
 package com.instafit.core;
 
+import com.instafit.core.support.TestDatabase;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class CoreApplicationTests {
 
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		TestDatabase.register(registry, TestDatabase.create("core"));
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,123 @@
+package com.instafit.core.migration;
+
+import com.instafit.core.support.TestDatabase;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway Migration Tests
+ * Runs db/migration against an empty database and against a copy of the schema ddl-auto built
+ * before versioned migrations, and checks both end up with the same schema.
+ */
+class FlywayMigrationTests {
+
+    private static final String PRE_SERIES_SCHEMA = "db/pre-series-schema.sql";
+
+    /** Columns, indexes, constraints and sequences, one sorted line each */
+    private static final String SCHEMA_SIGNATURE_SQL =
+            "SELECT 'column ' || table_name || '.' || column_name || ' ' || data_type || " +
+            "       coalesce('(' || character_maximum_length || ')', '') || ' ' || is_nullable AS line " +
+            "FROM information_schema.columns WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history' " +
+            "UNION ALL " +
+            "SELECT 'index ' || tablename || '.' || indexname || ' ' || " +
+            "       regexp_replace(indexdef, '^.* USING ', '') " +
+            "FROM pg_indexes WHERE schemaname = 'public' AND tablename <> 'flyway_schema_history' " +
+            "UNION ALL " +
+            "SELECT 'constraint ' || conrelid::regclass || '.' || lower(conname) || ' ' || pg_get_constraintdef(oid) " +
+            "FROM pg_constraint WHERE connamespace = 'public'::regnamespace " +
+            "  AND conrelid::regclass::text <> 'flyway_schema_history' " +
+            "UNION ALL " +
+            "SELECT 'sequence ' || sequencename || ' by ' || increment_by " +
+            "FROM pg_sequences WHERE schemaname = 'public' " +
+            "ORDER BY 1";
+
+    @Test
+    void v1IsExactlyThePreSeriesSchema() {
+        String migrated = TestDatabase.create("v1");
+        flyway(migrated).target("1").load().migrate();
+
+        String legacy = TestDatabase.create("legacy");
+        TestDatabase.runScript(legacy, PRE_SERIES_SCHEMA);
+
+        assertThat(signature(migrated)).containsExactlyElementsOf(signature(legacy));
+    }
+
+    @Test
+    void freshAndBaselinedDatabasesEndWithTheSameSchema() {
+        String fresh = TestDatabase.create("fresh");
+        flyway(fresh).load().migrate();
+
+        String legacy = TestDatabase.create("legacy");
+        TestDatabase.runScript(legacy, PRE_SERIES_SCHEMA);
+        flyway(legacy).load().migrate();
+
+        // Baselined at V1, then every later migration ran
+        assertThat(flyway(legacy).load().info().current().getVersion())
+                .isEqualTo(flyway(fresh).load().info().current().getVersion());
+
+        assertThat(signature(legacy)).containsExactlyElementsOf(signature(fresh));
+        assertThat(signature(fresh))
+                .contains("sequence bookings_id_seq by 50")
+                .contains("column branch_cities.city_code character varying(20) NO")
+                .doesNotContain("column branches.city_codes character varying(500) YES");
+    }
+
+    @Test
+    void baselinedDatabaseKeepsItsDataAndIdsContinueAfterIt() {
+        String legacy = TestDatabase.create("legacy");
+        TestDatabase.runScript(legacy, PRE_SERIES_SCHEMA);
+        JdbcTemplate jdbc = new JdbcTemplate(TestDatabase.dataSource(legacy));
+        jdbc.update("INSERT INTO cities (city_code, city_desc, active, created_at, updated_at) " +
+                "VALUES ('BLR', 'Bengaluru', true, now(), now()), ('MYS', 'Mysuru', true, now(), now())");
+        jdbc.update("INSERT INTO branches (branch_code, branch_desc, city_codes, active, created_at, updated_at) " +
+                "VALUES ('SOUTH', 'South', 'blr, MYS,BLR, ooty', true, now(), now())");
+        for (int i = 0; i < 3; i++) {
+            jdbc.update("INSERT INTO bookings (order_no) VALUES (?)", "ORD-" + i);
+        }
+
+        flyway(legacy).load().migrate();
+
+        assertThat(jdbc.queryForList("SELECT city_code FROM branch_cities ORDER BY city_code", String.class))
+                .containsExactly("BLR", "MYS");
+        // A code naming no city is kept for review rather than dropped with the column
+        assertThat(jdbc.queryForList("SELECT branch_code || ':' || city_code FROM branch_city_orphans", String.class))
+                .containsExactly("SOUTH:OOTY");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM bookings", Integer.class)).isEqualTo(3);
+
+        // Pooled optimizer: the first block handed out is nextval - 49 .. nextval
+        long firstOfNextBlock = jdbc.queryForObject("SELECT nextval('bookings_id_seq')", Long.class) - 49;
+        assertThat(firstOfNextBlock).isEqualTo(4);
+    }
+
+    @Test
+    void freshDatabaseHandsOutIdsFromOne() {
+        String fresh = TestDatabase.create("fresh");
+        flyway(fresh).load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(TestDatabase.dataSource(fresh));
+
+        for (String sequence : new String[] {"bookings_id_seq", "booking_logs_id_seq", "fetched_bookings_id_seq"}) {
+            long first = jdbc.queryForObject("SELECT nextval(CAST(? AS regclass))", Long.class, sequence);
+            assertThat(first - 49).as(sequence).isEqualTo(1);
+        }
+    }
+
+    private static org.flywaydb.core.api.configuration.FluentConfiguration flyway(String database) {
+        DataSource dataSource = TestDatabase.dataSource(database);
+        // Same settings as spring.flyway in application.yml
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1");
+    }
+
+    private static List<String> signature(String database) {
+        return new JdbcTemplate(TestDatabase.dataSource(database)).queryForList(SCHEMA_SIGNATURE_SQL, String.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.instafit.core.service;
+
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Auto Assignment Service Tests
+ * A day is planned against the jobs still to do: finished jobs neither use capacity nor get renumbered.
+ */
+@SpringBootTest(properties = "google.maps.api.key=")
+class AutoAssignmentServiceTests {
+
+    private static final String DATABASE = TestDatabase.create("autoassign");
+
+    private static final LocalDate DAY = LocalDate.of(2026, 4, 6);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private AutoAssignmentService autoAssignmentService;
+
+    @Autowired
+    private PincodeCentroidIndex pincodeCentroidIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE bookings, carpenters, pincodes, order_routes CASCADE");
+        pincode("560001", 12.975, 77.590);
+        pincode("560038", 12.978, 77.640);
+        carpenter("C1", "560001");
+        carpenter("C2", "560038");
+        pincodeCentroidIndex.refresh();
+
+        // C1 already finished two jobs today and has one still to do
+        job(1, "C1", "COMPLETED", 1, 12.976, 77.591);
+        job(2, "C1", "COMPLETED", 2, 12.974, 77.589);
+        job(3, "C1", "ASSIGNED", 3, 12.977, 77.592);
+
+        // Two new orders next to each carpenter
+        order(11, "560001", 12.973, 77.588);
+        order(12, "560001", 12.976, 77.594);
+        order(13, "560038", 12.979, 77.641);
+        order(14, "560038", 12.980, 77.638);
+    }
+
+    @Test
+    void finishedJobsDoNotUseCapacity() {
+        Map<String, Object> result = autoAssignmentService.commit(DAY, "BLR", null, 3, "ops");
+
+        assertThat(result).containsEntry("success", true).containsEntry("assignedCount", 4);
+        assertThat((List<?>) result.get("unassigned")).isEmpty();
+        assertThat(carpenterOf(11)).isEqualTo("C1");
+        assertThat(carpenterOf(12)).isEqualTo("C1");
+        assertThat(carpenterOf(13)).isEqualTo("C2");
+        assertThat(carpenterOf(14)).isEqualTo("C2");
+
+        // C1's open route is its remaining job plus the two new ones; finished jobs keep their numbers
+        assertThat(jdbcTemplate.queryForList("SELECT route_order FROM bookings WHERE id IN (3, 11, 12) " +
+                "ORDER BY route_order", Integer.class)).containsExactly(1, 2, 3);
+        assertThat(jdbcTemplate.queryForList("SELECT route_order FROM bookings WHERE id IN (1, 2) ORDER BY id",
+                Integer.class)).containsExactly(1, 2);
+        assertThat(jdbcTemplate.queryForList("SELECT carpenter_id FROM order_routes WHERE route_date = ? " +
+                "ORDER BY carpenter_id", String.class, Date.valueOf(DAY))).containsExactly("C1", "C2");
+    }
+
+    @Test
+    void previewWritesNothing() {
+        Map<String, Object> result = autoAssignmentService.preview(DAY, "BLR", null, 3);
+
+        assertThat(result).containsEntry("dryRun", true);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bookings WHERE assignment_status = 'SUBMITTED'",
+                Integer.class)).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM order_routes", Integer.class)).isZero();
+    }
+
+    private String carpenterOf(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT carpenter_id FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+
+    private void pincode(String pincode, double latitude, double longitude) {
+        jdbcTemplate.update("INSERT INTO pincodes (pincode, city_code, active, latitude, longitude, created_at, updated_at) " +
+                "VALUES (?, 'BLR', true, ?, ?, now(), now())", pincode, latitude, longitude);
+    }
+
+    private void carpenter(String carpenterId, String pincode) {
+        jdbcTemplate.update("INSERT INTO carpenters (carpenter_id, carpenter_name, mobile, city_code, pincode, active, " +
+                "created_at, updated_at) VALUES (?, ?, ?, 'BLR', ?, true, now(), now())",
+                carpenterId, "Carpenter " + carpenterId, "98000000" + carpenterId.substring(1), pincode);
+    }
+
+    private void job(long id, String carpenterId, String assignmentStatus, int routeOrder, double latitude, double longitude) {
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, address, date, carpenter_id, carpenter_name, " +
+                "assigned_date, assignment_status, route_order, latitude, longitude) " +
+                "VALUES (?, ?, 'Site - 560001', ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, "ORD" + id, Date.valueOf(DAY), carpenterId, "Carpenter " + carpenterId, Date.valueOf(DAY),
+                assignmentStatus, routeOrder, latitude, longitude);
+    }
+
+    private void order(long id, String pincode, double latitude, double longitude) {
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, address, date, assignment_status, latitude, longitude) " +
+                "VALUES (?, ?, ?, ?, 'SUBMITTED', ?, ?)",
+                id, "ORD" + id, "Flat " + id + ", Main Road - " + pincode, Date.valueOf(DAY), latitude, longitude);
+    }
+}
@@ -0,0 +1,111 @@
+package com.instafit.core.service;
+
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Booking Search Service Tests
+ * Slices follow the (score, id) cursor: every match exactly once, best first.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BookingSearchService.class)
+class BookingSearchServiceTests {
+
+    private static final String DATABASE = TestDatabase.create("search");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private BookingSearchService bookingSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cursorWalksEveryMatchOnceBestFirst() {
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, customer_name, customer_mobile, service_name) " +
+                "SELECT g, 'ORD' || g, CASE WHEN g % 3 = 0 THEN 'Ravi Kumar' ELSE 'Anil Ravindran' END, " +
+                "'98' || lpad(g::text, 8, '0'), 'Wardrobe fitting' FROM generate_series(1, 45) g");
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, customer_name, service_name) " +
+                "VALUES (100, 'ORD100', 'Meena', 'Shelf repair')");
+
+        List<Map<String, Object>> seen = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            Map<String, Object> slice = bookingSearchService.search("ravi", cursor, 10);
+            seen.addAll((List<Map<String, Object>>) slice.get("items"));
+            cursor = (String) slice.get("nextCursor");
+            assertThat(cursor != null).isEqualTo(slice.get("hasMore"));
+            slices++;
+        } while (cursor != null);
+
+        assertThat(slices).isEqualTo(5);
+        assertThat(seen).extracting(row -> row.get("id")).doesNotHaveDuplicates().hasSize(45);
+        for (int i = 1; i < seen.size(); i++) {
+            double previous = (Double) seen.get(i - 1).get("score");
+            double current = (Double) seen.get(i).get("score");
+            assertThat(current).isLessThanOrEqualTo(previous);
+            if (current == previous) {
+                assertThat((Long) seen.get(i).get("id")).isLessThan((Long) seen.get(i - 1).get("id"));
+            }
+        }
+        // Name prefix matches rank above the other matches
+        assertThat(seen.get(0).get("customerName")).isEqualTo("Ravi Kumar");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void broadQueriesRankAFixedSetThatKeepsExactMatches() {
+        // An old booking whose mobile is the query, behind 1500 newer rows that mention it
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, customer_name, customer_mobile, service_name) " +
+                "VALUES (1, 'ORD1', 'Lakshmi', '9845012345', 'Door repair')");
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, customer_name, service_name, address) " +
+                "SELECT g, 'ORD' || g, 'Customer ' || g, 'Shelf fitting', 'Near 9845012345 shop' " +
+                "FROM generate_series(2, 1501) g");
+
+        List<Map<String, Object>> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            Map<String, Object> slice = bookingSearchService.search("9845012345", cursor, 100);
+            seen.addAll((List<Map<String, Object>>) slice.get("items"));
+            cursor = (String) slice.get("nextCursor");
+        } while (cursor != null);
+
+        assertThat(seen.get(0).get("id")).isEqualTo(1L);
+        // The exact match plus the newest MAX_CANDIDATES substring matches, each once
+        assertThat(seen).extracting(row -> row.get("id")).doesNotHaveDuplicates().hasSize(1001);
+        assertThat(seen).extracting(row -> (Long) row.get("id")).filteredOn(id -> id != 1L)
+                .allMatch(id -> id > 501);
+
+        Map<String, Object> byOrderNo = bookingSearchService.search("ord1", null, 10);
+        assertThat(((List<Map<String, Object>>) byOrderNo.get("items")).get(0).get("orderNo")).isEqualTo("ORD1");
+    }
+
+    @Test
+    void rejectsShortQueriesAndBadCursors() {
+        assertThatThrownBy(() -> bookingSearchService.search("ra", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bookingSearchService.search("ravi", "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
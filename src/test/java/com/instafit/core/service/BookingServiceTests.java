@@ -0,0 +1,193 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.BookingFilter;
+import com.instafit.core.dto.BookingListItem;
+import com.instafit.core.dto.BookingListPage;
+import com.instafit.core.dto.BookingSyncSummary;
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.RequestMatcher;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Booking Service Tests
+ * The sync cursor moves past dead-lettered rows, which a later run fetches again by order number;
+ * the booking list walks every row exactly once.
+ */
+@SpringBootTest(properties = "app.supabase.sync.page-size=2")
+class BookingServiceTests {
+
+    private static final String DATABASE = TestDatabase.create("bookingservice");
+
+    private static final String ROW_A = row("SYNC-A", "2026-03-01T09:00:00.250113+00:00", "2026-03-05");
+    private static final String ROW_B_BROKEN = row("SYNC-B", "2026-03-01T10:00:00.250113+00:00", "05/03/2026");
+    private static final String ROW_B_FIXED = row("SYNC-B", "2026-03-01T10:00:00.250113+00:00", "2026-03-05");
+    private static final String ROW_C = row("SYNC-C", "2026-03-01T11:00:00.250113+00:00", "2026-03-06");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockRestServiceServer supabase;
+
+    @BeforeEach
+    void mockSupabase() {
+        supabase = MockRestServiceServer.bindTo(restTemplate).build();
+        jdbcTemplate.update("DELETE FROM booking_sync_failures");
+        jdbcTemplate.update("DELETE FROM booking_sync_state");
+    }
+
+    @Test
+    void failedRowsAreDeadLetteredAndRetriedByOrderNumber() {
+        // First run: two full pages, the second short; the cursor passes the broken row
+        supabase.expect(query("order=created_at.asc,order_no.asc")).andExpect(noCursor())
+                .andRespond(withSuccess("[" + ROW_A + "," + ROW_B_BROKEN + "]", MediaType.APPLICATION_JSON));
+        supabase.expect(query("or=(created_at.gt.\"2026-03-01T10:00:00.250113+00:00\",and(created_at.eq.\"" +
+                        "2026-03-01T10:00:00.250113+00:00\",order_no.gt.\"SYNC-B\"))"))
+                .andRespond(withSuccess("[" + ROW_C + "]", MediaType.APPLICATION_JSON));
+
+        BookingSyncSummary first = bookingService.fetchAndSaveBookings();
+
+        supabase.verify();
+        assertThat(first.getPages()).isEqualTo(2);
+        assertThat(first.getNewCount()).isEqualTo(2);
+        assertThat(first.getFailedCount()).isEqualTo(1);
+        assertThat(orderNos()).containsExactly("SYNC-A", "SYNC-C");
+        assertThat(jdbcTemplate.queryForList("SELECT order_no FROM booking_sync_failures", String.class))
+                .containsExactly("SYNC-B");
+        assertThat(jdbcTemplate.queryForMap("SELECT last_created_at, last_order_no FROM booking_sync_state"))
+                .containsEntry("last_created_at", "2026-03-01T11:00:00.250113+00:00")
+                .containsEntry("last_order_no", "SYNC-C");
+
+        // Second run: the source row was fixed; it is fetched by order number, then nothing is new
+        supabase.reset();
+        supabase.expect(query("order_no=in.(\"SYNC-B\")")).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[" + ROW_B_FIXED + "]", MediaType.APPLICATION_JSON));
+        supabase.expect(query("order_no.gt.\"SYNC-C\""))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        BookingSyncSummary second = bookingService.fetchAndSaveBookings();
+
+        supabase.verify();
+        assertThat(second.getRetriedCount()).isEqualTo(1);
+        assertThat(second.getRecoveredCount()).isEqualTo(1);
+        assertThat(second.getNewCount()).isEqualTo(1);
+        assertThat(second.getFailedCount()).isZero();
+        assertThat(orderNos()).containsExactly("SYNC-A", "SYNC-B", "SYNC-C");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM booking_sync_failures", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void rowsThatKeepFailingDoNotStarveTheRest() {
+        // Page size 2: only two dead letters are retried per run
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("INSERT INTO booking_sync_failures (row_key, order_no, raw_row, error, attempts, " +
+                    "first_failed_at, last_failed_at) VALUES (?, ?, '{}', 'bad date', 1, now(), now() - ? * interval '1 hour')",
+                    "STUCK-" + i, "STUCK-" + i, 10 - i);
+        }
+
+        // The source no longer returns the two longest waiting rows
+        supabase.expect(query("order_no=in.(\"STUCK-1\",\"STUCK-2\")"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        supabase.expect(query("order=created_at.asc,order_no.asc"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        bookingService.fetchAndSaveBookings();
+        supabase.verify();
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT attempts FROM booking_sync_failures ORDER BY order_no", Integer.class))
+                .containsExactly(2, 2, 1);
+
+        // The next run reaches the row behind them first
+        supabase.reset();
+        supabase.expect(query("order_no=in.(\"STUCK-3\",\"STUCK-1\")"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        supabase.expect(query("order=created_at.asc,order_no.asc"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        bookingService.fetchAndSaveBookings();
+        supabase.verify();
+    }
+
+    @Test
+    void listCursorWalksEveryBookingOnceNewestFirst() {
+        // Ties on created_at and rows without one, which sort first
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, customer_name, status, created_at) " +
+                "SELECT 900000 + g, 'LIST' || g, 'Customer ' || g, CASE WHEN g % 2 = 0 THEN 'Submitted' ELSE 'Pending' END, " +
+                "CASE WHEN g % 7 = 0 THEN NULL ELSE timestamp '2026-02-01 08:00' + (g / 3) * interval '1 hour' END " +
+                "FROM generate_series(1, 40) g");
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM bookings ORDER BY created_at DESC NULLS FIRST, id DESC", Long.class);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingListPage page = bookingService.listBookings(new BookingFilter(), cursor, 6);
+            for (BookingListItem item : page.getItems()) {
+                seen.add(item.getId());
+            }
+            cursor = page.getNextCursor();
+            assertThat(cursor != null).isEqualTo(page.isHasMore());
+        } while (cursor != null);
+
+        assertThat(seen).isEqualTo(expected);
+    }
+
+    private List<String> orderNos() {
+        return jdbcTemplate.queryForList(
+                "SELECT order_no FROM bookings WHERE order_no LIKE 'SYNC-%' ORDER BY order_no", String.class);
+    }
+
+    /**
+     * Matches a request whose decoded query contains the given text
+     */
+    private static RequestMatcher query(String text) {
+        return request -> assertThat(decode(request.getURI().getRawQuery())).contains(text);
+    }
+
+    private static RequestMatcher noCursor() {
+        return request -> assertThat(decode(request.getURI().getRawQuery())).doesNotContain("or=");
+    }
+
+    private static String decode(String query) {
+        try {
+            return URLDecoder.decode(query.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String row(String orderNo, String createdAt, String date) {
+        return "{\"order_no\":\"" + orderNo + "\",\"customer_name\":\"Customer " + orderNo + "\"," +
+                "\"service_name\":\"Wardrobe fitting\",\"status\":\"Pending\",\"date\":\"" + date + "\"," +
+                "\"service_types\":[\"fitting\"],\"created_at\":\"" + createdAt + "\"}";
+    }
+}
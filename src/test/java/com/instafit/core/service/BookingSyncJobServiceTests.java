@@ -0,0 +1,120 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.BookingSyncSummary;
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Booking Sync Job Service Tests
+ * One sync at a time per JVM (joined, never doubled) and per database (advisory lock).
+ */
+class BookingSyncJobServiceTests {
+
+    private static final long LOCK_KEY = 7263001;
+
+    private final DataSource dataSource = TestDatabase.dataSource(TestDatabase.create("syncjob"));
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BookingService bookingService;
+
+    private BookingSyncJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = mock(BookingService.class);
+        when(bookingService.fetchAndSaveBookings()).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return new BookingSyncSummary();
+        });
+
+        jobService = new BookingSyncJobService();
+        ReflectionTestUtils.setField(jobService, "bookingService", bookingService);
+        ReflectionTestUtils.setField(jobService, "dataSource", dataSource);
+        ReflectionTestUtils.setField(jobService, "useAdvisoryLock", true);
+        ReflectionTestUtils.setField(jobService, "advisoryLockKey", LOCK_KEY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void triggersWhileRunningJoinTheRunningJob() throws Exception {
+        BookingSyncJobService.SyncJob first = jobService.trigger("SCHEDULER", false);
+        BookingSyncJobService.SyncJob second = jobService.trigger("ops", false);
+        BookingSyncJobService.SyncJob full = jobService.trigger("ops", true);
+
+        assertThat(second).isSameAs(first);
+        // The running incremental job is returned as is; callers must see the rewind was not applied
+        assertThat(full).isSameAs(first);
+        assertThat(full.isFullResync()).isFalse();
+
+        release.countDown();
+        awaitFinished(first);
+        assertThat(first.getStatus()).isEqualTo("COMPLETED");
+        verify(bookingService, times(1)).fetchAndSaveBookings();
+        verify(bookingService, never()).resetSyncCursor();
+    }
+
+    @Test
+    void fullResyncRewindsTheCursorFirst() throws Exception {
+        release.countDown();
+
+        BookingSyncJobService.SyncJob job = jobService.trigger("ops", true);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        InOrder inOrder = inOrder(bookingService);
+        inOrder.verify(bookingService).resetSyncCursor();
+        inOrder.verify(bookingService).fetchAndSaveBookings();
+    }
+
+    @Test
+    void anotherNodeHoldingTheLockSkipsTheRun() throws Exception {
+        release.countDown();
+        try (Connection otherNode = dataSource.getConnection()) {
+            try (PreparedStatement ps = otherNode.prepareStatement("SELECT pg_advisory_lock(?)")) {
+                ps.setLong(1, LOCK_KEY);
+                ps.execute();
+            }
+
+            BookingSyncJobService.SyncJob job = jobService.trigger("SCHEDULER", false);
+            awaitFinished(job);
+
+            assertThat(job.getStatus()).isEqualTo("SKIPPED");
+            verify(bookingService, never()).fetchAndSaveBookings();
+        }
+
+        // Released with the other node's connection
+        BookingSyncJobService.SyncJob next = jobService.trigger("SCHEDULER", false);
+        awaitFinished(next);
+        assertThat(next.getStatus()).isEqualTo("COMPLETED");
+    }
+
+    // Finished and released, so the next trigger starts a new job
+    private void awaitFinished(BookingSyncJobService.SyncJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((job.getFinishedAt() == null || jobService.getCurrentJob() != null)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getFinishedAt()).as("job %s finished", job.getJobId()).isNotNull();
+        assertThat(jobService.getCurrentJob()).isNull();
+    }
+}
@@ -0,0 +1,140 @@
+package com.instafit.core.service;
+
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carpenter Daily Stats Service Tests
+ * Flushed deltas match bookings; reconciliation neither double counts pending deltas nor misses drift.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CarpenterDailyStatsService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CarpenterDailyStatsServiceTests {
+
+    private static final String DATABASE = TestDatabase.create("dailystats");
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private static final String ROLLUP_SQL =
+            "SELECT carpenter_id || '/' || stat_date || '/' || assignment_status || '=' || job_count " +
+            "FROM carpenter_daily_stats WHERE job_count <> 0 ORDER BY 1";
+
+    private static final String SOURCE_SQL =
+            "SELECT carpenter_id || '/' || assigned_date || '/' || assignment_status || '=' || COUNT(*) FROM bookings " +
+            "WHERE carpenter_id IS NOT NULL GROUP BY carpenter_id, assigned_date, assignment_status ORDER BY 1";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private CarpenterDailyStatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyTables() {
+        jdbcTemplate.execute("TRUNCATE bookings, carpenter_daily_stats CASCADE");
+        // Also drops whatever an earlier test left pending
+        statsService.reconcile();
+    }
+
+    @Test
+    void flushedDeltasMatchBookings() {
+        assign(1, "C1", MONDAY);
+        assign(2, "C1", MONDAY);
+        assign(3, "C2", MONDAY);
+        // Job 2 moves to C2 on Tuesday, job 3 is completed
+        move(2, "C1", MONDAY, "ASSIGNED", "C2", TUESDAY, "ASSIGNED");
+        move(3, "C2", MONDAY, "ASSIGNED", "C2", MONDAY, "COMPLETED");
+
+        statsService.flush();
+
+        assertThat(rollup()).containsExactly(
+                "C1/2026-03-02/ASSIGNED=1", "C2/2026-03-02/COMPLETED=1", "C2/2026-03-03/ASSIGNED=1");
+        assertThat(rollup()).isEqualTo(source());
+        Map<String, Object> result = statsService.reconcile();
+        assertThat(result).containsEntry("driftedRows", 0).containsEntry("droppedDeltas", 0);
+    }
+
+    @Test
+    void deltasPendingAtReconcileAreNotCountedTwice() {
+        assign(1, "C1", MONDAY);
+        statsService.flush();
+        assign(2, "C1", MONDAY);
+        move(1, "C1", MONDAY, "ASSIGNED", "C1", MONDAY, "COMPLETED");
+        long generation = (Long) statsService.getStatus().get("generation");
+
+        Map<String, Object> result = statsService.reconcile();
+
+        assertThat(result).containsEntry("driftedRows", 0);
+        assertThat((Integer) result.get("droppedDeltas")).isPositive();
+        assertThat(statsService.getStatus())
+                .containsEntry("pendingDeltas", 0)
+                .containsEntry("generation", generation + 1);
+        statsService.flush();
+        assertThat(rollup()).containsExactly("C1/2026-03-02/ASSIGNED=1", "C1/2026-03-02/COMPLETED=1");
+        assertThat(rollup()).isEqualTo(source());
+    }
+
+    @Test
+    void driftIsReportedAndRebuilt() {
+        assign(1, "C1", MONDAY);
+        assign(2, "C2", MONDAY);
+        statsService.flush();
+        jdbcTemplate.update("UPDATE carpenter_daily_stats SET job_count = 5 WHERE carpenter_id = 'C2'");
+
+        Map<String, Object> result = statsService.reconcile();
+
+        assertThat(result).containsEntry("driftedRows", 1);
+        assertThat((List<?>) result.get("samples")).hasSize(1);
+        assertThat(rollup()).isEqualTo(source());
+    }
+
+    /**
+     * Assign a new job, as the assignment service does: write the booking, then publish
+     */
+    private void assign(long id, String carpenterId, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, carpenter_id, assigned_date, assignment_status) " +
+                "VALUES (?, ?, ?, ?, 'ASSIGNED')", id, "ORD" + id, carpenterId, Date.valueOf(date));
+        statsService.onJobTransition(new JobTransitionEvent(null, null, null, carpenterId, date, "ASSIGNED"));
+    }
+
+    private void move(long id, String fromCarpenterId, LocalDate fromDate, String fromStatus,
+                      String toCarpenterId, LocalDate toDate, String toStatus) {
+        jdbcTemplate.update("UPDATE bookings SET carpenter_id = ?, assigned_date = ?, assignment_status = ? WHERE id = ?",
+                toCarpenterId, Date.valueOf(toDate), toStatus, id);
+        statsService.onJobTransition(new JobTransitionEvent(fromCarpenterId, fromDate, fromStatus,
+                toCarpenterId, toDate, toStatus));
+    }
+
+    private List<String> rollup() {
+        return jdbcTemplate.queryForList(ROLLUP_SQL, String.class);
+    }
+
+    private List<String> source() {
+        return jdbcTemplate.queryForList(SOURCE_SQL, String.class);
+    }
+}
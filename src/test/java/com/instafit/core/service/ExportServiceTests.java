@@ -0,0 +1,102 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.BookingFilter;
+import com.instafit.core.support.TestDatabase;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Export Service Tests
+ * Exports honour the bookings filter, keep CSV safe to open in a spreadsheet and produce readable XLSX.
+ */
+@SpringBootTest(properties = "google.maps.api.key=")
+class ExportServiceTests {
+
+    private static final String DATABASE = TestDatabase.create("export");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        booking(1, "EXP1", "=HYPERLINK(\"http://x\")", "1 Main Road, Indiranagar", "2026-10-01", "SUBMITTED");
+        booking(2, "EXP2", "Asha Rao", "2 Lake View", "2026-10-02", "SUBMITTED");
+        booking(3, "EXP3", "Ravi Kumar", "3 Hill Road", "2026-09-01", "COMPLETED");
+    }
+
+    @Test
+    void csvFollowsTheFilterAndNeutralisesFormulas() throws Exception {
+        BookingFilter filter = new BookingFilter();
+        filter.setAssignmentStatus("SUBMITTED");
+        filter.setDateFrom(LocalDate.of(2026, 10, 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export("bookings", filter, ExportService.FORMAT_CSV, out);
+
+        String csv = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        String[] lines = csv.substring(1).split("\r\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(csv).startsWith("\uFEFF");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("ID,Order No,Date,");
+        assertThat(csv).contains("\"'=HYPERLINK(\"\"http://x\"\")\"")
+                .contains("\"1 Main Road, Indiranagar\"")
+                .doesNotContain("EXP3");
+    }
+
+    @Test
+    void xlsxHasAHeaderRowAndTypedCells() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export("bookings", null, ExportService.FORMAT_XLSX, out);
+
+        assertThat(rows).isEqualTo(3);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("bookings");
+            assertThat(sheet.getLastRowNum()).isEqualTo(3);
+            assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("Order No");
+            Row newest = sheet.getRow(1);
+            assertThat(newest.getCell(0).getNumericCellValue()).isEqualTo(900003);
+            assertThat(newest.getCell(1).getStringCellValue()).isEqualTo("EXP3");
+        }
+    }
+
+    @Test
+    void unknownDatasetsAndFormatsAreRejected() {
+        assertThatThrownBy(() -> exportService.validate("users", ExportService.FORMAT_CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> exportService.validate("bookings", "pdf"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void booking(long id, String orderNo, String customer, String address, String date, String assignmentStatus) {
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, customer_name, address, date, assignment_status, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, now() + ? * interval '1 second')",
+                900000 + id, orderNo, customer, address, java.sql.Date.valueOf(date), assignmentStatus, id);
+    }
+}
@@ -0,0 +1,87 @@
+package com.instafit.core.service;
+
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Geocode Correction Tests
+ * Correcting a booking's address or location replaces what the geocode cache serves for it.
+ */
+@SpringBootTest(properties = "google.maps.api.key=")
+class GeocodeCorrectionTests {
+
+    private static final String DATABASE = TestDatabase.create("geocodefix");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private CarpenterAssignmentService carpenterAssignmentService;
+
+    @Autowired
+    private GeocodeCacheService geocodeCacheService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void manualLocationReplacesTheCachedGeocode() {
+        String address = "12 MG Road, Indiranagar - 560038";
+        String key = addressKey(address);
+        geocodeCacheService.put(key, "ADDRESS", location(28.61, 77.21));
+        long bookingId = booking(1, address);
+
+        carpenterAssignmentService.updateCoordinatesDirectly(bookingId, 12.978, 77.640, "ops");
+
+        Optional<Map<String, Object>> cached = geocodeCacheService.get(key);
+        assertThat(cached).isPresent();
+        assertThat(cached.get()).containsEntry("latitude", 12.978).containsEntry("longitude", 77.640);
+        assertThat(jdbcTemplate.queryForObject("SELECT latitude FROM geocode_cache WHERE cache_key = ?",
+                Double.class, key)).isEqualTo(12.978);
+    }
+
+    @Test
+    void correctedAddressIsNoLongerServedFromTheCache() {
+        String address = "4 Church Street - 560001";
+        String key = addressKey(address);
+        geocodeCacheService.put(key, "ADDRESS", location(28.61, 77.21));
+        long bookingId = booking(2, address);
+
+        carpenterAssignmentService.updateAddressAndGeocode(bookingId, "4 Church Street, Bengaluru - 560001", "ops");
+
+        assertThat(geocodeCacheService.get(key)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM geocode_cache WHERE cache_key = ?",
+                Integer.class, key)).isZero();
+    }
+
+    private String addressKey(String address) {
+        return geocodeCacheService.addressKey(BookingAddressFormatter.toGeocodeAddress(address));
+    }
+
+    private long booking(long id, String address) {
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, address, geocode_status) VALUES (?, ?, ?, 'SUCCESS')",
+                800000 + id, "GEO" + id, address);
+        return 800000 + id;
+    }
+
+    private static Map<String, Object> location(double latitude, double longitude) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("latitude", latitude);
+        result.put("longitude", longitude);
+        return result;
+    }
+}
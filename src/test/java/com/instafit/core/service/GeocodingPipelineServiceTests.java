@@ -0,0 +1,120 @@
+package com.instafit.core.service;
+
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Geocoding Pipeline Service Tests
+ * Queued bookings are resolved in the background, falling back to the pincode centroid,
+ * without overwriting a location fixed by hand in the meantime.
+ */
+@SpringBootTest(properties = "google.maps.api.key=")
+class GeocodingPipelineServiceTests {
+
+    private static final String DATABASE = TestDatabase.create("geopipeline");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private GeocodingPipelineService geocodingPipelineService;
+
+    @Autowired
+    private GeocodeCacheService geocodeCacheService;
+
+    @Autowired
+    private PincodeCentroidIndex pincodeCentroidIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM pincodes");
+        jdbcTemplate.update("INSERT INTO pincodes (pincode, city_code, active, latitude, longitude, created_at, updated_at) " +
+                "VALUES ('560038', 'BLR', true, 12.9784, 77.6408, now(), now())");
+        pincodeCentroidIndex.refresh();
+    }
+
+    @Test
+    void queuedBookingsAreResolvedInTheBackground() throws InterruptedException {
+        String cachedAddress = "12 MG Road, Ashok Nagar - 560001";
+        geocodeCacheService.put(geocodeCacheService.addressKey(BookingAddressFormatter.toGeocodeAddress(cachedAddress)),
+                "ADDRESS", location(12.9756, 77.6066));
+        booking(1, cachedAddress, "QUEUED");
+        booking(2, "45 CMH Road, Indiranagar - 560038", "QUEUED");
+        booking(3, "Plot 9, Unknown Layout - 999999", "QUEUED");
+
+        geocodingPipelineService.submitAfterCommit(Arrays.asList(1L, 2L, 3L));
+        awaitDrained(1L, 2L, 3L);
+
+        assertThat(status(1)).isEqualTo("SUCCESS");
+        assertThat(jdbcTemplate.queryForObject("SELECT latitude FROM bookings WHERE id = 1", Double.class)).isEqualTo(12.9756);
+        assertThat(status(2)).isEqualTo("SUCCESS_PINCODE");
+        assertThat(jdbcTemplate.queryForObject("SELECT latitude FROM bookings WHERE id = 2", Double.class)).isEqualTo(12.9784);
+        assertThat(status(3)).isEqualTo("FAILED");
+    }
+
+    @Test
+    void sweepPicksUpQueuedRowsAndLeavesManualFixesAlone() throws InterruptedException {
+        booking(4, "45 CMH Road, Indiranagar - 560038", "QUEUED");
+        booking(5, "7 Double Road, Indiranagar - 560038", "SUCCESS");
+        jdbcTemplate.update("UPDATE bookings SET latitude = 12.97, longitude = 77.64 WHERE id = 5");
+
+        // Booking 4 was never handed over in memory, as after a restart
+        geocodingPipelineService.recoverQueued();
+        geocodingPipelineService.submit(Arrays.asList(5L));
+        awaitDrained(4L, 5L);
+
+        assertThat(status(4)).isEqualTo("SUCCESS_PINCODE");
+        assertThat(status(5)).isEqualTo("SUCCESS");
+        assertThat(jdbcTemplate.queryForObject("SELECT latitude FROM bookings WHERE id = 5", Double.class)).isEqualTo(12.97);
+    }
+
+    private void awaitDrained(Long... bookingIds) throws InterruptedException {
+        List<Long> ids = Arrays.asList(bookingIds);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            geocodingPipelineService.flush();
+            boolean queued = geocodingPipelineService.getProgress(ids).stream()
+                    .anyMatch(row -> GeocodingPipelineService.STATUS_QUEUED.equals(row.get("geocodeStatus")));
+            if (!queued && ((Number) geocodingPipelineService.getStats().get("inFlight")).intValue() == 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private String status(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT geocode_status FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+
+    private void booking(long id, String address, String geocodeStatus) {
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, address, geocode_status) VALUES (?, ?, ?, ?)",
+                id, "PIPE" + id, address, geocodeStatus);
+    }
+
+    private static Map<String, Object> location(double latitude, double longitude) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("latitude", latitude);
+        result.put("longitude", longitude);
+        return result;
+    }
+}
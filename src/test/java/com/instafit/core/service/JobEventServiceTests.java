@@ -0,0 +1,132 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.Booking;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Job Event Service Tests
+ * Reconnecting clients get exactly the events they missed, or a reset when the buffer no longer has them.
+ */
+class JobEventServiceTests {
+
+    private final JobEventService jobEventService = new JobEventService();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jobEventService, "bufferSize", 3);
+        ReflectionTestUtils.setField(jobEventService, "emitterTimeoutMs", 60000L);
+        jobEventService.start();
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(jobEventService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobEventService.stop();
+    }
+
+    @Test
+    void reconnectReplaysOnlyTheMissedEvents() throws Exception {
+        long before = publish(5);
+
+        // The buffer keeps events 3 to 5; the client saw up to 3
+        MockHttpServletResponse response = subscribe(before + 3);
+        String stream = await(response, body -> body.contains("id:" + (before + 5)) && body.endsWith("\n\n"));
+
+        assertThat(stream).doesNotContain("id:" + (before + 3) + "\n").contains("id:" + (before + 4) + "\n");
+        assertThat(stream).doesNotContain("event:reset");
+    }
+
+    @Test
+    void clientsTooFarBehindAreToldToReload() throws Exception {
+        long before = publish(5);
+
+        // Events 1 and 2 have left the buffer
+        String stream = await(subscribe(before + 1), body -> body.contains("event:reset"));
+
+        assertThat(stream).doesNotContain("id:");
+        // An id from before this process started cannot be replayed either
+        assertThat(await(subscribe(before - 1000), body -> body.contains("event:reset"))).doesNotContain("id:");
+    }
+
+    @Test
+    void liveSubscribersReceiveNewEvents() throws Exception {
+        MockHttpServletResponse response = subscribe(null);
+        long before = publish(1);
+
+        String stream = await(response, body -> body.contains("id:" + (before + 1)) && body.endsWith("\n\n"));
+
+        assertThat(stream).contains("\"type\":\"ASSIGNED\"").contains("\"orderNo\":\"ORD1\"");
+    }
+
+    /**
+     * Publish count events and wait until they are buffered; returns the id before the first
+     */
+    private long publish(int count) throws InterruptedException {
+        long before = jobEventService.currentEventId();
+        for (int i = 1; i <= count; i++) {
+            Booking booking = new Booking();
+            booking.setId((long) i);
+            booking.setOrderNo("ORD" + i);
+            booking.setAssignmentStatus("ASSIGNED");
+            jobEventService.publishAfterCommit(JobEventService.ASSIGNED, booking, "SUBMITTED");
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jobEventService.currentEventId() < before + count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return before;
+    }
+
+    private MockHttpServletResponse subscribe(Long lastEventId) throws Exception {
+        MvcResult result = mockMvc.perform(lastEventId != null
+                        ? get("/stream").param("lastEventId", String.valueOf(lastEventId))
+                        : get("/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private static String await(MockHttpServletResponse response, Predicate<String> done) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = response.getContentAsString();
+        while (!done.test(body) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = response.getContentAsString();
+        }
+        assertThat(done.test(body)).as("stream so far: %s", body).isTrue();
+        return body;
+    }
+
+    @RestController
+    static class StreamController {
+        private final JobEventService jobEventService;
+
+        StreamController(JobEventService jobEventService) {
+            this.jobEventService = jobEventService;
+        }
+
+        @GetMapping(value = "/stream", produces = "text/event-stream")
+        public SseEmitter stream(@RequestParam(value = "lastEventId", required = false) Long lastEventId) {
+            return jobEventService.subscribe(lastEventId);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.City;
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Master Data Cache Tests
+ * Writes are visible as soon as they commit, the active list ETag follows its content,
+ * and lookups never hand out the shared cached entity.
+ */
+@SpringBootTest(properties = "google.maps.api.key=")
+class MasterDataCacheTests {
+
+    private static final String DATABASE = TestDatabase.create("masterdata");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private MasterDataCache masterDataCache;
+
+    @Autowired
+    private CityService cityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM cities WHERE city_code LIKE 'T%'");
+        masterDataCache.refresh(MasterDataCache.Table.CITIES);
+    }
+
+    @Test
+    void etagChangesWithTheActiveListAndAnswers304WhileItMatches() {
+        ResponseEntity<byte[]> first = activeCities(null);
+        String etag = first.getHeaders().getETag();
+        assertThat(first.getStatusCodeValue()).isEqualTo(200);
+        assertThat(activeCities(etag).getStatusCodeValue()).isEqualTo(304);
+
+        City created = cityService.createCity(new City("TMYS", "Mysuru"), "ops");
+
+        ResponseEntity<byte[]> afterCreate = activeCities(etag);
+        assertThat(afterCreate.getStatusCodeValue()).isEqualTo(200);
+        assertThat(afterCreate.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(new String(afterCreate.getBody(), StandardCharsets.UTF_8)).contains("TMYS");
+
+        cityService.toggleActive(created.getId(), "ops");
+
+        assertThat(masterDataCache.getActiveCities()).extracting(City::getCityCode).doesNotContain("TMYS");
+        assertThat(masterDataCache.getCities()).extracting(City::getCityCode).contains("TMYS");
+        // Back to the original active list, so back to the original ETag
+        assertThat(activeCities(etag).getStatusCodeValue()).isEqualTo(304);
+    }
+
+    @Test
+    void lookupsReturnCopies() {
+        cityService.createCity(new City("TMNG", "Mangaluru"), "ops");
+
+        City city = cityService.getCityByCode("TMNG");
+        city.setCityDesc("Changed by a caller");
+
+        assertThat(cityService.getCityByCode("TMNG").getCityDesc()).isEqualTo("Mangaluru");
+    }
+
+    @Test
+    void periodicRefreshPicksUpWritesFromOtherInstances() {
+        jdbcTemplate.update("INSERT INTO cities (city_code, city_desc, active, created_at, updated_at) " +
+                "VALUES ('THBL', 'Hubballi', true, now(), now())");
+        assertThat(masterDataCache.cityExists("THBL")).isFalse();
+
+        masterDataCache.refreshAll();
+
+        assertThat(masterDataCache.cityExists("THBL")).isTrue();
+    }
+
+    private ResponseEntity<byte[]> activeCities(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/master/cities/active");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return masterDataCache.activeJsonResponse(MasterDataCache.Table.CITIES,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+}
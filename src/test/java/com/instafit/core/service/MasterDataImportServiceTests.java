@@ -0,0 +1,132 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.ImportReport;
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Master Data Import Service Tests
+ * Every data row ends up imported, skipped or failed; a bad row in a batch fails alone.
+ */
+@DataJpaTest(properties = "app.import.max-file-size-mb=1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({MasterDataImportService.class, MasterDataCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MasterDataImportServiceTests {
+
+    private static final String DATABASE = TestDatabase.create("masterimport");
+
+    private static final MasterDataImportService.Definition PROBES =
+            MasterDataImportService.Definition.codeAndDescription("Probes", "Probe", "import_probes",
+                    "probe_code", "probe_desc");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private MasterDataImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void scratchTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS import_probes");
+        jdbcTemplate.execute("CREATE TABLE import_probes (probe_code VARCHAR(20) PRIMARY KEY, " +
+                "probe_desc VARCHAR(200) NOT NULL CHECK (probe_desc <> 'REJECTED'), active BOOLEAN, " +
+                "created_by VARCHAR(100), updated_by VARCHAR(100), created_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO import_probes (probe_code, probe_desc) VALUES ('OLD', 'Already there')");
+    }
+
+    @Test
+    void everyRowIsAccountedFor() throws Exception {
+        ImportReport report = importService.importFile(csv(
+                "code,description",
+                "a1,First",          // row 2: imported
+                "b2,Second",         // row 3: imported
+                "A1,Again",          // row 4: duplicate of row 2 once upper-cased
+                ",No code",          // row 5: rejected by validation
+                "old,Existing",      // row 6: key already in the table
+                "c3,REJECTED",       // row 7: violates the CHECK, fails on its own
+                "d4,Fourth"), PROBES, "tester");
+
+        assertThat(report.getTotalRows()).isEqualTo(7);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getSkipped()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors())
+                .extracting(ImportReport.RowError::getRow)
+                .containsExactlyInAnyOrder(4, 5, 6, 7);
+        assertThat(report.getErrors())
+                .filteredOn(error -> error.getRow() == 4)
+                .extracting(ImportReport.RowError::getMessage)
+                .containsExactly("Duplicate of row 2: A1");
+        assertThat(report.getErrors())
+                .filteredOn(error -> error.getRow() == 7)
+                .extracting(ImportReport.RowError::getMessage)
+                .allMatch(message -> message.startsWith("Not saved: "));
+
+        assertThat(jdbcTemplate.queryForList("SELECT probe_code FROM import_probes ORDER BY probe_code", String.class))
+                .containsExactly("A1", "B2", "D4", "OLD");
+        assertThat(jdbcTemplate.queryForMap("SELECT probe_desc, created_by FROM import_probes WHERE probe_code = 'OLD'"))
+                .containsEntry("probe_desc", "Already there")
+                .containsEntry("created_by", null);
+    }
+
+    @Test
+    void badRowsAcrossBatchesFailAlone() throws Exception {
+        StringBuilder file = new StringBuilder("code,description\n");
+        for (int i = 1; i <= 2500; i++) {
+            file.append("P").append(i).append(',').append(i % 700 == 0 ? "REJECTED" : "Probe " + i).append('\n');
+        }
+
+        ImportReport report = importService.importFile(new MockMultipartFile("file", "probes.csv", "text/csv",
+                file.toString().getBytes(StandardCharsets.UTF_8)), PROBES, "tester");
+
+        assertThat(report.getTotalRows()).isEqualTo(2500);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(2497);
+        assertThat(report.getErrors())
+                .extracting(ImportReport.RowError::getRow)
+                .containsExactlyInAnyOrder(701, 1401, 2101);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM import_probes", Integer.class))
+                .isEqualTo(2498);
+    }
+
+    @Test
+    void oversizedFilesAreRejectedAsBadInput() {
+        byte[] content = new byte[1024 * 1024 + 1];
+        MockMultipartFile file = new MockMultipartFile("file", "probes.csv", "text/csv", content);
+
+        assertThatThrownBy(() -> importService.importFile(file, PROBES, "tester"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File is larger than 1 MB");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM import_probes", Integer.class)).isEqualTo(1);
+    }
+
+    private static MockMultipartFile csv(String... lines) {
+        return new MockMultipartFile("file", "probes.csv", "text/csv",
+                (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
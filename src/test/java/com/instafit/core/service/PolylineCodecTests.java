@@ -0,0 +1,70 @@
+package com.instafit.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Polyline Codec Tests
+ * Round trips at 1e-5 precision and the example from Google's format description.
+ */
+class PolylineCodecTests {
+
+    private static final String GOOGLE_EXAMPLE = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+
+    @Test
+    void matchesGooglesExample() {
+        List<double[]> points = Arrays.asList(
+                new double[]{38.5, -120.2}, new double[]{40.7, -120.95}, new double[]{43.252, -126.453});
+
+        assertThat(PolylineCodec.encode(points)).isEqualTo(GOOGLE_EXAMPLE);
+        assertPoints(PolylineCodec.decode(GOOGLE_EXAMPLE), points);
+    }
+
+    @Test
+    void roundTripsRandomPointsToFiveDecimals() {
+        Random random = new Random(42);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180});
+        }
+
+        List<double[]> decoded = PolylineCodec.decode(PolylineCodec.encode(points));
+
+        assertPoints(decoded, points);
+        // Decoded points are already on the grid, so a second round trip is exact
+        assertThat(PolylineCodec.encode(decoded)).isEqualTo(PolylineCodec.encode(points));
+    }
+
+    @Test
+    void emptyAndNullDecodeToNoPoints() {
+        assertThat(PolylineCodec.encode(new ArrayList<>())).isEmpty();
+        assertThat(PolylineCodec.decode("")).isEmpty();
+        assertThat(PolylineCodec.decode(null)).isEmpty();
+    }
+
+    @Test
+    void concatDropsTheRepeatedJoint() {
+        double[] a = {12.97160, 77.59460};
+        double[] b = {12.97500, 77.60000};
+        double[] c = {12.98000, 77.61000};
+        String first = PolylineCodec.encode(Arrays.asList(a, b));
+        String second = PolylineCodec.encode(Arrays.asList(b, c));
+
+        assertPoints(PolylineCodec.decode(PolylineCodec.concat(Arrays.asList(first, second))), Arrays.asList(a, b, c));
+    }
+
+    private static void assertPoints(List<double[]> actual, List<double[]> expected) {
+        assertThat(actual).hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i)[0]).as("lat %d", i).isCloseTo(expected.get(i)[0], within(0.5e-5));
+            assertThat(actual.get(i)[1]).as("lng %d", i).isCloseTo(expected.get(i)[1], within(0.5e-5));
+        }
+    }
+}
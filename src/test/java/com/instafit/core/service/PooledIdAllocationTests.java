@@ -0,0 +1,71 @@
+package com.instafit.core.service;
+
+import com.instafit.core.entity.Booking;
+import com.instafit.core.repository.BookingRepository;
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pooled Id Allocation Tests
+ * A database baselined from the pre-series schema must migrate, pass Hibernate's schema
+ * validation, and hand out ids that never collide between JPA and the JDBC ingest path.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BookingIngestService.class)
+class PooledIdAllocationTests {
+
+    private static final String DATABASE = TestDatabase.create("baselined");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.runScript(DATABASE, "db/pre-series-schema.sql");
+        TestDatabase.register(registry, DATABASE);
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingIngestService bookingIngestService;
+
+    @Test
+    void jpaAndJdbcIdsDoNotOverlap() {
+        Set<Long> ids = new HashSet<>();
+        List<Long> all = new ArrayList<>();
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 60; i++) {
+                Booking booking = new Booking();
+                booking.setOrderNo("JPA-" + round + "-" + i);
+                all.add(bookingRepository.save(booking).getId());
+            }
+            all.addAll(bookingIngestService.allocateIds("bookings_id_seq", 75));
+        }
+        ids.addAll(all);
+
+        assertThat(ids).hasSize(all.size());
+        assertThat(all).allMatch(id -> id > 0);
+    }
+
+    @Test
+    void allocatedBlockIsContiguous() {
+        List<Long> ids = bookingIngestService.allocateIds("booking_logs_id_seq", 50);
+
+        assertThat(ids).hasSize(50);
+        assertThat(ids.get(49) - ids.get(0)).isEqualTo(49);
+    }
+}
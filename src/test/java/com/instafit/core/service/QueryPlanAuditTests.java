@@ -0,0 +1,127 @@
+package com.instafit.core.service;
+
+import com.instafit.core.dto.BookingFilter;
+import com.instafit.core.repository.BookingLogRepository;
+import com.instafit.core.repository.BookingRepository;
+import com.instafit.core.repository.BookingSpecifications;
+import com.instafit.core.repository.OrderRouteRepository;
+import com.instafit.core.support.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query Plan Audit Tests
+ * Runs the assignment, job board and booking list repository queries against a seeded
+ * database and checks that none of the SQL Hibernate generated for them scans a large table.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanAuditService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanAuditTests {
+
+    private static final String DATABASE = TestDatabase.create("plans");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry, DATABASE);
+        registry.add("app.query-plan-audit.enabled", () -> "true");
+    }
+
+    @Autowired
+    private QueryPlanAuditService queryPlanAuditService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingLogRepository bookingLogRepository;
+
+    @Autowired
+    private OrderRouteRepository orderRouteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hotQueriesUseAnIndex() {
+        seed();
+        LocalDate day = LocalDate.of(2024, 3, 1);
+
+        bookingRepository.findByCarpenterIdAndAssignedDate("C7", day);
+        bookingRepository.findByCarpenterId("C7");
+        bookingRepository.findByAssignmentStatusAndDate("SUBMITTED", day);
+        bookingRepository.findByAssignedDate(day);
+        bookingRepository.findAssignedJobs(PageRequest.of(0, 100));
+        bookingRepository.findAssignedJobsByStatus("ASSIGNED", PageRequest.of(0, 100));
+        orderRouteRepository.findByCarpenterIdAndRouteDate("C7", day);
+        bookingLogRepository.findByBookingIdOrderByCreatedAtDesc(42L);
+
+        bookingRepository.findListItemsAfter(BookingSpecifications.matching(new BookingFilter()),
+                LocalDateTime.of(2024, 3, 1, 12, 0), 5000L, 51);
+        BookingFilter submitted = new BookingFilter();
+        submitted.setAssignmentStatus("SUBMITTED");
+        bookingRepository.findListItemsAfter(BookingSpecifications.matching(submitted), null, null, 101);
+
+        assertThat(queryPlanAuditService.getRecordedCount()).isGreaterThanOrEqualTo(10);
+        Map<String, List<String>> seqScans = queryPlanAuditService.audit();
+        assertThat(seqScans).isEmpty();
+    }
+
+    @Test
+    void sequentialScanOfALargeTableIsReported() {
+        seed();
+        // customer_name has no index
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.createQuery("SELECT b FROM Booking b WHERE b.customerName = :name")
+                    .setParameter("name", "Asha")
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+
+        assertThat(queryPlanAuditService.audit()).isNotEmpty();
+    }
+
+    private void seed() {
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM bookings", Integer.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO bookings (id, order_no, customer_mobile, date, created_at, carpenter_id, " +
+                "assigned_date, assignment_status) " +
+                "SELECT g, 'ORD' || g, '98' || lpad(g::text, 8, '0'), DATE '2024-01-01' + g % 120, " +
+                "TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute', " +
+                "CASE WHEN g % 4 = 0 THEN NULL ELSE 'C' || g % 40 END, " +
+                "CASE WHEN g % 4 = 0 THEN NULL ELSE DATE '2024-01-01' + g % 120 END, " +
+                "CASE g % 4 WHEN 0 THEN 'SUBMITTED' WHEN 1 THEN 'ASSIGNED' WHEN 2 THEN 'IN_PROGRESS' ELSE 'COMPLETED' END " +
+                "FROM generate_series(1, 100000) g");
+        jdbcTemplate.update("INSERT INTO booking_logs (booking_id, order_no, action_type, changed_by, created_at) " +
+                "SELECT g, 'ORD' || g, 'FETCHED', 'SYSTEM', now() FROM generate_series(1, 100000) g");
+        jdbcTemplate.update("INSERT INTO order_routes (carpenter_id, route_date, active, created_at, updated_at) " +
+                "SELECT 'C' || g % 40, DATE '2024-01-01' + g / 40, true, now(), now() FROM generate_series(1, 20000) g");
+        // As autovacuum leaves it: statistics current and the visibility map set
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+}
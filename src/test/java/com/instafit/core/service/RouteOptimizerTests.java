@@ -0,0 +1,160 @@
+package com.instafit.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Route Optimizer Tests
+ * 2-opt and Or-opt must untangle tours and land on (or next to) the optimum on small days.
+ */
+class RouteOptimizerTests {
+
+    private final RouteOptimizer optimizer = new RouteOptimizer();
+
+    @Test
+    void noStopsAndOneStop() {
+        assertThat(optimizer.solve(new double[][]{{0}}, 100).getOrder()).isEmpty();
+
+        RouteOptimizer.RoutePlan plan = optimizer.solve(new double[][]{{0, 3}, {3, 0}}, 100);
+        assertThat(plan.getOrder()).containsExactly(0);
+        assertThat(plan.getTotalDistance()).isCloseTo(6, within(1e-9));
+    }
+
+    @Test
+    void smallDaysAreWithinFivePercentOfTheOptimum() {
+        Random random = new Random(7);
+        int improvedDays = 0;
+        for (int day = 0; day < 25; day++) {
+            int stops = 4 + random.nextInt(5);
+            double[] lats = new double[stops];
+            double[] lngs = new double[stops];
+            for (int i = 0; i < stops; i++) {
+                lats[i] = 12.9 + random.nextDouble() * 0.2;
+                lngs[i] = 77.5 + random.nextDouble() * 0.2;
+            }
+            double[][] matrix = optimizer.haversineMatrix(13.0, 77.6, lats, lngs);
+
+            RouteOptimizer.RoutePlan plan = optimizer.solve(matrix, 1000);
+
+            double nearestNeighbour = tourLength(matrix, nearestNeighbour(matrix));
+            assertThat(plan.getOrder()).as("day %d", day).containsExactlyInAnyOrder(range(stops));
+            assertThat(plan.getTotalDistance()).as("day %d", day)
+                    .isCloseTo(tourLength(matrix, plan.getOrder()), within(1e-6))
+                    .isLessThanOrEqualTo(nearestNeighbour + 1e-9)
+                    .isLessThanOrEqualTo(optimum(matrix) * 1.05);
+            if (plan.getTotalDistance() < nearestNeighbour - 1e-9) {
+                improvedDays++;
+            }
+        }
+        // The improvement moves, not just the construction, produced these tours
+        assertThat(improvedDays).isPositive();
+    }
+
+    @Test
+    void crossedTourIsUntangled() {
+        // A square whose nearest-neighbour tour from the start crosses itself
+        double[][] matrix = optimizer.haversineMatrix(0, 0,
+                new double[]{0, 0.01, 0.01, 0.0001}, new double[]{0.01, 0.0099, 0, 0.005});
+
+        RouteOptimizer.RoutePlan plan = optimizer.solve(matrix, 1000);
+
+        assertThat(plan.getTotalDistance()).isCloseTo(optimum(matrix), within(1e-9));
+    }
+
+    @Test
+    void oneWayDistancesAreNeverMadeWorse() {
+        Random random = new Random(11);
+        for (int day = 0; day < 40; day++) {
+            int stops = 4 + random.nextInt(5);
+            double[] lats = new double[stops];
+            double[] lngs = new double[stops];
+            for (int i = 0; i < stops; i++) {
+                lats[i] = 12.9 + random.nextDouble() * 0.2;
+                lngs[i] = 77.5 + random.nextDouble() * 0.2;
+            }
+            // One-way streets and flyovers: each direction gets its own detour
+            double[][] matrix = optimizer.haversineMatrix(13.0, 77.6, lats, lngs);
+            for (int i = 0; i < matrix.length; i++) {
+                for (int j = 0; j < matrix.length; j++) {
+                    if (i != j) {
+                        matrix[i][j] *= 1 + random.nextDouble() * 0.4;
+                    }
+                }
+            }
+
+            RouteOptimizer.RoutePlan plan = optimizer.solve(matrix, 1000);
+
+            assertThat(plan.getOrder()).as("day %d", day).containsExactlyInAnyOrder(range(stops));
+            assertThat(plan.getTotalDistance()).as("day %d", day)
+                    .isCloseTo(tourLength(matrix, plan.getOrder()), within(1e-6))
+                    .isLessThanOrEqualTo(tourLength(matrix, nearestNeighbour(matrix)) + 1e-9)
+                    // Reversal moves are weaker on one-way costs, so the bar is looser than for Haversine
+                    .isLessThanOrEqualTo(optimum(matrix) * 1.10);
+        }
+    }
+
+    private static int[] range(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    private static int[] nearestNeighbour(double[][] matrix) {
+        int stops = matrix.length - 1;
+        boolean[] visited = new boolean[stops];
+        int[] order = new int[stops];
+        int current = 0;
+        for (int k = 0; k < stops; k++) {
+            int next = -1;
+            for (int stop = 0; stop < stops; stop++) {
+                if (!visited[stop] && (next < 0 || matrix[current][stop + 1] < matrix[current][next + 1])) {
+                    next = stop;
+                }
+            }
+            visited[next] = true;
+            order[k] = next;
+            current = next + 1;
+        }
+        return order;
+    }
+
+    private static double tourLength(double[][] matrix, int[] order) {
+        double total = 0;
+        int previous = 0;
+        for (int stop : order) {
+            total += matrix[previous][stop + 1];
+            previous = stop + 1;
+        }
+        return total + matrix[previous][0];
+    }
+
+    private static double optimum(double[][] matrix) {
+        return best(matrix, range(matrix.length - 1), 0);
+    }
+
+    // Brute force over every permutation of order[k..]
+    private static double best(double[][] matrix, int[] order, int k) {
+        if (k == order.length) {
+            return tourLength(matrix, order);
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = k; i < order.length; i++) {
+            swap(order, k, i);
+            best = Math.min(best, best(matrix, order, k + 1));
+            swap(order, k, i);
+        }
+        return best;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int t = values[i];
+        values[i] = values[j];
+        values[j] = t;
+    }
+}
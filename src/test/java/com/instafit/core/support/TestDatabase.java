@@ -0,0 +1,79 @@
+package com.instafit.core.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test Database
+ * One embedded PostgreSQL server per test JVM; every caller gets its own empty database on it.
+ */
+public final class TestDatabase {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static EmbeddedPostgres postgres;
+
+    private TestDatabase() {}
+
+    /**
+     * Create a new empty database and return its name
+     */
+    public static String create(String prefix) {
+        String name = prefix + "_" + COUNTER.incrementAndGet();
+        new JdbcTemplate(server().getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        return name;
+    }
+
+    public static DataSource dataSource(String database) {
+        return server().getDatabase("postgres", database);
+    }
+
+    public static String jdbcUrl(String database) {
+        return server().getJdbcUrl("postgres", database);
+    }
+
+    /**
+     * Point a Spring test context at a database; background jobs that call external services stay off
+     */
+    public static void register(DynamicPropertyRegistry registry, String database) {
+        registry.add("spring.datasource.url", () -> jdbcUrl(database));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("app.booking-sync.enabled", () -> "false");
+    }
+
+    public static void runScript(String database, String classpathScript) {
+        try (Connection connection = dataSource(database).getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(classpathScript));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not run " + classpathScript, e);
+        }
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM is exiting
+                }
+            }));
+        }
+        return postgres;
+    }
+}
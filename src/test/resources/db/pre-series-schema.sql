@@ -0,0 +1,227 @@
+-- Schema of a database built by Hibernate ddl-auto: update before versioned migrations,
+-- dumped from the catalog of a real instance. Used to test baselining existing databases.
+
+CREATE SEQUENCE booking_logs_id_seq INCREMENT BY 1;
+CREATE SEQUENCE bookings_id_seq INCREMENT BY 1;
+CREATE SEQUENCE branches_id_seq INCREMENT BY 1;
+CREATE SEQUENCE carpenters_id_seq INCREMENT BY 1;
+CREATE SEQUENCE cities_id_seq INCREMENT BY 1;
+CREATE SEQUENCE fetched_bookings_id_seq INCREMENT BY 1;
+CREATE SEQUENCE fit_types_id_seq INCREMENT BY 1;
+CREATE SEQUENCE items_id_seq INCREMENT BY 1;
+CREATE SEQUENCE order_routes_id_seq INCREMENT BY 1;
+CREATE SEQUENCE pincodes_id_seq INCREMENT BY 1;
+CREATE SEQUENCE users_id_seq INCREMENT BY 1;
+
+CREATE TABLE booking_logs (
+    id bigint DEFAULT nextval('booking_logs_id_seq'::regclass) NOT NULL,
+    action_type character varying(50) NOT NULL,
+    booking_id bigint NOT NULL,
+    changed_by character varying(100) NOT NULL,
+    created_at timestamp without time zone NOT NULL,
+    field_changed character varying(100),
+    ip_address character varying(45),
+    new_value text,
+    notes text,
+    old_value text,
+    order_no character varying(50)
+);
+
+CREATE TABLE bookings (
+    id bigint DEFAULT nextval('bookings_id_seq'::regclass) NOT NULL,
+    address text,
+    assigned_date date,
+    assignment_status character varying(20),
+    booking_time time without time zone,
+    carpenter_id character varying(20),
+    carpenter_name character varying(100),
+    created_at timestamp without time zone,
+    customer_mobile character varying(20),
+    customer_name character varying(200),
+    date date,
+    employee_name character varying(200),
+    employee_phone character varying(20),
+    geocode_status character varying(20),
+    latitude double precision,
+    longitude double precision,
+    notes text,
+    order_no character varying(50),
+    payment_id character varying(100),
+    route_order integer,
+    service_id integer,
+    service_name character varying(200),
+    service_types text,
+    status character varying(50),
+    submitted_at timestamp without time zone,
+    submitted_by character varying(100),
+    total_price numeric(10,2),
+    user_id character varying(100)
+);
+
+CREATE TABLE branches (
+    id bigint DEFAULT nextval('branches_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    branch_code character varying(20) NOT NULL,
+    branch_desc character varying(200) NOT NULL,
+    city_codes character varying(500),
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    updated_at timestamp without time zone NOT NULL,
+    updated_by character varying(50)
+);
+
+CREATE TABLE carpenters (
+    id bigint DEFAULT nextval('carpenters_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    branch_code character varying(10),
+    carpenter_id character varying(20) NOT NULL,
+    carpenter_name character varying(100) NOT NULL,
+    city_code character varying(10),
+    city_desc character varying(100),
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    email character varying(100),
+    job_type character varying(50),
+    mobile character varying(20) NOT NULL,
+    pincode character varying(10),
+    updated_at timestamp without time zone NOT NULL,
+    updated_by character varying(50)
+);
+
+CREATE TABLE cities (
+    id bigint DEFAULT nextval('cities_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    city_code character varying(20) NOT NULL,
+    city_desc character varying(200) NOT NULL,
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    updated_at timestamp without time zone NOT NULL,
+    updated_by character varying(50)
+);
+
+CREATE TABLE fetched_bookings (
+    id bigint DEFAULT nextval('fetched_bookings_id_seq'::regclass) NOT NULL,
+    booking_id bigint,
+    fetch_count integer NOT NULL,
+    fetched_by character varying(100),
+    first_fetched_at timestamp without time zone NOT NULL,
+    last_fetched_at timestamp without time zone NOT NULL,
+    order_no character varying(50) NOT NULL
+);
+
+CREATE TABLE fit_types (
+    id bigint DEFAULT nextval('fit_types_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    fit_type_code character varying(20) NOT NULL,
+    fit_type_desc character varying(200) NOT NULL,
+    updated_at timestamp without time zone NOT NULL,
+    updated_by character varying(50)
+);
+
+CREATE TABLE items (
+    id bigint DEFAULT nextval('items_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    item_code character varying(20) NOT NULL,
+    item_desc character varying(200) NOT NULL,
+    updated_at timestamp without time zone NOT NULL,
+    updated_by character varying(50)
+);
+
+CREATE TABLE order_routes (
+    id bigint DEFAULT nextval('order_routes_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    carpenter_id character varying(20) NOT NULL,
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    map_url text,
+    order_sequence text,
+    route_date date NOT NULL,
+    start_latitude double precision,
+    start_location character varying(200),
+    start_longitude double precision,
+    total_distance double precision,
+    total_duration integer,
+    updated_at timestamp without time zone NOT NULL
+);
+
+CREATE TABLE pincodes (
+    id bigint DEFAULT nextval('pincodes_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    area character varying(200),
+    city_code character varying(20) NOT NULL,
+    city_desc character varying(200),
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    pincode character varying(10) NOT NULL,
+    updated_at timestamp without time zone NOT NULL,
+    updated_by character varying(50)
+);
+
+CREATE TABLE users (
+    id bigint DEFAULT nextval('users_id_seq'::regclass) NOT NULL,
+    active boolean NOT NULL,
+    created_at timestamp without time zone NOT NULL,
+    created_by character varying(50),
+    email character varying(100),
+    full_name character varying(100) NOT NULL,
+    password character varying(255) NOT NULL,
+    phone_number character varying(10) NOT NULL,
+    role character varying(20) NOT NULL,
+    updated_at timestamp without time zone NOT NULL,
+    updated_by character varying(50)
+);
+
+ALTER SEQUENCE booking_logs_id_seq OWNED BY booking_logs.id;
+ALTER SEQUENCE bookings_id_seq OWNED BY bookings.id;
+ALTER SEQUENCE branches_id_seq OWNED BY branches.id;
+ALTER SEQUENCE carpenters_id_seq OWNED BY carpenters.id;
+ALTER SEQUENCE cities_id_seq OWNED BY cities.id;
+ALTER SEQUENCE fetched_bookings_id_seq OWNED BY fetched_bookings.id;
+ALTER SEQUENCE fit_types_id_seq OWNED BY fit_types.id;
+ALTER SEQUENCE items_id_seq OWNED BY items.id;
+ALTER SEQUENCE order_routes_id_seq OWNED BY order_routes.id;
+ALTER SEQUENCE pincodes_id_seq OWNED BY pincodes.id;
+ALTER SEQUENCE users_id_seq OWNED BY users.id;
+
+ALTER TABLE booking_logs ADD CONSTRAINT booking_logs_pkey PRIMARY KEY (id);
+ALTER TABLE bookings ADD CONSTRAINT bookings_pkey PRIMARY KEY (id);
+ALTER TABLE bookings ADD CONSTRAINT uk_6u8hfbykadabxoy9rk20sh2lc UNIQUE (order_no);
+ALTER TABLE branches ADD CONSTRAINT branches_pkey PRIMARY KEY (id);
+ALTER TABLE branches ADD CONSTRAINT uk_aqmyw20ht3aku27r3oorfaw43 UNIQUE (branch_code);
+ALTER TABLE carpenters ADD CONSTRAINT carpenters_pkey PRIMARY KEY (id);
+ALTER TABLE carpenters ADD CONSTRAINT uk_oeoiqnemqixsdqo882qkywevl UNIQUE (mobile);
+ALTER TABLE carpenters ADD CONSTRAINT uk_tqh2nvv0e67o9m04tjk6uu47l UNIQUE (carpenter_id);
+ALTER TABLE cities ADD CONSTRAINT cities_pkey PRIMARY KEY (id);
+ALTER TABLE cities ADD CONSTRAINT uk_mmxm1v9ejho8cyhd1xs01g0w8 UNIQUE (city_code);
+ALTER TABLE fetched_bookings ADD CONSTRAINT fetched_bookings_pkey PRIMARY KEY (id);
+ALTER TABLE fetched_bookings ADD CONSTRAINT uk_r6634nrhsuoyt9qudwxld926 UNIQUE (order_no);
+ALTER TABLE fit_types ADD CONSTRAINT fit_types_pkey PRIMARY KEY (id);
+ALTER TABLE fit_types ADD CONSTRAINT uk_ncv0742fpnabifyxmwmj9haa9 UNIQUE (fit_type_code);
+ALTER TABLE items ADD CONSTRAINT items_pkey PRIMARY KEY (id);
+ALTER TABLE items ADD CONSTRAINT uk_n3wi2ihmiiviolnt3ifaxppsk UNIQUE (item_code);
+ALTER TABLE order_routes ADD CONSTRAINT order_routes_pkey PRIMARY KEY (id);
+ALTER TABLE pincodes ADD CONSTRAINT pincodes_pkey PRIMARY KEY (id);
+ALTER TABLE pincodes ADD CONSTRAINT uk_misr3jxrfpw8ur9qiriqr4lr3 UNIQUE (pincode);
+ALTER TABLE users ADD CONSTRAINT uk_9q63snka3mdh91as4io72espi UNIQUE (phone_number);
+ALTER TABLE users ADD CONSTRAINT users_pkey PRIMARY KEY (id);
+
+CREATE INDEX idx_action_type ON public.booking_logs USING btree (action_type);
+CREATE INDEX idx_booking_id ON public.booking_logs USING btree (booking_id);
+CREATE INDEX idx_changed_by ON public.booking_logs USING btree (changed_by);
+CREATE INDEX idx_created_at ON public.booking_logs USING btree (created_at);
+CREATE INDEX idx_order_no ON public.booking_logs USING btree (order_no);
+CREATE INDEX idx_customer_mobile ON public.bookings USING btree (customer_mobile);
+CREATE INDEX idx_date ON public.bookings USING btree (date);
+CREATE INDEX idx_status ON public.bookings USING btree (status);
+CREATE INDEX idx_submitted_at ON public.bookings USING btree (submitted_at);
+CREATE INDEX idx_user_id ON public.bookings USING btree (user_id);
+CREATE INDEX idx_carpenter_city ON public.carpenters USING btree (city_code);
+CREATE INDEX idx_carpenter_id ON public.carpenters USING btree (carpenter_id);
+CREATE INDEX idx_carpenter_mobile ON public.carpenters USING btree (mobile);
+CREATE INDEX idx_fetched_by ON public.fetched_bookings USING btree (fetched_by);
+CREATE INDEX idx_fetched_order_no ON public.fetched_bookings USING btree (order_no);
+CREATE INDEX idx_last_fetched ON public.fetched_bookings USING btree (last_fetched_at);